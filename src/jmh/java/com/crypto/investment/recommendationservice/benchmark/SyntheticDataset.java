@@ -0,0 +1,133 @@
+package com.crypto.investment.recommendationservice.benchmark;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
+import com.crypto.investment.recommendationservice.repository.CSVDaoConfig;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic crypto ticks for benchmarks: {@code ticks} spread evenly across {@code symbols} cryptos,
+ * each a random price walk over the last {@value #SPAN_DAYS} days up to today (UTC), so month windows hit real data.
+ * Ticks are generated into columns, object lists and CSV files are derived from them on demand.
+ */
+public class SyntheticDataset {
+
+    public static final String FILE_PATTERN = CSVDaoConfig.CRYPTO_PLACEHOLDER + "_values.csv";
+
+    private static final int SPAN_DAYS = 730;
+    private static final int SCALE = 4;
+    private static final long SEED = 42;
+
+    private final List<String> symbols = new ArrayList<>();
+    private final List<PriceColumns> columns = new ArrayList<>();
+
+    /**
+     * @param ticks - total number of ticks across all cryptos
+     * @param symbolCount - number of cryptos
+     */
+    public SyntheticDataset(long ticks, int symbolCount) {
+        var random = new Random(SEED);
+        var ticksPerSymbol = (int) Math.max(1, ticks / symbolCount);
+        var end = LocalDate.now(ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        var step = Math.max(1, SPAN_DAYS * 86_400_000L / ticksPerSymbol);
+        for (int i = 0; i < symbolCount; i++) {
+            var symbol = String.format("C%03d", i);
+            var symbolColumns = new PriceColumns(ticksPerSymbol);
+            var price = (long) (1 + random.nextInt(50_000)) * FixedPointPrice.pow10(SCALE);
+            var timestamp = end - ticksPerSymbol * step;
+            for (int j = 0; j < ticksPerSymbol; j++) {
+                price = Math.max(1, price + (long) (random.nextGaussian() * price / 1000));
+                symbolColumns.add(timestamp, price, SCALE);
+                timestamp += step;
+            }
+            symbols.add(symbol);
+            columns.add(symbolColumns.finish());
+        }
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public Set<String> getSymbolSet() {
+        return new LinkedHashSet<>(symbols);
+    }
+
+    public PriceColumns getColumns(int symbolIndex) {
+        return columns.get(symbolIndex);
+    }
+
+    public CryptoPriceSeries toSeries(int symbolIndex) {
+        return CryptoPriceSeries.of(symbols.get(symbolIndex), columns.get(symbolIndex));
+    }
+
+    /**
+     * @return fully materialized statistics, the representation produced by {@code CryptoStatsCSVDao}
+     */
+    public List<CryptoStat> toCryptoStats(int symbolIndex) {
+        var symbol = symbols.get(symbolIndex);
+        var symbolColumns = columns.get(symbolIndex);
+        var cryptoStats = new ArrayList<CryptoStat>(symbolColumns.size());
+        for (int i = 0; i < symbolColumns.size(); i++) {
+            cryptoStats.add(new CryptoStat(LocalDateTime.ofInstant(Instant.ofEpochMilli(symbolColumns.getTimestamp(i)), ZoneOffset.UTC),
+                                           symbol,
+                                           symbolColumns.getUnscaledPrice(i),
+                                           symbolColumns.getScale()));
+        }
+        return cryptoStats;
+    }
+
+    public String toCsvLine(int symbolIndex, int tickIndex) {
+        var symbolColumns = columns.get(symbolIndex);
+        return symbolColumns.getTimestamp(tickIndex) + "," + symbols.get(symbolIndex) + ","
+                + BigDecimal.valueOf(symbolColumns.getUnscaledPrice(tickIndex), symbolColumns.getScale()).toPlainString();
+    }
+
+    /**
+     * Writes one CSV file per crypto named by {@link #FILE_PATTERN}
+     */
+    public void writeCsvFiles(Path directory) throws IOException {
+        for (int i = 0; i < symbols.size(); i++) {
+            var file = directory.resolve(FILE_PATTERN.replace(CSVDaoConfig.CRYPTO_PLACEHOLDER, symbols.get(i)));
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("timestamp,symbol,price");
+                writer.newLine();
+                for (int j = 0; j < columns.get(i).size(); j++) {
+                    writer.write(toCsvLine(i, j));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    public CSVDaoConfig toDaoConfig(Path directory) {
+        var config = new CSVDaoConfig();
+        config.setDatasourcePath(directory);
+        config.setFilePattern(FILE_PATTERN);
+        config.setSupportedCryptos(getSymbolSet());
+        return config;
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+}
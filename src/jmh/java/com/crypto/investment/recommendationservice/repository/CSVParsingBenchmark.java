@@ -0,0 +1,100 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.benchmark.SyntheticDataset;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * CSV parsing of one crypto file per operation: {@link CryptoStatsCSVDao} (series view), {@link CSVPriceSeriesReader} into a series,
+ * and the original line splitting parser as reference
+ */
+public class CSVParsingBenchmark {
+
+    @State(Scope.Thread)
+    public static class CsvFiles {
+        @Param({"1000", "1000000", "50000000"})
+        public long ticks;
+        @Param({"5", "50", "500"})
+        public int symbols;
+
+        private final CryptoStatsCSVDao dao = new CryptoStatsCSVDao();
+        private final CSVPriceSeriesReader reader = new CSVPriceSeriesReader();
+        private Path directory;
+        private List<String> symbolList;
+        private int next;
+
+        @Setup
+        public void setUp() throws IOException {
+            var dataset = new SyntheticDataset(ticks, symbols);
+            directory = Files.createTempDirectory("csv-parsing-benchmark");
+            dataset.writeCsvFiles(directory);
+            symbolList = dataset.getSymbols();
+            ReflectionTestUtils.setField(dao, "config", dataset.toDaoConfig(directory));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            SyntheticDataset.deleteRecursively(directory);
+        }
+
+        String nextSymbol() {
+            next = (next + 1) % symbolList.size();
+            return symbolList.get(next);
+        }
+
+        Path pathOf(String symbol) {
+            return directory.resolve(SyntheticDataset.FILE_PATTERN.replace(CSVDaoConfig.CRYPTO_PLACEHOLDER, symbol));
+        }
+    }
+
+    @Benchmark
+    public List<CryptoStat> readFileWithLineSplitting(CsvFiles files) throws IOException {
+        return readWithLineSplitting(files.pathOf(files.nextSymbol()));
+    }
+
+    @Benchmark
+    public List<CryptoStat> readFileToCryptoStats(CsvFiles files) {
+        return files.dao.getStatsForCrypto(files.nextSymbol());
+    }
+
+    @Benchmark
+    public CryptoPriceSeries readFileToSeries(CsvFiles files) throws IOException {
+        var symbol = files.nextSymbol();
+        var columns = new PriceColumns();
+        files.reader.read(files.pathOf(symbol), 0, true, columns);
+        return CryptoPriceSeries.of(symbol, columns);
+    }
+
+    /**
+     * Line by line parsing through {@code String.split} and {@code BigDecimal}, the original {@link CryptoStatsCSVDao} parsing
+     */
+    private static List<CryptoStat> readWithLineSplitting(Path pathToFile) throws IOException {
+        return Files.readAllLines(pathToFile).stream()
+                .skip(1)
+                .map(line -> {
+                    var cryptoStatFields = line.strip().split(",");
+                    return new CryptoStat(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(cryptoStatFields[0])), ZoneOffset.UTC),
+                                          cryptoStatFields[1],
+                                          new BigDecimal(cryptoStatFields[2]));
+                })
+                .collect(Collectors.toList());
+    }
+}
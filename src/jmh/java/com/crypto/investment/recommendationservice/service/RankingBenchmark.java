@@ -0,0 +1,116 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.benchmark.SyntheticDataset;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.service.comparators.CryptoStatNormalizedRangeComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalized range ranking: sorting aggregated statistics with {@link CryptoStatNormalizedRangeComparator}
+ * and {@link CryptoRankingLeaderboards#RANKING_ORDER}, the full on-request ranking over series views,
+ * and {@link CryptoRankingLeaderboards} serving a snapshot or refreshing it after one crypto was updated
+ */
+public class RankingBenchmark {
+
+    @State(Scope.Thread)
+    public static class Aggregates {
+        private static final int TICKS_PER_SYMBOL = 1000;
+
+        @Param({"5", "50", "500"})
+        public int symbols;
+
+        private final List<CryptoStatAggregated> cryptoStatsAggregated = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            var dataset = new SyntheticDataset((long) TICKS_PER_SYMBOL * symbols, symbols);
+            for (int i = 0; i < symbols; i++) {
+                cryptoStatsAggregated.add(CryptoStatsAggregator.aggregate(dataset.getSymbols().get(i), dataset.toSeries(i).asList()));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Leaderboards {
+        @Param({"1000", "1000000", "50000000"})
+        public long ticks;
+        @Param({"5", "50", "500"})
+        public int symbols;
+
+        private final CryptoRankingLeaderboards leaderboards = new CryptoRankingLeaderboards();
+        private final Map<String, List<CryptoStat>> cryptoStats = new HashMap<>();
+        private List<String> symbolList;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            var dataset = new SyntheticDataset(ticks, symbols);
+            symbolList = dataset.getSymbols();
+            for (int i = 0; i < symbols; i++) {
+                cryptoStats.put(symbolList.get(i), dataset.toSeries(i).asList());
+            }
+            getRanking(this);
+        }
+
+        String nextSymbol() {
+            next = (next + 1) % symbols;
+            return symbolList.get(next);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SortedSet<CryptoStatAggregated> sortWithNormalizedRangeComparator(Aggregates aggregates) {
+        var ranking = new TreeSet<>(new CryptoStatNormalizedRangeComparator());
+        ranking.addAll(aggregates.cryptoStatsAggregated);
+        return ranking;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SortedSet<CryptoStatAggregated> sortWithRankingOrder(Aggregates aggregates) {
+        var ranking = new TreeSet<>(CryptoRankingLeaderboards.RANKING_ORDER);
+        ranking.addAll(aggregates.cryptoStatsAggregated);
+        return ranking;
+    }
+
+    @Benchmark
+    public SortedSet<CryptoStatAggregated> rankAllSeriesViews(Leaderboards leaderboards) {
+        var ranking = new TreeSet<>(CryptoRankingLeaderboards.RANKING_ORDER);
+        leaderboards.cryptoStats.forEach((symbol, cryptoStats) -> ranking.add(CryptoStatsAggregator.aggregate(symbol, cryptoStats)));
+        return ranking;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SortedSet<CryptoStatAggregated> leaderboardSnapshot(Leaderboards leaderboards) {
+        return getRanking(leaderboards);
+    }
+
+    @Benchmark
+    public SortedSet<CryptoStatAggregated> leaderboardAfterUpdate(Leaderboards leaderboards) {
+        leaderboards.leaderboards.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(leaderboards, leaderboards.nextSymbol(), 0, 0));
+        return getRanking(leaderboards);
+    }
+
+    private static SortedSet<CryptoStatAggregated> getRanking(Leaderboards leaderboards) {
+        return leaderboards.leaderboards.getRanking(null, leaderboards.cryptoStats::keySet,
+                                                    symbol -> CryptoStatsAggregator.aggregate(symbol, leaderboards.cryptoStats.get(symbol)))
+                .orElseThrow();
+    }
+}
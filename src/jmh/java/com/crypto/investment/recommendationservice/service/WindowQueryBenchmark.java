@@ -0,0 +1,135 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.benchmark.SyntheticDataset;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Per crypto window queries of {@link CryptoStatsServiceImpl}: {@code filterByDateSpan} for the last month
+ * and {@code aggregateStats} over the whole period, each on materialized object lists
+ * (as produced by {@code CryptoStatsCSVDao}) and on series views (as produced by {@code CryptoStatsInMemoryDao}).
+ * Aggregation is also measured with the comparator based engine of {@link CryptoStatAggregatedFields} as reference.
+ */
+public class WindowQueryBenchmark {
+
+    public abstract static class Cryptos {
+        @Param({"1000", "1000000", "50000000"})
+        public long ticks;
+        @Param({"5", "50", "500"})
+        public int symbols;
+
+        final CryptoStatsServiceImpl service = new CryptoStatsServiceImpl();
+        final LocalDate end = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        final LocalDate start = end.minusDays(1).minusMonths(1);
+        List<String> symbolList;
+        List<CryptoStat>[] cryptoStats;
+        private int next;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setUp() {
+            var dataset = new SyntheticDataset(ticks, symbols);
+            symbolList = dataset.getSymbols();
+            cryptoStats = new List[symbols];
+            for (int i = 0; i < symbols; i++) {
+                cryptoStats[i] = load(dataset, i);
+            }
+        }
+
+        abstract List<CryptoStat> load(SyntheticDataset dataset, int symbolIndex);
+
+        int nextIndex() {
+            next = (next + 1) % symbols;
+            return next;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CryptoStatLists extends Cryptos {
+        @Override
+        List<CryptoStat> load(SyntheticDataset dataset, int symbolIndex) {
+            return dataset.toCryptoStats(symbolIndex);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CryptoStatSeriesViews extends Cryptos {
+        @Override
+        List<CryptoStat> load(SyntheticDataset dataset, int symbolIndex) {
+            return dataset.toSeries(symbolIndex).asList();
+        }
+    }
+
+    @Benchmark
+    public List<CryptoStat> filterByDateSpanList(CryptoStatLists cryptos) {
+        return filterByDateSpan(cryptos);
+    }
+
+    @Benchmark
+    public List<CryptoStat> filterByDateSpanSeriesView(CryptoStatSeriesViews cryptos) {
+        return filterByDateSpan(cryptos);
+    }
+
+    @Benchmark
+    public CryptoStatAggregated aggregateStatsWithComparators(CryptoStatLists cryptos) {
+        var index = cryptos.nextIndex();
+        return aggregateWithComparators(cryptos.symbolList.get(index), cryptos.cryptoStats[index]);
+    }
+
+    @Benchmark
+    public CryptoStatAggregated aggregateStatsList(CryptoStatLists cryptos) {
+        return aggregateStats(cryptos);
+    }
+
+    @Benchmark
+    public CryptoStatAggregated aggregateStatsSeriesView(CryptoStatSeriesViews cryptos) {
+        return aggregateStats(cryptos);
+    }
+
+    @Benchmark
+    public CryptoStatAggregated lastMonthList(CryptoStatLists cryptos) {
+        return lastMonth(cryptos);
+    }
+
+    @Benchmark
+    public CryptoStatAggregated lastMonthSeriesView(CryptoStatSeriesViews cryptos) {
+        return lastMonth(cryptos);
+    }
+
+    private static List<CryptoStat> filterByDateSpan(Cryptos cryptos) {
+        return cryptos.service.filterByDateSpan(cryptos.cryptoStats[cryptos.nextIndex()], cryptos.start, cryptos.end);
+    }
+
+    private static CryptoStatAggregated aggregateStats(Cryptos cryptos) {
+        var index = cryptos.nextIndex();
+        return cryptos.service.aggregateStats(cryptos.symbolList.get(index), cryptos.cryptoStats[index]);
+    }
+
+    private static CryptoStatAggregated lastMonth(Cryptos cryptos) {
+        var index = cryptos.nextIndex();
+        var window = cryptos.service.filterByDateSpan(cryptos.cryptoStats[index], cryptos.start, cryptos.end);
+        return cryptos.service.aggregateStats(cryptos.symbolList.get(index), window);
+    }
+
+    /**
+     * One {@code max} pass per {@link CryptoStatAggregatedFields}, the original aggregation of the service
+     */
+    private static CryptoStatAggregated aggregateWithComparators(String symbol, List<CryptoStat> cryptoStats) {
+        var cryptoStatAggregated = new CryptoStatAggregated(symbol);
+        for (var field : CryptoStatAggregatedFields.values()) {
+            cryptoStats.stream().max(field.getComp())
+                    .map(CryptoStat::getPrice)
+                    .ifPresent(price -> field.getSetter().accept(cryptoStatAggregated, price));
+        }
+        return cryptoStatAggregated;
+    }
+}
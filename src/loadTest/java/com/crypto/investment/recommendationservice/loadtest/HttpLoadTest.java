@@ -0,0 +1,129 @@
+package com.crypto.investment.recommendationservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Closed-loop HTTP load generator for comparing request execution modes of a running service:
+ * {@code concurrency} clients send requests back to back, cycling through the paths, for {@code duration} seconds
+ * after {@code warmup} seconds, then throughput, latency percentiles and response statuses are printed.
+ * <p>
+ * Usage: {@code HttpLoadTest <baseUrl> <concurrency> <durationSeconds> <warmupSeconds> <path>...}
+ */
+public class HttpLoadTest {
+
+    private static final int CONNECTION_ERROR = -1;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("usage: HttpLoadTest <baseUrl> <concurrency> <durationSeconds> <warmupSeconds> <path>...");
+            System.exit(1);
+        }
+        var baseUrl = args[0];
+        var concurrency = Integer.parseInt(args[1]);
+        var duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        var warmup = Duration.ofSeconds(Long.parseLong(args[3]));
+        var requests = Arrays.stream(args, 4, args.length)
+                .map(path -> HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build())
+                .toArray(HttpRequest[]::new);
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+
+        System.out.println("warming up " + baseUrl + " for " + warmup.toSeconds() + "s with " + concurrency + " clients");
+        run(client, requests, concurrency, warmup);
+        System.out.println("measuring for " + duration.toSeconds() + "s");
+        var workers = run(client, requests, concurrency, duration);
+        report(workers, duration);
+    }
+
+    private static List<Worker> run(HttpClient client, HttpRequest[] requests, int concurrency, Duration duration) throws InterruptedException {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var workers = new ArrayList<Worker>(concurrency);
+        var threads = new ArrayList<Thread>(concurrency);
+        for (var i = 0; i < concurrency; i++) {
+            var worker = new Worker(client, requests, i, deadline);
+            var thread = new Thread(worker, "load-test-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        return workers;
+    }
+
+    private static void report(List<Worker> workers, Duration duration) {
+        var count = workers.stream().mapToInt(worker -> worker.count).sum();
+        var latencies = new long[count];
+        var statuses = new TreeMap<Integer, Integer>();
+        var offset = 0;
+        for (var worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+            worker.statuses.forEach((status, statusCount) -> statuses.merge(status, statusCount, Integer::sum));
+        }
+        Arrays.sort(latencies);
+        System.out.printf("requests: %d, throughput: %.1f req/s%n", count, count / (double) duration.toSeconds());
+        System.out.printf("latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                          percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+                          percentile(latencies, 0.999), percentile(latencies, 1));
+        System.out.println("statuses (" + CONNECTION_ERROR + " - connection error): " + statuses);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        var index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final HttpRequest[] requests;
+        private final long deadline;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+        private int next;
+
+        private Worker(HttpClient client, HttpRequest[] requests, int offset, long deadline) {
+            this.client = client;
+            this.requests = requests;
+            this.next = offset;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                var request = requests[next++ % requests.length];
+                var start = System.nanoTime();
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException ex) {
+                    status = CONNECTION_ERROR;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+                statuses.merge(status, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking HTTP client for requests between nodes of the cluster. Every request carries {@link #FORWARDED_HEADER}
+ * with the URL of the sending node and {@link #TOKEN_HEADER} signed with {@link ClusterConfig#getSecret()},
+ * so the receiving node serves it from its own cryptos and never forwards it again
+ */
+@Component
+public class ClusterClient {
+
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+
+    private HttpClient httpClient;
+    private String self;
+    private String token;
+
+    @Autowired
+    private ClusterConfig config;
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        self = config.getNodes().get(config.getNodeIndex());
+        token = SymbolPartitioner.tokenOf(config.getSecret(), self);
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .build();
+    }
+
+    /**
+     * @param node - base URL of the node
+     * @param pathAndQuery - encoded path and query of the request
+     * @param headers - additional request headers
+     * @return response of any status, completed with {@link ClusterUnavailableException} if the node is not reachable in time
+     */
+    public CompletableFuture<HttpResponse<byte[]>> get(String node, String pathAndQuery, Map<String, String> headers) {
+        var request = HttpRequest.newBuilder(URI.create(node + pathAndQuery))
+                .timeout(Duration.ofMillis(config.getRequestTimeoutMillis()))
+                .header(FORWARDED_HEADER, self)
+                .header(TOKEN_HEADER, token);
+        headers.forEach(request::header);
+        return httpClient.sendAsync(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray())
+                .exceptionally(ex -> {
+                    throw new ClusterUnavailableException("Cluster node " + node + " is not available", ex.getCause() != null ? ex.getCause() : ex);
+                });
+    }
+}
@@ -0,0 +1,83 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of cluster mode: every node lists the base URLs of all nodes in the same order
+ * and its own position among them, cryptos are partitioned across the nodes by {@link SymbolPartitioner}
+ */
+@Component
+@ConfigurationProperties("cluster")
+public class ClusterConfig {
+
+    private boolean enabled;
+    private List<String> nodes = new ArrayList<>();
+    private int nodeIndex;
+    private String secret;
+    private long connectTimeoutMillis = 1000;
+    private long requestTimeoutMillis = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return base URLs of all nodes, e.g. {@code http://127.0.0.1:8081}, identical on every node
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<String> nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return position of this node in {@link #getNodes()}
+     */
+    public int getNodeIndex() {
+        return nodeIndex;
+    }
+
+    public void setNodeIndex(int nodeIndex) {
+        this.nodeIndex = nodeIndex;
+    }
+
+    /**
+     * @return secret shared by all nodes, requests between nodes are signed with it, see {@link SymbolPartitioner#isForwardedByNode}
+     */
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @return time a node waits for the response of another node before the request fails with {@code 503}
+     */
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+}
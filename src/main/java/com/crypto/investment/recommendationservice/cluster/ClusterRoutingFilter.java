@@ -0,0 +1,95 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import com.crypto.investment.recommendationservice.security.RequestPaths;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * Routes single crypto statistics requests of cryptos owned by another node of the cluster to the owner,
+ * checked after {@link com.crypto.investment.recommendationservice.security.RateLimitFilter}.
+ * Validators of conditional requests are passed on, so the owner answers {@code 304 Not Modified} as well.
+ * Requests forwarded by another node, see {@link SymbolPartitioner#isForwardedByNode}, are always served by this node.
+ * Partial results of {@link ShardedCryptoStats#SHARD_PATH} are served only to other nodes, other clients get {@code 403}.
+ * Paths are matched decoded, see {@link RequestPaths}
+ */
+@Component
+@Order(3)
+public class ClusterRoutingFilter implements Filter {
+    private static final Logger LOGGER = LogManager.getLogger(ClusterRoutingFilter.class);
+
+    private static final Pattern STATS_PATH = Pattern.compile("/cryptos/([^/]+)/stats");
+    private static final List<String> REQUEST_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.ACCEPT);
+    private static final List<String> RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.RETRY_AFTER);
+
+    @Autowired
+    private SymbolPartitioner partitioner;
+    @Autowired
+    private ClusterClient client;
+    @Autowired
+    private CryptoValidator cryptoValidator;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        var httpServletRequest = (HttpServletRequest) request;
+        var path = RequestPaths.lookupPath(httpServletRequest);
+        var forwardedByNode = partitioner.isForwardedByNode(request.getRemoteAddr(), httpServletRequest.getHeader(ClusterClient.FORWARDED_HEADER),
+                                                            httpServletRequest.getHeader(ClusterClient.TOKEN_HEADER));
+        if (path.startsWith(ShardedCryptoStats.SHARD_PATH) && !forwardedByNode) {
+            LOGGER.warn("rejected request of " + path + " from " + request.getRemoteAddr() + " which is not a cluster node");
+            ((HttpServletResponse) response).setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (!partitioner.isEnabled() || !"GET".equals(httpServletRequest.getMethod()) || forwardedByNode) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var matcher = STATS_PATH.matcher(path);
+        if (!matcher.matches() || !cryptoValidator.isSupportedCrypto(matcher.group(1)) || partitioner.isLocal(matcher.group(1))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        forward(httpServletRequest, (HttpServletResponse) response, partitioner.getNodes().get(partitioner.getOwner(matcher.group(1))));
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String owner) throws IOException {
+        var headers = new HashMap<String, String>();
+        for (var header : REQUEST_HEADERS) {
+            var value = request.getHeader(header);
+            if (value != null) {
+                headers.put(header, value);
+            }
+        }
+        var query = request.getQueryString();
+        try {
+            var forwarded = client.get(owner, request.getRequestURI() + (query == null ? "" : "?" + query), headers).join();
+            response.setStatus(forwarded.statusCode());
+            for (var header : RESPONSE_HEADERS) {
+                forwarded.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+            }
+            response.setContentLength(forwarded.body().length);
+            response.getOutputStream().write(forwarded.body());
+        } catch (CompletionException ex) {
+            LOGGER.warn("error during forwarding " + request.getRequestURI() + " to " + owner, ex.getCause());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+}
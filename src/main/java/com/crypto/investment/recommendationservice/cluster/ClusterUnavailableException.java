@@ -0,0 +1,15 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+/**
+ * Another node of the cluster could not be reached or failed to answer
+ */
+public class ClusterUnavailableException extends RuntimeException {
+
+    public ClusterUnavailableException(String message) {
+        super(message);
+    }
+
+    public ClusterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+/**
+ * Statistics of a crypto owned by another node of the cluster were requested from this node
+ */
+public class CryptoNotLocalException extends RuntimeException {
+
+    public CryptoNotLocalException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,233 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.service.CryptoRankingLeaderboards;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Scatter-gather of statistics over all nodes of the cluster. Every other node is asked for the partial result
+ * of the cryptos it owns at {@link #SHARD_PATH}, this node computes its partial result with {@link CryptoStatsService}.
+ * Nodes own disjoint cryptos, so the ranking of the cluster is the union of the partial rankings
+ * and the highest normalized range of a day is the highest of the partial winners. The version of a merged result combines the versions of all partial results,
+ * so the merged result is only rebuilt if one of them changed
+ */
+@Component
+public class ShardedCryptoStats {
+
+    /**
+     * Path prefix of partial results a node serves to other nodes
+     */
+    public static final String SHARD_PATH = "/cluster/shard";
+
+    private static final TypeReference<List<CryptoStatAggregated>> RANKING = new TypeReference<>() {
+    };
+    private static final TypeReference<CryptoStatAggregated> STATS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<CryptoStatsBatchEntry>> BATCH = new TypeReference<>() {
+    };
+
+    /**
+     * Merged result together with its version. The result is computed on first access,
+     * the version is known as soon as every node answered
+     */
+    public static final class Gathered<T> {
+        private final CryptoStatsVersions.DataVersion version;
+        private final Supplier<T> body;
+
+        private Gathered(CryptoStatsVersions.DataVersion version, Supplier<T> body) {
+            this.version = version;
+            this.body = body;
+        }
+
+        public CryptoStatsVersions.DataVersion getVersion() {
+            return version;
+        }
+
+        public T getBody() {
+            return body.get();
+        }
+    }
+
+    @Autowired
+    private SymbolPartitioner partitioner;
+    @Autowired
+    private ClusterClient client;
+    @Autowired
+    private CryptoStatsService service;
+    @Autowired
+    private CryptoStatsVersions versions;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public boolean isEnabled() {
+        return partitioner.isEnabled();
+    }
+
+    /**
+     * @param months - number of last months or {@code null} for the whole period
+     * @return descending ranking of all cryptos of the cluster, see {@link CryptoStatsService#getAggregatedStatsPerCryptoInDescendingOrder}
+     */
+    public CompletableFuture<Gathered<SortedSet<CryptoStatAggregated>>> gatherRanking(Integer months) {
+        var localVersion = versions.getVersion();
+        return scatter(SHARD_PATH + "/ranking" + (months == null ? "" : "?m=" + months))
+                .thenApply(partials -> new Gathered<>(combine(localVersion, partials), () -> {
+                    var ranking = new TreeSet<>(CryptoRankingLeaderboards.RANKING_ORDER);
+                    ranking.addAll(service.getAggregatedStatsPerCryptoInDescendingOrder(months));
+                    for (var partial : partials) {
+                        ranking.addAll(parse(partial, RANKING));
+                    }
+                    return ranking;
+                }));
+    }
+
+    /**
+     * @return crypto of the cluster with the highest normalized range for provided day, {@code null} if there is none
+     */
+    public CompletableFuture<Gathered<CryptoStatAggregated>> gatherHighestNormalizedRange(LocalDate date) {
+        var localVersion = versions.getVersion();
+        return scatter(SHARD_PATH + "/ranking/" + date)
+                .thenApply(partials -> new Gathered<>(combine(localVersion, partials), () -> {
+                    var winners = new ArrayList<CryptoStatAggregated>();
+                    service.getCryptoWithHighestNormalizedRangeForDay(date).ifPresent(winners::add);
+                    for (var partial : partials) {
+                        if (partial.statusCode() == HttpStatus.OK.value()) {
+                            winners.add(parse(partial, STATS));
+                        }
+                    }
+                    return winners.stream().max(CryptoRankingLeaderboards.RANKING_ORDER).orElse(null);
+                }));
+    }
+
+    /**
+     * Asks every node only for the cryptos it owns
+     * @return entries in the same order as {@link CryptoStatsService#getAggregatedStatsForCryptos} would return them
+     */
+    public CompletableFuture<List<CryptoStatsBatchEntry>> gatherStats(List<String> symbols, List<Integer> months) {
+        var requested = new ArrayList<>(new LinkedHashSet<>(symbols));
+        var windowCount = months == null || months.isEmpty() ? 1 : new LinkedHashSet<>(months).size();
+        var symbolsByNode = requested.stream()
+                .collect(Collectors.groupingBy(partitioner::getOwner, LinkedHashMap::new, Collectors.toList()));
+        var localSymbols = symbolsByNode.remove(partitioner.getSelf());
+        var remote = new ArrayList<CompletableFuture<Map<String, List<CryptoStatsBatchEntry>>>>();
+        symbolsByNode.forEach((node, nodeSymbols) -> {
+            var query = "?symbols=" + nodeSymbols.stream().map(symbol -> URLEncoder.encode(symbol, StandardCharsets.UTF_8)).collect(Collectors.joining(","))
+                        + (months == null || months.isEmpty() ? "" : "&m=" + months.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            remote.add(client.get(partitioner.getNodes().get(node), SHARD_PATH + "/stats" + query, Map.of())
+                               .thenApply(response -> bySymbol(nodeSymbols, parse(checkStatus(response, node), BATCH), windowCount)));
+        });
+        var entriesBySymbol = new HashMap<String, List<CryptoStatsBatchEntry>>();
+        if (localSymbols != null) {
+            entriesBySymbol.putAll(bySymbol(localSymbols, service.getAggregatedStatsForCryptos(localSymbols, months), windowCount));
+        }
+        return CompletableFuture.allOf(remote.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            remote.forEach(partial -> entriesBySymbol.putAll(partial.join()));
+            var entries = new ArrayList<CryptoStatsBatchEntry>(requested.size() * windowCount);
+            requested.forEach(symbol -> entries.addAll(entriesBySymbol.get(symbol)));
+            return entries;
+        });
+    }
+
+    private CompletableFuture<List<HttpResponse<byte[]>>> scatter(String pathAndQuery) {
+        var nodes = partitioner.getNodes();
+        var partials = new ArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+        for (var node = 0; node < nodes.size(); node++) {
+            if (node != partitioner.getSelf()) {
+                var index = node;
+                partials.add(client.get(nodes.get(node), pathAndQuery, Map.of()).thenApply(response -> checkStatus(response, index)));
+            }
+        }
+        return CompletableFuture.allOf(partials.toArray(CompletableFuture[]::new))
+                .thenApply(done -> partials.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private HttpResponse<byte[]> checkStatus(HttpResponse<byte[]> response, int node) {
+        if (response.statusCode() != HttpStatus.OK.value() && response.statusCode() != HttpStatus.NOT_FOUND.value()) {
+            throw new ClusterUnavailableException("Cluster node " + partitioner.getNodes().get(node) + " answered with status " + response.statusCode());
+        }
+        return response;
+    }
+
+    private <T> T parse(HttpResponse<byte[]> response, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException ex) {
+            throw new ClusterUnavailableException("Invalid response of " + response.uri(), ex);
+        }
+    }
+
+    private static Map<String, List<CryptoStatsBatchEntry>> bySymbol(List<String> symbols, List<CryptoStatsBatchEntry> entries, int windowCount) {
+        if (entries.size() != symbols.size() * windowCount) {
+            throw new ClusterUnavailableException("Expected " + symbols.size() * windowCount + " statistics of " + symbols + " but got " + entries.size());
+        }
+        var entriesBySymbol = new HashMap<String, List<CryptoStatsBatchEntry>>();
+        for (var i = 0; i < symbols.size(); i++) {
+            entriesBySymbol.put(symbols.get(i), entries.subList(i * windowCount, (i + 1) * windowCount));
+        }
+        return entriesBySymbol;
+    }
+
+    /**
+     * @return version changing whenever the local version or the status or {@code ETag} of a partial result changes,
+     *          last modified at the latest change of them
+     */
+    private static CryptoStatsVersions.DataVersion combine(CryptoStatsVersions.DataVersion local, List<HttpResponse<byte[]>> partials) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        digest.update(local.getTag().getBytes(StandardCharsets.UTF_8));
+        var lastModified = local.getLastModified();
+        for (var partial : partials) {
+            var etag = partial.headers().firstValue(HttpHeaders.ETAG).orElse("");
+            digest.update(("|" + partial.statusCode() + etag).getBytes(StandardCharsets.UTF_8));
+            lastModified = Math.max(lastModified, lastModified(partial));
+        }
+        var tag = new StringBuilder("c");
+        var hash = digest.digest();
+        for (var i = 0; i < 8; i++) {
+            tag.append(Character.forDigit((hash[i] >> 4) & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return CryptoStatsVersions.DataVersion.of(tag.toString(), lastModified);
+    }
+
+    private static long lastModified(HttpResponse<byte[]> response) {
+        var value = response.headers().firstValue(HttpHeaders.LAST_MODIFIED);
+        try {
+            return value.map(date -> ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()).orElse(0L);
+        } catch (DateTimeParseException ex) {
+            return 0;
+        }
+    }
+}
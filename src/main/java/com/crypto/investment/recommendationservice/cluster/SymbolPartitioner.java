@@ -0,0 +1,210 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns every crypto to one node of {@link ClusterConfig} by rendezvous hashing: the node with the highest hash
+ * of (node URL, symbol) owns the symbol. Owners depend only on the node list, so all nodes agree without coordination,
+ * and adding or removing a node moves only the symbols it gains or loses.
+ * Without cluster mode this node owns every crypto
+ */
+@Component
+public class SymbolPartitioner {
+    private static final Logger LOGGER = LogManager.getLogger(SymbolPartitioner.class);
+
+    /**
+     * Partitioner of a single node owning every crypto, used where cluster mode is not wired
+     */
+    public static final SymbolPartitioner SINGLE_NODE = new SymbolPartitioner();
+
+    private List<String> nodes = List.of();
+    private long[] nodeHashes = new long[0];
+    private int self;
+    private Set<String> nodeAddresses = Set.of();
+    private Map<String, byte[]> nodeTokens = Map.of();
+
+    @Autowired
+    private ClusterConfig config;
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (config.getNodes().isEmpty() || config.getNodeIndex() < 0 || config.getNodeIndex() >= config.getNodes().size()) {
+            throw new IllegalStateException("cluster.node-index " + config.getNodeIndex() + " is not a position in cluster.nodes " + config.getNodes());
+        }
+        setNodes(config.getNodes(), config.getNodeIndex(), config.getSecret());
+        LOGGER.info("cluster node " + self + " of " + nodes + " at " + nodes.get(self));
+    }
+
+    /**
+     * @param nodes - base URLs of all nodes
+     * @param self - position of this node in provided nodes
+     * @param secret - secret shared by the nodes, see {@link ClusterConfig#getSecret()}
+     */
+    void setNodes(List<String> nodes, int self, String secret) {
+        var hashes = new long[nodes.size()];
+        var addresses = new HashSet<String>();
+        var tokens = new HashMap<String, byte[]>();
+        for (var i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(nodes.get(i));
+            tokens.put(nodes.get(i), tokenOf(secret, nodes.get(i)).getBytes(StandardCharsets.US_ASCII));
+            var host = URI.create(nodes.get(i)).getHost();
+            try {
+                for (var address : InetAddress.getAllByName(host)) {
+                    addresses.add(address.getHostAddress());
+                }
+            } catch (UnknownHostException ex) {
+                LOGGER.warn("cannot resolve cluster node " + nodes.get(i), ex);
+            }
+        }
+        this.nodes = List.copyOf(nodes);
+        this.nodeHashes = hashes;
+        this.self = self;
+        this.nodeAddresses = addresses;
+        this.nodeTokens = tokens;
+    }
+
+    public boolean isEnabled() {
+        return nodes.size() > 1;
+    }
+
+    /**
+     * @return base URLs of all nodes, empty without cluster mode
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return position of this node in {@link #getNodes()}
+     */
+    public int getSelf() {
+        return self;
+    }
+
+    /**
+     * @param symbol - crypto symbol in any case
+     * @return position of the node owning provided crypto in {@link #getNodes()}
+     */
+    public int getOwner(String symbol) {
+        if (nodeHashes.length <= 1) {
+            return self;
+        }
+        var symbolHash = hash(symbol.toUpperCase());
+        var owner = 0;
+        var highest = 0L;
+        for (var i = 0; i < nodeHashes.length; i++) {
+            var score = mix(nodeHashes[i] ^ symbolHash);
+            if (i == 0 || Long.compareUnsigned(score, highest) > 0) {
+                owner = i;
+                highest = score;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * @param symbol - crypto symbol in any case
+     * @return whether this node owns provided crypto and holds its statistics
+     */
+    public boolean isLocal(String symbol) {
+        return getOwner(symbol) == self;
+    }
+
+    /**
+     * @param symbol - crypto symbol in any case
+     * @throws CryptoNotLocalException if another node owns provided crypto, so that its statistics are never loaded here
+     */
+    public void checkLocal(String symbol) {
+        if (!isLocal(symbol)) {
+            throw new CryptoNotLocalException("Crypto " + symbol + " is owned by cluster node " + nodes.get(getOwner(symbol)));
+        }
+    }
+
+    /**
+     * @return cryptos of provided ones owned by this node
+     */
+    public Set<String> localCryptos(Set<String> symbols) {
+        return isEnabled() ? symbols.stream().filter(this::isLocal).collect(Collectors.toSet()) : symbols;
+    }
+
+    /**
+     * @param remoteAddr - address a request was received from
+     * @return whether provided address is one of the addresses the nodes were resolved to on start
+     */
+    public boolean isNodeAddress(String remoteAddr) {
+        return nodeAddresses.contains(remoteAddr);
+    }
+
+    /**
+     * Loopback or shared hosts run other clients on node addresses, so a request counts as forwarded by a node
+     * only if it also carries the token of the node signed with the shared secret
+     * @param remoteAddr - address a request was received from
+     * @param node - value of {@link ClusterClient#FORWARDED_HEADER}, base URL of the sending node
+     * @param token - value of {@link ClusterClient#TOKEN_HEADER}
+     * @return whether the request was sent by another node of the cluster
+     */
+    public boolean isForwardedByNode(String remoteAddr, String node, String token) {
+        var expected = node == null || token == null ? null : nodeTokens.get(node);
+        return expected != null && isNodeAddress(remoteAddr) && MessageDigest.isEqual(expected, token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return HMAC-SHA256 of the node URL keyed with the shared secret, Base64 encoded
+     * @throws IllegalStateException if no secret is configured
+     */
+    static String tokenOf(String secret, String node) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("cluster.secret must be set to authenticate requests between nodes");
+        }
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(node.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a, unlike {@link String#hashCode()} well distributed for short symbols
+     */
+    private static long hash(String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (var i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, so that scores of one symbol on different nodes are independent
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
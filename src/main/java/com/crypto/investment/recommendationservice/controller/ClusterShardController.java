@@ -0,0 +1,55 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.cluster.ShardedCryptoStats;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partial results of the cryptos owned by this node, requested by other nodes of the cluster through {@link ShardedCryptoStats}.
+ * Partial rankings carry validators of the local data version and are served from {@link RankingResponseCache}
+ */
+@RestController
+@RequestMapping(value = ShardedCryptoStats.SHARD_PATH)
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterShardController {
+
+    @Autowired
+    private CryptoStatsService service;
+    @Autowired
+    private CryptoStatsVersions versions;
+    @Autowired
+    private RankingResponseCache responseCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CryptoStatsBatchEntry>> getCryptoStats(@RequestParam List<String> symbols, @RequestParam(required = false, name = "m") List<Integer> lastMonths) {
+        return ResponseEntity.ok(service.getAggregatedStatsForCryptos(symbols, lastMonths));
+    }
+
+    @GetMapping("/ranking")
+    public ResponseEntity<byte[]> getCryptoStatsOrderedByNormalizedRange(@RequestParam(required = false, name = "m") Integer lastMonths,
+                                                                         WebRequest request) {
+        return responseCache.respond(request, RankingResponseCache.shardKey(RankingResponseCache.rankingKey(lastMonths)), versions.getVersion(), lastMonths,
+                                     () -> service.getAggregatedStatsPerCryptoInDescendingOrder(lastMonths));
+    }
+
+    @GetMapping("/ranking/{date}")
+    public ResponseEntity<byte[]> getCryptoStatWithHighestNormalizedRange(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                          WebRequest request) {
+        return responseCache.respond(request, RankingResponseCache.shardKey(RankingResponseCache.dayKey(date)), versions.getVersion(), null,
+                                     () -> service.getCryptoWithHighestNormalizedRangeForDay(date).orElse(null));
+    }
+}
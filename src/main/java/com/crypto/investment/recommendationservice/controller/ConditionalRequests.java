@@ -0,0 +1,49 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Conditional GET of statistics endpoints: strong {@code ETag} and {@code Last-Modified} are derived from {@link CryptoStatsVersions}
+ * and checked before any statistics are computed. Month windows end at the current UTC day,
+ * so their validators change on day roll-over as well
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Sets validators of provided data version on the response and checks them against the request
+     * @param months - number of last months the response is computed for, {@code null} for the whole period
+     * @return whether the response is set to {@code 304 Not Modified} and must not be computed
+     */
+    static boolean checkNotModified(WebRequest request, CryptoStatsVersions.DataVersion version, Integer months) {
+        return checkNotModified(request, version, months, null);
+    }
+
+    /**
+     * Same as {@link #checkNotModified(WebRequest, CryptoStatsVersions.DataVersion, Integer)} for a response with several
+     * representations, e.g. gzip-encoded, which must not share a strong {@code ETag}
+     * @param variant - suffix of the {@code ETag} telling the representation apart, {@code null} for the plain one
+     */
+    static boolean checkNotModified(WebRequest request, CryptoStatsVersions.DataVersion version, Integer months, String variant) {
+        var etag = '"' + tag(version, months) + (variant == null ? "" : "-" + variant) + '"';
+        if (months == null) {
+            return request.checkNotModified(etag, version.getLastModified());
+        }
+        var dayStart = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        return request.checkNotModified(etag, Math.max(version.getLastModified(), dayStart));
+    }
+
+    /**
+     * @param months - number of last months the response is computed for, {@code null} for the whole period
+     * @return value which changes whenever the response of provided data version and window changes
+     */
+    static String tag(CryptoStatsVersions.DataVersion version, Integer months) {
+        return months == null ? version.getTag() : version.getTag() + "-" + LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    }
+}
@@ -0,0 +1,87 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.cluster.ShardedCryptoStats;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.service.CryptoStatsAsyncService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CryptoStatsController} counterpart for {@code async} request execution mode,
+ * the Tomcat thread is released as soon as the call is handed over to {@link CryptoStatsAsyncService}.
+ * Conditional requests of unchanged statistics and cached ranking responses are answered on the request thread without a call,
+ * in cluster mode rankings are answered once all nodes responded
+ */
+@RestController
+@RequestMapping(value = "/cryptos")
+@ConditionalOnProperty(name = RequestExecutionConfig.MODE_PROPERTY, havingValue = "async")
+public class CryptoStatsAsyncController {
+
+    @Autowired
+    private CryptoStatsAsyncService service;
+    @Autowired
+    private CryptoStatsVersions versions;
+    @Autowired
+    private CryptoValidator cryptoValidator;
+    @Autowired
+    private RankingResponseCache responseCache;
+    @Autowired
+    private ShardedCryptoStats shardedStats;
+
+    @GetMapping("/{symbol}/stats")
+    public CompletableFuture<ResponseEntity<CryptoStatAggregated>> getCryptoStat(@PathVariable String symbol, @RequestParam(required = false, name = "m") Integer lastMonths,
+                                                                                 WebRequest request) {
+        if (cryptoValidator.isSupportedCrypto(symbol)
+                && ConditionalRequests.checkNotModified(request, versions.getVersion(symbol.toUpperCase()), lastMonths)) {
+            return null;
+        }
+        return service.getAggregatedStatsForCrypto(symbol, lastMonths).thenApply(ResponseEntity::of);
+    }
+
+    @GetMapping("/stats")
+    public CompletableFuture<ResponseEntity<List<CryptoStatsBatchEntry>>> getCryptoStats(@RequestParam List<String> symbols, @RequestParam(required = false, name = "m") List<Integer> lastMonths) {
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherStats(symbols, lastMonths).thenApply(ResponseEntity::ok);
+        }
+        return service.getAggregatedStatsForCryptos(symbols, lastMonths).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/ranking")
+    public CompletableFuture<ResponseEntity<byte[]>> getCryptoStatsOrderedByNormalizedRange(@RequestParam(required = false, name = "m") Integer lastMonths,
+                                                                                            WebRequest request) {
+        var key = RankingResponseCache.rankingKey(lastMonths);
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherRanking(lastMonths)
+                    .thenApply(gathered -> responseCache.respond(request, key, gathered.getVersion(), lastMonths, gathered::getBody));
+        }
+        return responseCache.respondAsync(request, key, versions.getVersion(), lastMonths,
+                                          () -> service.getAggregatedStatsPerCryptoInDescendingOrder(lastMonths));
+    }
+
+    @GetMapping("/ranking/{date}")
+    public CompletableFuture<ResponseEntity<byte[]>> getCryptoStatWithHighestNormalizedRange(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                                             WebRequest request) {
+        var key = RankingResponseCache.dayKey(date);
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherHighestNormalizedRange(date)
+                    .thenApply(gathered -> responseCache.respond(request, key, gathered.getVersion(), null, gathered::getBody));
+        }
+        return responseCache.respondAsync(request, key, versions.getVersion(), null,
+                                          () -> service.getCryptoWithHighestNormalizedRangeForDay(date).thenApply(stat -> stat.orElse(null)));
+    }
+}
@@ -1,8 +1,13 @@
 package com.crypto.investment.recommendationservice.controller;
 
+import com.crypto.investment.recommendationservice.cluster.ShardedCryptoStats;
 import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
 import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,52 +15,106 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
-import java.util.SortedSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * RestController for retrieving crypto statistic
+ * RestController for retrieving crypto statistic, replaced by {@link CryptoStatsAsyncController} in {@code async} request execution mode.
+ * Single crypto statistics and rankings answer conditional requests with {@code 304 Not Modified}, see {@link ConditionalRequests}.
+ * In cluster mode batch statistics and rankings are gathered from all nodes by {@link ShardedCryptoStats},
+ * the Tomcat thread is released while waiting for the other nodes
  */
 @RestController
 @RequestMapping(value = "/cryptos")
+@ConditionalOnExpression("'${" + RequestExecutionConfig.MODE_PROPERTY + ":blocking}' != 'async'")
 public class CryptoStatsController {
 
     @Autowired
     private CryptoStatsService service;
+    @Autowired
+    private CryptoStatsVersions versions;
+    @Autowired
+    private CryptoValidator cryptoValidator;
+    @Autowired
+    private RankingResponseCache responseCache;
+    @Autowired
+    private ShardedCryptoStats shardedStats;
 
     /**
      * RestApi to retrieve aggregated statistic for specified crypto
      * @param symbol - Path variable defines cryptocurrency to fetch aggregated statistic for
      * @param lastMonths - Optional path parameter for specifying the number of last months to fetch statistic for
      * @return specified crypto aggregated statistic (MAX/MIN/NEWEST/OLDEST){@link CryptoStatAggregated}
-     *          for the whole period or for the last number of months
+     *          for the whole period or for the last number of months, {@code 304} if unchanged since the version known to the client
      */
     @GetMapping("/{symbol}/stats")
-    public ResponseEntity<CryptoStatAggregated> getCryptoStat(@PathVariable String symbol, @RequestParam(required = false, name = "m") Integer lastMonths) {
+    public ResponseEntity<CryptoStatAggregated> getCryptoStat(@PathVariable String symbol, @RequestParam(required = false, name = "m") Integer lastMonths,
+                                                              WebRequest request) {
+        if (cryptoValidator.isSupportedCrypto(symbol)
+                && ConditionalRequests.checkNotModified(request, versions.getVersion(symbol.toUpperCase()), lastMonths)) {
+            return null;
+        }
         return ResponseEntity.of(service.getAggregatedStatsForCrypto(symbol, lastMonths));
     }
 
+    /**
+     * RestApi to retrieve aggregated statistics for several cryptos and month windows in one request,
+     * e.g. {@code /cryptos/stats?symbols=BTC,ETH&m=1,3}
+     * @param symbols - Request parameter defines cryptocurrencies to fetch aggregated statistics for
+     * @param lastMonths - Optional request parameter for specifying the numbers of last months to fetch statistics for,
+     *                      statistics are for the whole period if omitted
+     * @return aggregated statistic {@link CryptoStatsBatchEntry} per crypto and window,
+     *          unsupported cryptos are reported by the entry error instead of failing the request
+     */
+    @GetMapping("/stats")
+    public CompletableFuture<ResponseEntity<List<CryptoStatsBatchEntry>>> getCryptoStats(@RequestParam List<String> symbols,
+                                                                                         @RequestParam(required = false, name = "m") List<Integer> lastMonths) {
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherStats(symbols, lastMonths).thenApply(ResponseEntity::ok);
+        }
+        return CompletableFuture.completedFuture(ResponseEntity.ok(service.getAggregatedStatsForCryptos(symbols, lastMonths)));
+    }
+
     /**
      * RestApi for retrieving descending sorted list of all aggregated crypto statistics,
      * comparing the normalized range (i.e. (max-min)/min)
      * @param lastMonths - Optional path parameter for specifying the number of last months to fetch statistic for
-     * @return descending sorted set of aggregated statistic (MAX/MIN/NEWEST/OLDEST){@link CryptoStatAggregated}
-     *          for all cryptos for the whole period or for the last number of months
+     * @return JSON of descending sorted set of aggregated statistic (MAX/MIN/NEWEST/OLDEST){@link CryptoStatAggregated}
+     *          for all cryptos for the whole period or for the last number of months, {@code 304} if unchanged.
+     *          The JSON is serialized once per data version, see {@link RankingResponseCache}
      */
     @GetMapping("/ranking")
-    public ResponseEntity<SortedSet<CryptoStatAggregated>> getCryptoStatsOrderedByNormalizedRange(@RequestParam(required = false, name = "m") Integer lastMonths) {
-        return ResponseEntity.ok(service.getAggregatedStatsPerCryptoInDescendingOrder(lastMonths));
+    public CompletableFuture<ResponseEntity<byte[]>> getCryptoStatsOrderedByNormalizedRange(@RequestParam(required = false, name = "m") Integer lastMonths,
+                                                                                            WebRequest request) {
+        var key = RankingResponseCache.rankingKey(lastMonths);
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherRanking(lastMonths)
+                    .thenApply(gathered -> responseCache.respond(request, key, gathered.getVersion(), lastMonths, gathered::getBody));
+        }
+        var response = responseCache.respond(request, key, versions.getVersion(), lastMonths,
+                                             () -> service.getAggregatedStatsPerCryptoInDescendingOrder(lastMonths));
+        return response == null ? null : CompletableFuture.completedFuture(response);
     }
 
     /**
      * RestApi for retrieving aggregated crypto statistics with the highest normalized range for specified day
      * @param date - Path variable defines specific day with {@link DateTimeFormat} yyyy-MM-dd to fetch statistic for
-     * @return crypto aggregated statistic {@link CryptoStatAggregated} with highest normalized range
-     *          for specified day
+     * @return JSON of crypto aggregated statistic {@link CryptoStatAggregated} with highest normalized range
+     *          for specified day, {@code 304} if unchanged. The JSON is serialized once per data version, see {@link RankingResponseCache}
      */
     @GetMapping("/ranking/{date}")
-    public ResponseEntity<CryptoStatAggregated> getCryptoStatWithHighestNormalizedRange(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return ResponseEntity.of(service.getCryptoWithHighestNormalizedRangeForDay(date));
+    public CompletableFuture<ResponseEntity<byte[]>> getCryptoStatWithHighestNormalizedRange(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                                             WebRequest request) {
+        var key = RankingResponseCache.dayKey(date);
+        if (shardedStats.isEnabled()) {
+            return shardedStats.gatherHighestNormalizedRange(date)
+                    .thenApply(gathered -> responseCache.respond(request, key, gathered.getVersion(), null, gathered::getBody));
+        }
+        var response = responseCache.respond(request, key, versions.getVersion(), null,
+                                             () -> service.getCryptoWithHighestNormalizedRangeForDay(date).orElse(null));
+        return response == null ? null : CompletableFuture.completedFuture(response);
     }
 }
@@ -0,0 +1,36 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * RestController for streaming crypto statistic changes, available in every request execution mode
+ */
+@RestController
+@RequestMapping(value = "/cryptos")
+public class CryptoStatsStreamController {
+
+    @Autowired
+    private CryptoStatsStreamPublisher streamPublisher;
+
+    /**
+     * RestApi streaming Server-Sent Events with aggregated statistics and ranking whenever they change, instead of polling
+     * @param symbols - Optional request parameter defines cryptocurrencies to stream aggregated statistics for, all cryptos if omitted
+     * @param lastMonths - Optional request parameter for specifying the number of last months to stream statistics for
+     * @return stream of {@code stats} events with {@link CryptoStatsBatchEntry} of a changed crypto
+     *          and {@code ranking} events with descending sorted list of all aggregated crypto statistics
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCryptoStats(@RequestParam(required = false) List<String> symbols, @RequestParam(required = false, name = "m") Integer lastMonths) {
+        return streamPublisher.subscribe(symbols, lastMonths);
+    }
+
+}
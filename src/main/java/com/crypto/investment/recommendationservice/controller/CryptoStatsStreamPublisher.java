@@ -0,0 +1,305 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.repository.DaoConfig;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes aggregated statistics and ranking changes to Server-Sent Events subscribers.
+ * {@link CryptoStatsUpdatedEvent} only marks the crypto dirty for a single dispatcher thread, which recomputes
+ * its statistics and the ranking once per subscribed months window and publishes those that differ from the last published ones.
+ * Every subscriber keeps at most one pending event per crypto plus one ranking event, newer events replace older ones,
+ * and is drained on sender threads, so a slow subscriber only lags behind and never blocks ingest or other subscribers.
+ * Last published results of a months window are kept only while a subscriber of that window is connected.
+ * In cluster mode only the cryptos owned by this node are streamed, see {@link SymbolPartitioner}
+ */
+@Component
+public class CryptoStatsStreamPublisher {
+
+    static final String STATS_EVENT = "stats";
+    static final String RANKING_EVENT = "ranking";
+
+    private static final Logger LOGGER = LogManager.getLogger(CryptoStatsStreamPublisher.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtySymbols = ConcurrentHashMap.newKeySet();
+    // accessed by the dispatcher thread only, keyed by months window
+    private final Map<Integer, Map<String, Optional<CryptoStatAggregated>>> lastStats = new HashMap<>();
+    private final Map<Integer, List<CryptoStatAggregated>> lastRankings = new HashMap<>();
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private ExecutorService dispatcher;
+    private ExecutorService senders;
+
+    @Autowired
+    private CryptoStatsService service;
+    @Autowired
+    private CryptoValidator cryptoValidator;
+    @Autowired
+    private DaoConfig daoConfig;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
+
+    @Value("${stats-stream.timeout-millis:1800000}")
+    private long timeoutMillis = 1_800_000;
+    @Value("${stats-stream.sender-threads:2}")
+    private int senderThreads = 2;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(task -> newDaemonThread(task, "stats-stream-dispatcher"));
+        senders = Executors.newFixedThreadPool(senderThreads, task -> newDaemonThread(task, "stats-stream-sender-" + senderCount.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    /**
+     * Subscribes to statistics changes. The subscriber first receives current statistics and ranking,
+     * then {@value #STATS_EVENT} events of cryptos whose statistics changed and {@value #RANKING_EVENT} events when the ranking changed
+     * @param symbols - cryptos to receive statistics of, all supported cryptos if {@code null} or empty.
+     *                  If any of the cryptos is not supported then exception will be thrown, cryptos of other nodes are skipped
+     * @param months - number of last months statistics are aggregated for or {@code null} for the whole period
+     * @return emitter streaming {@link CryptoStatsBatchEntry} and ranking events
+     */
+    public SseEmitter subscribe(List<String> symbols, Integer months) {
+        Set<String> symbolFilter = null;
+        if (symbols != null && !symbols.isEmpty()) {
+            symbolFilter = new HashSet<>();
+            for (var symbol : symbols) {
+                cryptoValidator.validateSupportedCrypto(symbol);
+                symbolFilter.add(symbol.toUpperCase());
+            }
+        }
+        var subscription = new Subscription(newEmitter(), symbolFilter, months);
+        subscription.emitter.onCompletion(() -> unsubscribe(subscription));
+        subscription.emitter.onTimeout(() -> unsubscribe(subscription));
+        subscription.emitter.onError(ex -> unsubscribe(subscription));
+        subscriptions.add(subscription);
+        dispatch(() -> publishSnapshot(subscription));
+        return subscription.emitter;
+    }
+
+    /**
+     * Runs after caches are invalidated for the update, so that recomputed statistics include the new ticks
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCryptoStatsUpdated(CryptoStatsUpdatedEvent event) {
+        var symbol = event.getSymbol();
+        if (subscriptions.isEmpty() || !cryptoValidator.isSupportedCrypto(symbol)) {
+            return;
+        }
+        if (dirtySymbols.add(symbol)) {
+            dispatch(() -> {
+                dirtySymbols.remove(symbol);
+                publishUpdate(symbol);
+            });
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            dispatch(this::evictUnusedWindows);
+        }
+    }
+
+    private void evictUnusedWindows() {
+        var windows = new HashSet<Integer>();
+        subscriptions.forEach(subscription -> windows.add(subscription.months));
+        lastStats.keySet().retainAll(windows);
+        lastRankings.keySet().retainAll(windows);
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    LOGGER.error("error during publishing crypto statistics", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            LOGGER.debug("crypto statistics stream is stopped");
+        }
+    }
+
+    private void publishSnapshot(Subscription subscription) {
+        var symbols = partitioner.localCryptos(subscription.symbols != null ? subscription.symbols : daoConfig.getSupportedCryptos());
+        var windowStats = lastStats.computeIfAbsent(subscription.months, months -> new HashMap<>());
+        for (var symbol : new TreeSet<>(symbols)) {
+            var stats = service.getAggregatedStatsForCrypto(symbol, subscription.months);
+            windowStats.put(symbol, stats);
+            subscription.offer(symbol, statsEvent(symbol, subscription.months, stats));
+        }
+        var ranking = new ArrayList<>(service.getAggregatedStatsPerCryptoInDescendingOrder(subscription.months));
+        lastRankings.put(subscription.months, ranking);
+        subscription.offer(RANKING_EVENT, rankingEvent(ranking));
+    }
+
+    private void publishUpdate(String symbol) {
+        var windows = new HashSet<Integer>();
+        subscriptions.forEach(subscription -> windows.add(subscription.months));
+        for (var months : windows) {
+            var stats = service.getAggregatedStatsForCrypto(symbol, months);
+            if (!stats.equals(lastStats.computeIfAbsent(months, window -> new HashMap<>()).put(symbol, stats))) {
+                var event = statsEvent(symbol, months, stats);
+                subscriptions.stream()
+                        .filter(subscription -> Objects.equals(subscription.months, months) && subscription.accepts(symbol))
+                        .forEach(subscription -> subscription.offer(symbol, event));
+            }
+            var ranking = new ArrayList<>(service.getAggregatedStatsPerCryptoInDescendingOrder(months));
+            if (!ranking.equals(lastRankings.put(months, ranking))) {
+                var event = rankingEvent(ranking);
+                subscriptions.stream()
+                        .filter(subscription -> Objects.equals(subscription.months, months))
+                        .forEach(subscription -> subscription.offer(RANKING_EVENT, event));
+            }
+        }
+    }
+
+    private static StreamEvent statsEvent(String symbol, Integer months, Optional<CryptoStatAggregated> stats) {
+        return new StreamEvent(STATS_EVENT, CryptoStatsBatchEntry.ofStats(symbol, months, stats.orElse(null)));
+    }
+
+    private static StreamEvent rankingEvent(List<CryptoStatAggregated> ranking) {
+        return new StreamEvent(RANKING_EVENT, ranking);
+    }
+
+    private static Thread newDaemonThread(Runnable task, String name) {
+        var thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Event shared by all subscribers it is offered to. {@link SseEmitter.SseEventBuilder} is stateful,
+     * so every send builds its own one
+     */
+    private static final class StreamEvent {
+
+        private final String name;
+        private final Object data;
+
+        private StreamEvent(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toBuilder() {
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * Subscriber with conflated pending events keyed by what they describe, drained by at most one sender thread at a time
+     */
+    private class Subscription {
+
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final Integer months;
+        private final Map<String, StreamEvent> pending = new LinkedHashMap<>();
+        private boolean draining;
+
+        private Subscription(SseEmitter emitter, Set<String> symbols, Integer months) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+            this.months = months;
+        }
+
+        private boolean accepts(String symbol) {
+            return symbols == null || symbols.contains(symbol);
+        }
+
+        private void offer(String key, StreamEvent event) {
+            synchronized (this) {
+                pending.put(key, event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                synchronized (this) {
+                    draining = false;
+                }
+                unsubscribe(this);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent event;
+                synchronized (this) {
+                    var iterator = pending.values().iterator();
+                    if (!iterator.hasNext()) {
+                        draining = false;
+                        return;
+                    }
+                    event = iterator.next();
+                    iterator.remove();
+                }
+                try {
+                    emitter.send(event.toBuilder());
+                } catch (IOException | RuntimeException ex) {
+                    LOGGER.debug("dropping crypto statistics subscriber: " + ex.getMessage());
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    unsubscribe(this);
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.crypto.investment.recommendationservice.controller;
 
+import com.crypto.investment.recommendationservice.cluster.ClusterUnavailableException;
+import com.crypto.investment.recommendationservice.cluster.CryptoNotLocalException;
 import com.crypto.investment.recommendationservice.repository.CSVDaoReadException;
 import com.crypto.investment.recommendationservice.service.CryptoNotSupportedException;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
@@ -24,6 +27,21 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return generateErrorResponse(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException ex) {
+        return generateErrorResponse("Too many concurrent requests, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ClusterUnavailableException.class)
+    public ResponseEntity<Object> handleClusterUnavailableException(ClusterUnavailableException ex) {
+        return generateErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(CryptoNotLocalException.class)
+    public ResponseEntity<Object> handleCryptoNotLocalException(CryptoNotLocalException ex) {
+        return generateErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     private ResponseEntity<Object> generateErrorResponse(String message, HttpStatus status) {
         return new ResponseEntity<>(Map.of("message", message), new HttpHeaders(), status);
     }
@@ -0,0 +1,225 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded LRU cache of serialized ranking responses, so unchanged rankings are neither serialized nor compressed per request.
+ * A payload holds the JSON bytes and, if {@code ranking-response-cache.gzip} is enabled, their gzip encoding,
+ * both written to the response as they are. Payloads are tagged with {@link ConditionalRequests#tag} of the data version
+ * they were built for and rebuilt on the first request after the version changes
+ */
+@Component
+@ManagedResource(objectName = "com.crypto.investment:type=RankingResponseCache")
+public class RankingResponseCache {
+
+    /**
+     * Serialized response body, a body without JSON stands for {@code 404 Not Found}
+     */
+    static final class Payload {
+        private final String version;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Payload(String version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+
+        byte[] getGzip() {
+            return gzip;
+        }
+    }
+
+    private final Map<String, Payload> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Payload> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${ranking-response-cache.max-size:256}")
+    private int maxSize = 256;
+    @Value("${ranking-response-cache.gzip:true}")
+    private boolean gzip = true;
+
+    static String rankingKey(Integer months) {
+        return "ranking:" + months;
+    }
+
+    static String dayKey(LocalDate date) {
+        return "day:" + date;
+    }
+
+    /**
+     * @return key of the partial result of this node for a ranking of provided key
+     */
+    static String shardKey(String key) {
+        return "shard:" + key;
+    }
+
+    /**
+     * Answers a ranking request of provided data version: checks the request validators, then responds with the cached payload
+     * or serializes and caches the body
+     * @param months - number of last months the response is computed for, {@code null} if independent of the current day
+     * @param body - computes the response body on cache miss, a {@code null} body responds {@code 404 Not Found}
+     * @return response or {@code null} if set to {@code 304 Not Modified}
+     */
+    ResponseEntity<byte[]> respond(WebRequest request, String key, CryptoStatsVersions.DataVersion version, Integer months, Supplier<?> body) {
+        var response = respondAsync(request, key, version, months, () -> CompletableFuture.completedFuture(body.get()));
+        return response == null ? null : response.join();
+    }
+
+    /**
+     * Same as {@link #respond} for a body computed asynchronously, validators and cached payloads are still answered
+     * on the calling thread
+     * @param body - starts computing the response body on cache miss
+     * @return response or {@code null} if set to {@code 304 Not Modified}
+     */
+    CompletableFuture<ResponseEntity<byte[]>> respondAsync(WebRequest request, String key, CryptoStatsVersions.DataVersion version, Integer months,
+                                                           Supplier<? extends CompletionStage<?>> body) {
+        var gzipEncoded = acceptsGzip(request);
+        if (ConditionalRequests.checkNotModified(request, version, months, gzipEncoded ? "gzip" : null)) {
+            return null;
+        }
+        var tag = ConditionalRequests.tag(version, months);
+        var payload = get(key, tag);
+        if (payload != null) {
+            return CompletableFuture.completedFuture(toResponse(payload, gzipEncoded));
+        }
+        return body.get().thenApply(computed -> toResponse(put(key, tag, computed), gzipEncoded)).toCompletableFuture();
+    }
+
+    /**
+     * @param version - {@link ConditionalRequests#tag} the response is requested for
+     * @return cached payload of provided version, {@code null} if there is none
+     */
+    Payload get(String key, String version) {
+        Payload cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached == null || !cached.version.equals(version)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Serializes provided response body and caches the payload
+     * @param version - {@link ConditionalRequests#tag} read before the body was computed
+     * @param body - response body, {@code null} if there is none
+     * @return cached payload
+     */
+    Payload put(String key, String version, Object body) {
+        var payload = body == null ? new Payload(version, null, null) : serialize(version, body);
+        synchronized (this) {
+            entries.put(key, payload);
+        }
+        return payload;
+    }
+
+    /**
+     * @return whether gzip-encoded payloads are enabled and accepted by the client
+     */
+    boolean acceptsGzip(WebRequest request) {
+        var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip || acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parameters = coding.split(";");
+            var name = parameters[0].trim();
+            if ((name.equalsIgnoreCase("gzip") || name.equals("*"))
+                    && !(parameters.length > 1 && parameters[1].trim().matches("q=0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param gzipEncoded - whether to respond with the gzip encoding, see {@link #acceptsGzip}
+     */
+    ResponseEntity<byte[]> toResponse(Payload payload, boolean gzipEncoded) {
+        if (payload.json == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipEncoded && payload.gzip != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new ResponseEntity<>(payload.gzip, headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(payload.json, headers, HttpStatus.OK);
+    }
+
+    @ManagedAttribute
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @ManagedAttribute
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @ManagedAttribute
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    private Payload serialize(String version, Object body) {
+        try {
+            var json = objectMapper.writeValueAsBytes(body);
+            if (!gzip) {
+                return new Payload(version, json, null);
+            }
+            var gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (var out = new GZIPOutputStream(gzipped)) {
+                out.write(json);
+            }
+            return new Payload(version, json, gzipped.toByteArray());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot serialize ranking response", ex);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request execution mode selected by {@code request-execution.mode}:
+ * <ul>
+ *     <li>{@code blocking} (default) - thread per request on the Tomcat worker pool</li>
+ *     <li>{@code virtual} - Tomcat runs every request on a new virtual thread, requires JDK 21 or newer at runtime</li>
+ *     <li>{@code async} - {@link CryptoStatsAsyncController} releases Tomcat threads and completes responses from a bounded pool</li>
+ * </ul>
+ */
+@Configuration
+public class RequestExecutionConfig {
+
+    public static final String MODE_PROPERTY = "request-execution.mode";
+
+    private static final Logger LOGGER = LogManager.getLogger(RequestExecutionConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        var executor = newVirtualThreadPerTaskExecutor();
+        LOGGER.info("serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Looked up reflectively since the build targets Java 11, the same jar runs on virtual threads when started on JDK 21+
+     * @throws IllegalStateException if the running JDK has no virtual threads
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(MODE_PROPERTY + "=virtual requires JDK 21 or newer, running on " + Runtime.version(), ex);
+        }
+    }
+}
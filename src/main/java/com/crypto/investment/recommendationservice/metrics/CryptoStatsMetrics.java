@@ -0,0 +1,147 @@
+package com.crypto.investment.recommendationservice.metrics;
+
+import com.crypto.investment.recommendationservice.repository.TickIngestReport;
+import com.crypto.investment.recommendationservice.service.AggregatedStatsCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers and counters of the statistics hot path, scraped from {@code /actuator/prometheus}.
+ * Stages are timed as {@code long start = metrics.startTime(); ...; metrics.recordXxx(start)},
+ * with {@code crypto-metrics.enabled: false} both calls only check a flag, so no clock is read and nothing is recorded
+ */
+@Component
+public class CryptoStatsMetrics {
+
+    /**
+     * Instance for components created outside of Spring context
+     */
+    public static final CryptoStatsMetrics DISABLED = new CryptoStatsMetrics();
+
+    private final Map<String, Timer> readTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> servedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private Timer filterTimer;
+    private Timer aggregateTimer;
+
+    @Autowired(required = false)
+    private MeterRegistry registry;
+    @Autowired(required = false)
+    private AggregatedStatsCache aggregatedStatsCache;
+
+    @Value("${crypto-metrics.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void start() {
+        enabled = enabled && registry != null;
+        if (!enabled) {
+            return;
+        }
+        filterTimer = Timer.builder("crypto.stats.filter")
+                .description("Slicing statistics of a crypto to a months window")
+                .publishPercentileHistogram()
+                .register(registry);
+        aggregateTimer = Timer.builder("crypto.stats.aggregate")
+                .description("Aggregating oldest/newest/min/max prices of a crypto")
+                .publishPercentileHistogram()
+                .register(registry);
+        if (aggregatedStatsCache != null) {
+            FunctionCounter.builder("crypto.stats.cache.hits", aggregatedStatsCache, AggregatedStatsCache::getHitCount).register(registry);
+            FunctionCounter.builder("crypto.stats.cache.misses", aggregatedStatsCache, AggregatedStatsCache::getMissCount).register(registry);
+            FunctionCounter.builder("crypto.stats.cache.evictions", aggregatedStatsCache, AggregatedStatsCache::getEvictionCount).register(registry);
+            Gauge.builder("crypto.stats.cache.size", aggregatedStatsCache, AggregatedStatsCache::getSize).register(registry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return start time of a stage to pass to a record method, {@code 0} when disabled
+     */
+    public long startTime() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void recordFilter(long startTime) {
+        if (enabled) {
+            filterTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordAggregate(long startTime) {
+        if (enabled) {
+            aggregateTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records reading statistics of a crypto from a file
+     * @param source - {@code csv} or {@code snapshot}
+     * @param rows - number of ticks read
+     */
+    public void recordRead(String symbol, String source, long startTime, long rows) {
+        if (enabled) {
+            readTimers.computeIfAbsent(symbol + ":" + source, key -> Timer.builder("crypto.datasource.read")
+                            .description("Reading statistics of a crypto from a file")
+                            .tag("symbol", symbol)
+                            .tag("source", source)
+                            .register(registry))
+                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            rowCounters.computeIfAbsent(symbol, key -> Counter.builder("crypto.datasource.rows")
+                            .description("Ticks read from files")
+                            .tag("symbol", symbol)
+                            .register(registry))
+                    .increment(rows);
+        }
+    }
+
+    /**
+     * Counts rows of a file rejected on ingest per crypto and reason
+     */
+    public void recordRejected(TickIngestReport report) {
+        if (enabled && report.getRejectedRows() > 0) {
+            incrementRejected(report.getSymbol(), "invalid", report.getInvalidRows());
+            incrementRejected(report.getSymbol(), "out_of_order", report.getOutOfOrderRows());
+            incrementRejected(report.getSymbol(), "duplicate", report.getDuplicateRows());
+        }
+    }
+
+    private void incrementRejected(String symbol, String reason, int rows) {
+        if (rows > 0) {
+            rejectedCounters.computeIfAbsent(symbol + ":" + reason, key -> Counter.builder("crypto.datasource.rejected")
+                            .description("Rows rejected on ingest")
+                            .tag("symbol", symbol)
+                            .tag("reason", reason)
+                            .register(registry))
+                    .increment(rows);
+        }
+    }
+
+    /**
+     * Counts aggregated statistics of a crypto served to clients
+     */
+    public void recordServed(String symbol) {
+        if (enabled) {
+            servedCounters.computeIfAbsent(symbol, key -> Counter.builder("crypto.stats.served")
+                            .description("Aggregated statistics served per crypto")
+                            .tag("symbol", symbol)
+                            .register(registry))
+                    .increment();
+        }
+    }
+}
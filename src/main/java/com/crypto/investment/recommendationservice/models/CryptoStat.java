@@ -1,18 +1,35 @@
 package com.crypto.investment.recommendationservice.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+/**
+ * Single crypto tick, price is held as {@link FixedPointPrice} and exposed as {@link BigDecimal} by {@link #getPrice()}
+ */
 public class CryptoStat {
     private String symbol;
     private LocalDateTime timestamp;
-    private BigDecimal price;
+    private long unscaledPrice;
+    private int scale;
 
     public CryptoStat(LocalDateTime timestamp, String symbol, BigDecimal price) {
         this.timestamp = timestamp;
         this.symbol = symbol;
-        this.price = price;
+        setPrice(price);
+    }
+
+    /**
+     * @param unscaledPrice - price * 10^scale or {@link FixedPointPrice#NO_PRICE}
+     * @param scale - number of fraction digits of the price
+     */
+    public CryptoStat(LocalDateTime timestamp, String symbol, long unscaledPrice, int scale) {
+        this.timestamp = timestamp;
+        this.symbol = symbol;
+        this.unscaledPrice = unscaledPrice;
+        this.scale = unscaledPrice == FixedPointPrice.NO_PRICE ? 0 : scale;
     }
 
     public String getSymbol() {
@@ -32,11 +49,28 @@ public class CryptoStat {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return FixedPointPrice.toBigDecimal(unscaledPrice, scale);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        var normalized = FixedPointPrice.normalize(price);
+        this.unscaledPrice = normalized == null ? FixedPointPrice.NO_PRICE : normalized.unscaledValue().longValue();
+        this.scale = normalized == null ? 0 : normalized.scale();
+    }
+
+    @JsonIgnore
+    public boolean hasPrice() {
+        return unscaledPrice != FixedPointPrice.NO_PRICE;
+    }
+
+    @JsonIgnore
+    public long getUnscaledPrice() {
+        return unscaledPrice;
+    }
+
+    @JsonIgnore
+    public int getScale() {
+        return scale;
     }
 
     @Override
@@ -44,12 +78,12 @@ public class CryptoStat {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CryptoStat that = (CryptoStat) o;
-        return Objects.equals(symbol, that.symbol) && Objects.equals(timestamp, that.timestamp) && Objects.equals(price, that.price);
+        return unscaledPrice == that.unscaledPrice && scale == that.scale && Objects.equals(symbol, that.symbol) && Objects.equals(timestamp, that.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(symbol, timestamp, price);
+        return Objects.hash(symbol, timestamp, unscaledPrice, scale);
     }
 
     @Override
@@ -57,7 +91,7 @@ public class CryptoStat {
         return "CryptoStat{" +
                 "symbol='" + symbol + '\'' +
                 ", timestamp=" + timestamp +
-                ", price=" + price +
+                ", price=" + getPrice() +
                 '}';
     }
 }
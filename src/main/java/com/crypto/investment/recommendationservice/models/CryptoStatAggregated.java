@@ -1,22 +1,47 @@
 package com.crypto.investment.recommendationservice.models;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 import java.util.Objects;
 
+/**
+ * Aggregated crypto statistic. All prices are held as {@link FixedPointPrice} of one common scale,
+ * which grows when a price with more fraction digits is set, and exposed as {@link BigDecimal} in JSON
+ */
 public class CryptoStatAggregated {
 
     private String symbol;
-    private BigDecimal oldestPrice;
-    private BigDecimal newestPrice;
-    private BigDecimal maxPrice;
-    private BigDecimal minPrice;
+    private int scale;
+    private long oldestPrice = FixedPointPrice.NO_PRICE;
+    private long newestPrice = FixedPointPrice.NO_PRICE;
+    private long maxPrice = FixedPointPrice.NO_PRICE;
+    private long minPrice = FixedPointPrice.NO_PRICE;
 
     public CryptoStatAggregated(String symbol) {
         this.symbol = symbol;
     }
 
-    public CryptoStatAggregated(String symbol, BigDecimal oldestPrice, BigDecimal newestPrice, BigDecimal maxPrice, BigDecimal minPrice) {
+    @JsonCreator
+    public CryptoStatAggregated(@JsonProperty("symbol") String symbol, @JsonProperty("oldestPrice") BigDecimal oldestPrice,
+                                @JsonProperty("newestPrice") BigDecimal newestPrice, @JsonProperty("maxPrice") BigDecimal maxPrice,
+                                @JsonProperty("minPrice") BigDecimal minPrice) {
         this.symbol = symbol;
+        setOldestPrice(oldestPrice);
+        setNewestPrice(newestPrice);
+        setMaxPrice(maxPrice);
+        setMinPrice(minPrice);
+    }
+
+    /**
+     * @param scale - number of fraction digits of all prices
+     * @param oldestPrice - unscaled prices or {@link FixedPointPrice#NO_PRICE}
+     */
+    public CryptoStatAggregated(String symbol, int scale, long oldestPrice, long newestPrice, long maxPrice, long minPrice) {
+        this.symbol = symbol;
+        this.scale = scale;
         this.oldestPrice = oldestPrice;
         this.newestPrice = newestPrice;
         this.maxPrice = maxPrice;
@@ -32,35 +57,105 @@ public class CryptoStatAggregated {
     }
 
     public BigDecimal getOldestPrice() {
-        return oldestPrice;
+        return FixedPointPrice.toBigDecimal(oldestPrice, scale);
     }
 
     public void setOldestPrice(BigDecimal oldestPrice) {
-        this.oldestPrice = oldestPrice;
+        this.oldestPrice = toUnscaled(oldestPrice);
+    }
+
+    public void setOldestPrice(long unscaledPrice, int scale) {
+        this.oldestPrice = toUnscaled(unscaledPrice, scale);
     }
 
     public BigDecimal getNewestPrice() {
-        return newestPrice;
+        return FixedPointPrice.toBigDecimal(newestPrice, scale);
     }
 
     public void setNewestPrice(BigDecimal newestPrice) {
-        this.newestPrice = newestPrice;
+        this.newestPrice = toUnscaled(newestPrice);
+    }
+
+    public void setNewestPrice(long unscaledPrice, int scale) {
+        this.newestPrice = toUnscaled(unscaledPrice, scale);
     }
 
     public BigDecimal getMaxPrice() {
-        return maxPrice;
+        return FixedPointPrice.toBigDecimal(maxPrice, scale);
     }
 
     public void setMaxPrice(BigDecimal maxPrice) {
-        this.maxPrice = maxPrice;
+        this.maxPrice = toUnscaled(maxPrice);
+    }
+
+    public void setMaxPrice(long unscaledPrice, int scale) {
+        this.maxPrice = toUnscaled(unscaledPrice, scale);
     }
 
     public BigDecimal getMinPrice() {
-        return minPrice;
+        return FixedPointPrice.toBigDecimal(minPrice, scale);
     }
 
     public void setMinPrice(BigDecimal minPrice) {
-        this.minPrice = minPrice;
+        this.minPrice = toUnscaled(minPrice);
+    }
+
+    public void setMinPrice(long unscaledPrice, int scale) {
+        this.minPrice = toUnscaled(unscaledPrice, scale);
+    }
+
+    @JsonIgnore
+    public int getScale() {
+        return scale;
+    }
+
+    @JsonIgnore
+    public long getUnscaledOldestPrice() {
+        return oldestPrice;
+    }
+
+    @JsonIgnore
+    public long getUnscaledNewestPrice() {
+        return newestPrice;
+    }
+
+    @JsonIgnore
+    public long getUnscaledMaxPrice() {
+        return maxPrice;
+    }
+
+    @JsonIgnore
+    public long getUnscaledMinPrice() {
+        return minPrice;
+    }
+
+    private long toUnscaled(BigDecimal price) {
+        var normalized = FixedPointPrice.normalize(price);
+        return normalized == null
+                ? FixedPointPrice.NO_PRICE
+                : toUnscaled(normalized.unscaledValue().longValue(), normalized.scale());
+    }
+
+    /**
+     * Brings the price to the common scale, raising the common scale of already set prices if needed
+     * @throws ArithmeticException if a price does not fit a {@code long} with the common scale, no price is changed then
+     */
+    private long toUnscaled(long unscaledPrice, int priceScale) {
+        if (unscaledPrice == FixedPointPrice.NO_PRICE) {
+            return unscaledPrice;
+        }
+        if (priceScale > scale) {
+            var oldest = FixedPointPrice.rescale(oldestPrice, scale, priceScale);
+            var newest = FixedPointPrice.rescale(newestPrice, scale, priceScale);
+            var max = FixedPointPrice.rescale(maxPrice, scale, priceScale);
+            var min = FixedPointPrice.rescale(minPrice, scale, priceScale);
+            oldestPrice = oldest;
+            newestPrice = newest;
+            maxPrice = max;
+            minPrice = min;
+            scale = priceScale;
+        }
+        return FixedPointPrice.rescale(unscaledPrice, priceScale, scale);
     }
 
     @Override
@@ -68,22 +163,22 @@ public class CryptoStatAggregated {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CryptoStatAggregated that = (CryptoStatAggregated) o;
-        return Objects.equals(symbol, that.symbol) && Objects.equals(oldestPrice, that.oldestPrice) && Objects.equals(newestPrice, that.newestPrice) && Objects.equals(maxPrice, that.maxPrice) && Objects.equals(minPrice, that.minPrice);
+        return scale == that.scale && oldestPrice == that.oldestPrice && newestPrice == that.newestPrice && maxPrice == that.maxPrice && minPrice == that.minPrice && Objects.equals(symbol, that.symbol);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(symbol, oldestPrice, newestPrice, maxPrice, minPrice);
+        return Objects.hash(symbol, scale, oldestPrice, newestPrice, maxPrice, minPrice);
     }
 
     @Override
     public String toString() {
         return "CryptoStatAggregated{" +
                 "symbol='" + symbol + '\'' +
-                ", oldestPrice=" + oldestPrice +
-                ", newestPrice=" + newestPrice +
-                ", maxPrice=" + maxPrice +
-                ", minPrice=" + minPrice +
+                ", oldestPrice=" + getOldestPrice() +
+                ", newestPrice=" + getNewestPrice() +
+                ", maxPrice=" + getMaxPrice() +
+                ", minPrice=" + getMinPrice() +
                 '}';
     }
 }
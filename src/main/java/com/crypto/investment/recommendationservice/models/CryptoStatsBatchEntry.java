@@ -0,0 +1,94 @@
+package com.crypto.investment.recommendationservice.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Result of one (crypto, months window) pair of a batch statistics request.
+ * Holds either the aggregated statistic, which is {@code null} when there is no data for the window,
+ * or the error the pair failed with, so that one failing crypto does not fail the whole batch
+ */
+public class CryptoStatsBatchEntry {
+
+    private String symbol;
+    private Integer months;
+    private CryptoStatAggregated stats;
+    private String error;
+
+    @JsonCreator
+    public CryptoStatsBatchEntry(@JsonProperty("symbol") String symbol, @JsonProperty("months") Integer months,
+                                 @JsonProperty("stats") CryptoStatAggregated stats, @JsonProperty("error") String error) {
+        this.symbol = symbol;
+        this.months = months;
+        this.stats = stats;
+        this.error = error;
+    }
+
+    public static CryptoStatsBatchEntry ofStats(String symbol, Integer months, CryptoStatAggregated stats) {
+        return new CryptoStatsBatchEntry(symbol, months, stats, null);
+    }
+
+    public static CryptoStatsBatchEntry ofError(String symbol, Integer months, String error) {
+        return new CryptoStatsBatchEntry(symbol, months, null, error);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return number of last months or {@code null} for the whole period
+     */
+    public Integer getMonths() {
+        return months;
+    }
+
+    public void setMonths(Integer months) {
+        this.months = months;
+    }
+
+    public CryptoStatAggregated getStats() {
+        return stats;
+    }
+
+    public void setStats(CryptoStatAggregated stats) {
+        this.stats = stats;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CryptoStatsBatchEntry that = (CryptoStatsBatchEntry) o;
+        return Objects.equals(symbol, that.symbol) && Objects.equals(months, that.months) && Objects.equals(stats, that.stats) && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbol, months, stats, error);
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoStatsBatchEntry{" +
+                "symbol='" + symbol + '\'' +
+                ", months=" + months +
+                ", stats=" + stats +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,117 @@
+package com.crypto.investment.recommendationservice.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point price arithmetic: a price is held as an unscaled {@code long} and a decimal scale,
+ * i.e. {@code price = unscaled * 10^-scale}. {@link BigDecimal} is only created when a price is exposed in JSON.
+ */
+public final class FixedPointPrice {
+
+    /**
+     * Unscaled value standing for a missing price
+     */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (var i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPointPrice() {
+    }
+
+    /**
+     * @return {@code 10^exponent} for exponent within [0, {@value #MAX_SCALE}]
+     * @throws ArithmeticException if the exponent is out of that range, {@code 10^19} does not fit a {@code long}
+     */
+    public static long pow10(int exponent) {
+        if (exponent < 0 || exponent > MAX_SCALE) {
+            throw new ArithmeticException("10^" + exponent + " out of long range");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the scale is not within [0, {@value #MAX_SCALE}]
+     */
+    public static int checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Price scale " + scale + " is not within [0, " + MAX_SCALE + "]");
+        }
+        return scale;
+    }
+
+    /**
+     * @return price as {@link BigDecimal} or {@code null} for {@link #NO_PRICE}
+     */
+    public static BigDecimal toBigDecimal(long unscaledPrice, int scale) {
+        return unscaledPrice == NO_PRICE ? null : BigDecimal.valueOf(unscaledPrice, scale);
+    }
+
+    /**
+     * Brings a {@link BigDecimal} to fixed-point form: scale within [0, {@value #MAX_SCALE}] and unscaled value fitting a {@code long}.
+     * Prices already in that form keep their scale, others lose trailing zeros first and are rounded half-even if still needed.
+     * @return normalized price or {@code null} for {@code null}
+     */
+    public static BigDecimal normalize(BigDecimal price) {
+        if (price == null || fitsLong(price)) {
+            return price;
+        }
+        var stripped = price.stripTrailingZeros();
+        var scale = Math.max(0, Math.min(stripped.scale(), MAX_SCALE));
+        var normalized = stripped.setScale(scale, RoundingMode.HALF_EVEN);
+        while (!fitsLong(normalized) && scale > 0) {
+            normalized = stripped.setScale(--scale, RoundingMode.HALF_EVEN);
+        }
+        if (!fitsLong(normalized)) {
+            throw new ArithmeticException("Price out of range: " + price);
+        }
+        return normalized;
+    }
+
+    /**
+     * @return price with provided scale, rounded half-even when the scale decreases
+     * @throws ArithmeticException if the price does not fit a {@code long} with the new scale
+     */
+    public static long rescale(long unscaledPrice, int scale, int newScale) {
+        if (unscaledPrice == NO_PRICE || scale == newScale) {
+            return unscaledPrice;
+        }
+        if (newScale > scale) {
+            return Math.multiplyExact(unscaledPrice, pow10(newScale - scale));
+        }
+        var divisor = pow10(scale - newScale);
+        var quotient = Math.floorDiv(unscaledPrice, divisor);
+        var remainder = Math.floorMod(unscaledPrice, divisor);
+        var half = divisor / 2;
+        return remainder > half || remainder == half && (quotient & 1) != 0 ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Compares two present prices of possibly different scales
+     */
+    public static int compare(long unscaledPrice1, int scale1, long unscaledPrice2, int scale2) {
+        if (scale1 == scale2) {
+            return Long.compare(unscaledPrice1, unscaledPrice2);
+        }
+        try {
+            return scale1 < scale2
+                    ? Long.compare(Math.multiplyExact(unscaledPrice1, pow10(scale2 - scale1)), unscaledPrice2)
+                    : Long.compare(unscaledPrice1, Math.multiplyExact(unscaledPrice2, pow10(scale1 - scale2)));
+        } catch (ArithmeticException ex) {
+            return BigDecimal.valueOf(unscaledPrice1, scale1).compareTo(BigDecimal.valueOf(unscaledPrice2, scale2));
+        }
+    }
+
+    private static boolean fitsLong(BigDecimal price) {
+        return price.scale() >= 0 && price.scale() <= MAX_SCALE && price.unscaledValue().bitLength() < Long.SIZE
+                && price.unscaledValue().longValue() != NO_PRICE;
+    }
+}
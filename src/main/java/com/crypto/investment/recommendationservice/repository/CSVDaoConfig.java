@@ -1,19 +1,46 @@
 package com.crypto.investment.recommendationservice.repository;
 
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 @Component
 @ConfigurationProperties("csv-dao-config")
 public class CSVDaoConfig implements DaoConfig {
     public static String CRYPTO_PLACEHOLDER = "$SYMBOL";
+    public static String DATE_PLACEHOLDER = "$DATE";
+
+    /**
+     * Handling of ticks older than a tick before them in a file
+     */
+    public enum OutOfOrderPolicy {
+        /** ticks are sorted by timestamp */
+        SORT,
+        /** ticks are rejected */
+        DROP
+    }
+
+    /**
+     * Handling of ticks with the same timestamp, stored ticks are never replaced by appended ones
+     */
+    public enum DuplicatePolicy {
+        KEEP_ALL, KEEP_FIRST, KEEP_LAST
+    }
 
     private Path datasourcePath;
     private String filePattern;
+    private String rotatedFilePattern;
     private Set<String> supportedCryptos;
+    private boolean watchForUpdates;
+    private Path snapshotPath;
+    private Map<String, Integer> priceScales = new HashMap<>();
+    private OutOfOrderPolicy outOfOrderTicks = OutOfOrderPolicy.SORT;
+    private DuplicatePolicy duplicateTicks = DuplicatePolicy.KEEP_FIRST;
 
     public Path getDatasourcePath() {
         return datasourcePath;
@@ -31,6 +58,18 @@ public class CSVDaoConfig implements DaoConfig {
         this.filePattern = filePattern;
     }
 
+    /**
+     * @return pattern of daily-rotated files with {@code $SYMBOL} and {@code $DATE} (yyyy-MM-dd) placeholders,
+     *          {@code null} if files are not rotated. Any file may be compressed with an additional {@code .gz} or {@code .zst} extension
+     */
+    public String getRotatedFilePattern() {
+        return rotatedFilePattern;
+    }
+
+    public void setRotatedFilePattern(String rotatedFilePattern) {
+        this.rotatedFilePattern = rotatedFilePattern;
+    }
+
     public Set<String> getSupportedCryptos() {
         return supportedCryptos;
     }
@@ -38,4 +77,52 @@ public class CSVDaoConfig implements DaoConfig {
     public void setSupportedCryptos(Set<String> supportedCryptos) {
         this.supportedCryptos = supportedCryptos;
     }
+
+    public boolean isWatchForUpdates() {
+        return watchForUpdates;
+    }
+
+    public void setWatchForUpdates(boolean watchForUpdates) {
+        this.watchForUpdates = watchForUpdates;
+    }
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * @return number of fraction digits prices of a crypto are held with, cryptos without configured scale
+     *          keep the largest number of fraction digits found in their data
+     */
+    public Map<String, Integer> getPriceScales() {
+        return priceScales;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a scale is not within [0, {@value FixedPointPrice#MAX_SCALE}]
+     */
+    public void setPriceScales(Map<String, Integer> priceScales) {
+        priceScales.values().forEach(FixedPointPrice::checkScale);
+        this.priceScales = priceScales;
+    }
+
+    public OutOfOrderPolicy getOutOfOrderTicks() {
+        return outOfOrderTicks;
+    }
+
+    public void setOutOfOrderTicks(OutOfOrderPolicy outOfOrderTicks) {
+        this.outOfOrderTicks = outOfOrderTicks;
+    }
+
+    public DuplicatePolicy getDuplicateTicks() {
+        return duplicateTicks;
+    }
+
+    public void setDuplicateTicks(DuplicatePolicy duplicateTicks) {
+        this.duplicateTicks = duplicateTicks;
+    }
 }
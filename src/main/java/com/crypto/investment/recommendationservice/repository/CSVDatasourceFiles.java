@@ -0,0 +1,187 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Discovery of CSV files of a crypto in the datasource directory of {@link CSVDaoConfig}:
+ * the {@code filePattern} file and daily-rotated {@code rotatedFilePattern} files, e.g. {@code BTC_values-2023-05-01.csv},
+ * each of them optionally compressed with gzip ({@code .gz}) or zstd ({@code .zst}).
+ * Ticks of a rotated file are expected within its UTC day, so range reads can skip files by name
+ */
+final class CSVDatasourceFiles {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String SYMBOL_GROUP = "(?<symbol>.+?)";
+    private static final String DATE_GROUP = "(?<date>\\d{4}-\\d{2}-\\d{2})";
+    private static final Comparator<DatasourceFile> BY_DATE = Comparator.comparing(DatasourceFile::getDate,
+                                                                                   Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Map<String, Pattern> REGEXES = new ConcurrentHashMap<>();
+
+    enum Compression {
+        NONE(""), GZIP(".gz"), ZSTD(".zst");
+
+        private final String extension;
+
+        Compression(String extension) {
+            this.extension = extension;
+        }
+
+        static Compression of(String fileName) {
+            return fileName.endsWith(GZIP.extension) ? GZIP : fileName.endsWith(ZSTD.extension) ? ZSTD : NONE;
+        }
+    }
+
+    static final class DatasourceFile {
+
+        private final Path path;
+        private final String symbol;
+        private final LocalDate date;
+        private final Compression compression;
+
+        DatasourceFile(Path path, String symbol, LocalDate date, Compression compression) {
+            this.path = path;
+            this.symbol = symbol;
+            this.date = date;
+            this.compression = compression;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * @return UTC day of a rotated file, {@code null} for the {@code filePattern} file
+         */
+        LocalDate getDate() {
+            return date;
+        }
+
+        Compression getCompression() {
+            return compression;
+        }
+
+        /**
+         * @return whether ticks of the file may lie within [fromTimestamp, toTimestamp), always {@code true} for a not rotated file
+         */
+        boolean overlaps(long fromTimestamp, long toTimestamp) {
+            if (date == null) {
+                return true;
+            }
+            var dayStart = date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            var dayEnd = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            return dayStart < toTimestamp && fromTimestamp < dayEnd;
+        }
+    }
+
+    private CSVDatasourceFiles() {
+    }
+
+    /**
+     * @return datasource file of a crypto the name of provided file matches, {@code null} if it matches no pattern
+     */
+    static DatasourceFile match(Path file, CSVDaoConfig config) {
+        var fileName = file.getFileName().toString();
+        var compression = Compression.of(fileName);
+        var name = fileName.substring(0, fileName.length() - compression.extension.length());
+        var matcher = regexOf(config.getFilePattern()).matcher(name);
+        if (matcher.matches()) {
+            return new DatasourceFile(file, matcher.group("symbol"), null, compression);
+        }
+        if (config.getRotatedFilePattern() == null) {
+            return null;
+        }
+        matcher = regexOf(config.getRotatedFilePattern()).matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new DatasourceFile(file, matcher.group("symbol"), LocalDate.parse(matcher.group("date")), compression);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return files of provided crypto, rotated files by date followed by the {@code filePattern} file
+     */
+    static List<DatasourceFile> list(CSVDaoConfig config, String symbol) throws IOException {
+        var directory = config.getDatasourcePath();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> match(file, config))
+                    .filter(Objects::nonNull)
+                    .filter(file -> file.getSymbol().equals(symbol) && Files.isRegularFile(file.getPath()))
+                    .sorted(BY_DATE)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return decompressing stream of a compressed file
+     */
+    static InputStream open(DatasourceFile file) throws IOException {
+        var in = new BufferedInputStream(Files.newInputStream(file.getPath()), STREAM_BUFFER_SIZE);
+        try {
+            switch (file.getCompression()) {
+                case GZIP:
+                    return new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+                case ZSTD:
+                    return new ZstdInputStream(in);
+                default:
+                    return in;
+            }
+        } catch (IOException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    private static Pattern regexOf(String filePattern) {
+        return REGEXES.computeIfAbsent(filePattern, CSVDatasourceFiles::toRegex);
+    }
+
+    private static Pattern toRegex(String filePattern) {
+        var regex = new StringBuilder();
+        var start = 0;
+        while (start < filePattern.length()) {
+            var symbolIndex = filePattern.indexOf(CSVDaoConfig.CRYPTO_PLACEHOLDER, start);
+            var dateIndex = filePattern.indexOf(CSVDaoConfig.DATE_PLACEHOLDER, start);
+            var index = symbolIndex < 0 ? dateIndex : dateIndex < 0 ? symbolIndex : Math.min(symbolIndex, dateIndex);
+            if (index < 0) {
+                regex.append(Pattern.quote(filePattern.substring(start)));
+                break;
+            }
+            if (index > start) {
+                regex.append(Pattern.quote(filePattern.substring(start, index)));
+            }
+            var symbol = index == symbolIndex;
+            regex.append(symbol ? SYMBOL_GROUP : DATE_GROUP);
+            start = index + (symbol ? CSVDaoConfig.CRYPTO_PLACEHOLDER : CSVDaoConfig.DATE_PLACEHOLDER).length();
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,134 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.metrics.CryptoStatsMetrics;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Incremental ingest of the CSV datasource directory defined in {@link CSVDaoConfig}.
+ * Keeps a byte offset per file and on every change of an uncompressed file parses only the appended lines
+ * into the {@link TickIngestTarget} DAO. Appended lines are picked up only once terminated with a line separator.
+ * New, truncated or changed compressed files, e.g. on rotation, reload all files of the crypto,
+ * from the snapshot of {@link CryptoStatsInMemoryDao} while they are unchanged, e.g. on start.
+ * Enabled with {@code csv-dao-config.watchForUpdates}
+ */
+@Component
+public class CSVDatasourceWatcher {
+
+    private static final Logger LOGGER = LogManager.getLogger(CSVDatasourceWatcher.class);
+
+    private final Map<Path, Long> offsets = new HashMap<>();
+    private final CSVPriceSeriesReader reader = new CSVPriceSeriesReader();
+    private WatchService watchService;
+
+    @Autowired
+    private CSVDaoConfig config;
+    @Autowired
+    private TickIngestTarget dao;
+    @Autowired(required = false)
+    private CryptoStatsMetrics metrics = CryptoStatsMetrics.DISABLED;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!config.isWatchForUpdates()) {
+            return;
+        }
+        var directory = config.getDatasourcePath();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        rescan(directory);
+        var watcherThread = new Thread(() -> watch(directory), "csv-datasource-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        LOGGER.info("watching " + directory + " for crypto statistic updates");
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch(Path directory) {
+        try {
+            while (true) {
+                var key = watchService.take();
+                for (var event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        rescan(directory);
+                    } else {
+                        ingest(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    LOGGER.warn("datasource directory is no longer accessible: " + directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            LOGGER.info("stopped watching " + directory);
+        }
+    }
+
+    private void rescan(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::ingest);
+        } catch (IOException ex) {
+            LOGGER.error("error during listing directory: " + directory, ex);
+        }
+    }
+
+    /**
+     * Reads appended data of provided file. New, truncated or replaced files reload all files of the crypto.
+     * Files of cryptos owned by another node of the cluster are ignored.
+     * Synchronized, so that a file is never read twice from the same offset
+     */
+    synchronized void ingest(Path file) {
+        var datasourceFile = CSVDatasourceFiles.match(file, config);
+        if (datasourceFile == null || !partitioner.isLocal(datasourceFile.getSymbol()) || !Files.isRegularFile(file)) {
+            return;
+        }
+        var symbol = datasourceFile.getSymbol();
+        try {
+            var offset = offsets.get(file);
+            var size = Files.size(file);
+            var compressed = datasourceFile.getCompression() != CSVDatasourceFiles.Compression.NONE;
+            if (offset == null || size < offset || compressed && size != offset) {
+                offsets.putAll(dao.reloadSeries(symbol));
+            } else if (size > offset) {
+                var lastStoredTimestamp = dao.getLastTimestamp(symbol);
+                var ticks = new PriceColumns();
+                var report = TickIngestPipeline.of(reader, config).read(file, symbol, offset, false, lastStoredTimestamp, ticks);
+                offsets.put(file, report.getEndOffset());
+                metrics.recordRejected(report);
+                dao.appendTicks(symbol, ticks);
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("error during ingesting file: " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a crypto statistic CSV file ({@code timestamp,symbol,price} with header)
+ * straight into {@link PriceColumns}. The file is memory-mapped in chunks and fields are parsed
+ * from the mapped bytes, so no line {@code String}s or {@code BigDecimal}s are created while loading.
+ * Reading can start from any byte offset, so appended lines can be picked up without re-reading the file.
+ * Compressed files are parsed the same way from blocks of their decompressing stream.
+ * Invalid rows fail reading unless they are counted in a {@link TickIngestReport}.
+ */
+class CSVPriceSeriesReader {
+
+    private static final long MAP_CHUNK_SIZE = 256L * 1024 * 1024;
+    private static final int STREAM_BLOCK_SIZE = 1024 * 1024;
+
+    private final long mapChunkSize;
+
+    CSVPriceSeriesReader() {
+        this(MAP_CHUNK_SIZE);
+    }
+
+    /**
+     * @param mapChunkSize - number of bytes mapped at once, lines crossing a chunk are re-mapped with the next one
+     */
+    CSVPriceSeriesReader(long mapChunkSize) {
+        this.mapChunkSize = mapChunkSize;
+    }
+
+    /**
+     * Parses ticks of the file starting from provided byte offset
+     * @param pathToFile - CSV file to read
+     * @param fromOffset - byte offset to start from, header line is skipped when reading from the beginning
+     * @param readIncompleteLine - whether the last line without line separator should be parsed as well
+     * @param target - columns to add parsed ticks to
+     * @return byte offset right after the last parsed line
+     * @throws NumberFormatException on an invalid row
+     */
+    long read(Path pathToFile, long fromOffset, boolean readIncompleteLine, PriceColumns target) throws IOException {
+        return read(pathToFile, fromOffset, readIncompleteLine, target, null);
+    }
+
+    /**
+     * Parses ticks of the file starting from provided byte offset, skipping invalid rows
+     * @param report - report counting invalid rows, rows of other cryptos than the report one and rows with non-positive prices;
+     *                 if {@code null} invalid rows fail reading
+     * @return byte offset right after the last parsed line
+     */
+    long read(Path pathToFile, long fromOffset, boolean readIncompleteLine, PriceColumns target, TickIngestReport report) throws IOException {
+        try (var channel = FileChannel.open(pathToFile, StandardOpenOption.READ)) {
+            var fileSize = channel.size();
+            var offset = fromOffset;
+            var skipHeader = fromOffset == 0;
+            var chunkSize = mapChunkSize;
+            while (offset < fileSize) {
+                var length = (int) Math.min(chunkSize, fileSize - offset);
+                var lastChunk = offset + length == fileSize;
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                var lineStart = parseLines(buffer, length, skipHeader, target, report);
+                skipHeader = skipHeader && lineStart == 0;
+                if (lastChunk) {
+                    if (lineStart < length && readIncompleteLine) {
+                        if (!skipHeader) {
+                            parseLine(buffer, lineStart, length, target, report);
+                        }
+                        lineStart = length;
+                    }
+                    return offset + lineStart;
+                }
+                if (lineStart == 0) {
+                    // a single line longer than the chunk, map a larger one
+                    chunkSize = Math.min(chunkSize << 1, Integer.MAX_VALUE);
+                }
+                offset += lineStart;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Parses ticks of a whole file decoded from provided stream, e.g. a decompressed one, in blocks of bounded size
+     * @param report - report counting invalid rows, if {@code null} invalid rows fail reading
+     * @return number of bytes read
+     */
+    long read(InputStream in, PriceColumns target, TickIngestReport report) throws IOException {
+        var bytes = new byte[STREAM_BLOCK_SIZE];
+        var length = 0;
+        var total = 0L;
+        var skipHeader = true;
+        while (true) {
+            if (length == bytes.length) {
+                // a single line longer than the block
+                bytes = Arrays.copyOf(bytes, bytes.length << 1);
+            }
+            var read = in.read(bytes, length, bytes.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+            var lineStart = parseLines(ByteBuffer.wrap(bytes), length, skipHeader, target, report);
+            skipHeader = skipHeader && lineStart == 0;
+            System.arraycopy(bytes, lineStart, bytes, 0, length - lineStart);
+            length -= lineStart;
+            total += lineStart;
+        }
+        if (length > 0 && !skipHeader) {
+            parseLine(ByteBuffer.wrap(bytes), 0, length, target, report);
+        }
+        return total + length;
+    }
+
+    /**
+     * Parses complete lines of the buffer
+     * @return offset right after the last line separator, {@code 0} if there is none
+     */
+    private static int parseLines(ByteBuffer buffer, int length, boolean skipHeader, PriceColumns target, TickIngestReport report) {
+        var lineStart = 0;
+        for (var i = 0; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                if (!skipHeader) {
+                    parseLine(buffer, lineStart, i, target, report);
+                }
+                skipHeader = false;
+                lineStart = i + 1;
+            }
+        }
+        return lineStart;
+    }
+
+    private static void parseLine(ByteBuffer line, int from, int to, PriceColumns target, TickIngestReport report) {
+        while (from < to && line.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && line.get(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return;
+        }
+        var firstComma = indexOf(line, from, to, (byte) ',');
+        var lastComma = lastIndexOf(line, from, to, (byte) ',');
+        if (firstComma < 0 || firstComma == lastComma) {
+            if (report == null) {
+                throw invalidLine(line, from, to);
+            }
+            report.rejectInvalid();
+            return;
+        }
+        long timestamp;
+        long unscaledPrice;
+        try {
+            timestamp = parseLong(line, from, firstComma);
+            unscaledPrice = parseUnscaled(line, lastComma + 1, to);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            if (report == null) {
+                throw ex;
+            }
+            report.rejectInvalid();
+            return;
+        }
+        if (report != null && (unscaledPrice <= 0 || !isSymbol(line, firstComma + 1, lastComma, report.getSymbol()))) {
+            report.rejectInvalid();
+            return;
+        }
+        target.add(timestamp, unscaledPrice, fractionDigits(line, lastComma + 1, to));
+    }
+
+    /**
+     * @return whether the field equals provided symbol ignoring surrounding whitespace, any field matches a {@code null} symbol
+     */
+    private static boolean isSymbol(ByteBuffer bytes, int from, int to, String symbol) {
+        if (symbol == null) {
+            return true;
+        }
+        while (from < to && bytes.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && bytes.get(to - 1) <= ' ') {
+            to--;
+        }
+        if (to - from != symbol.length()) {
+            return false;
+        }
+        for (var i = 0; i < symbol.length(); i++) {
+            if (bytes.get(from + i) != symbol.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long parseLong(ByteBuffer bytes, int from, int to) {
+        if (from == to) {
+            throw invalidLine(bytes, from, to);
+        }
+        var value = 0L;
+        for (var i = from; i < to; i++) {
+            var digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidLine(bytes, from, to);
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10L), digit);
+        }
+        return value;
+    }
+
+    /**
+     * Parses decimal number like {@code 46813.21} into its unscaled long value ({@code 4681321})
+     */
+    static long parseUnscaled(ByteBuffer bytes, int from, int to) {
+        var negative = false;
+        var index = from;
+        if (index < to && (bytes.get(index) == '-' || bytes.get(index) == '+')) {
+            negative = bytes.get(index) == '-';
+            index++;
+        }
+        var digits = 0;
+        var value = 0L;
+        for (; index < to; index++) {
+            if (bytes.get(index) == '.') {
+                continue;
+            }
+            var digit = bytes.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidLine(bytes, from, to);
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10L), digit);
+            digits++;
+        }
+        if (digits == 0) {
+            throw invalidLine(bytes, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    static int fractionDigits(ByteBuffer bytes, int from, int to) {
+        var dot = indexOf(bytes, from, to, (byte) '.');
+        return dot < 0 ? 0 : to - dot - 1;
+    }
+
+    private static int indexOf(ByteBuffer bytes, int from, int to, byte value) {
+        for (var i = from; i < to; i++) {
+            if (bytes.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer bytes, int from, int to, byte value) {
+        for (var i = to - 1; i >= from; i--) {
+            if (bytes.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static NumberFormatException invalidLine(ByteBuffer bytes, int from, int to) {
+        return new NumberFormatException("Invalid crypto stat value: " + StandardCharsets.UTF_8.decode(bytes.duplicate().position(from).limit(to)).toString());
+    }
+}
@@ -1,16 +1,17 @@
 package com.crypto.investment.recommendationservice.repository;
 
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.metrics.CryptoStatsMetrics;
 import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.CryptoStatSeriesView;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.AbstractMap;
@@ -18,24 +19,32 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * ReadRepository for retrieving crypto statistics from CSV files
- * with source defined in {@link CSVDaoConfig}
+ * with source defined in {@link CSVDaoConfig}. Files are parsed by memory-mapped {@link CSVPriceSeriesReader} on each call,
+ * rotated and compressed files of a crypto are decoded in parallel
  */
 @Repository
 public class CryptoStatsCSVDao implements CryptoStatsDao {
 
     private static final Logger LOGGER = LogManager.getLogger(CryptoStatsCSVDao.class);
 
+    private final CSVPriceSeriesReader reader = new CSVPriceSeriesReader();
+
     @Autowired
     private CSVDaoConfig config;
+    @Autowired(required = false)
+    private CryptoStatsMetrics metrics = CryptoStatsMetrics.DISABLED;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
 
     /**
      * Retrieve all crypto statistics for provided crypto symbol
      * @param symbol - cryptocurrency symbol to read statistics for
-     * @return list of {@link CryptoStat} or empty list if no data found
+     * @return read-only list view of {@link CryptoStat} or empty list if no data found
      */
     @Override
     public List<CryptoStat> getStatsForCrypto(String symbol) {
@@ -43,12 +52,35 @@ public class CryptoStatsCSVDao implements CryptoStatsDao {
     }
 
     /**
-     * Retrieve all crypto statistics for all supported cryptos defined in {@link DaoConfig}
+     * Retrieve crypto statistics within [from, to) for provided crypto symbol,
+     * rotated files of days outside the range are skipped, the other files are parsed whole
+     * and the parsed series is sliced by binary search
+     */
+    @Override
+    public List<CryptoStat> getStatsForCrypto(String symbol, LocalDateTime from, LocalDateTime to) {
+        var fromTimestamp = toEpochMilli(from);
+        var toTimestamp = toEpochMilli(to);
+        var cryptoStats = readCryptoStats(symbol, file -> file.overlaps(fromTimestamp, toTimestamp));
+        return cryptoStats instanceof CryptoStatSeriesView
+                ? ((CryptoStatSeriesView) cryptoStats).subView(fromTimestamp, toTimestamp)
+                : cryptoStats;
+    }
+
+    /**
+     * Retrieve all crypto statistics for all supported cryptos defined in {@link DaoConfig} owned by this node, see {@link SymbolPartitioner}
      * @return Map of all crypto symbols paired with its statistics
      */
     @Override
     public Map<String, List<CryptoStat>> getAllCryptoStats() {
-        return retrieveCryptoStats(config.getSupportedCryptos());
+        return retrieveCryptoStats(getCryptos());
+    }
+
+    /**
+     * @return supported cryptos defined in {@link DaoConfig} owned by this node
+     */
+    @Override
+    public Set<String> getCryptos() {
+        return partitioner.localCryptos(config.getSupportedCryptos());
     }
 
     private Map<String, List<CryptoStat>> retrieveCryptoStats(Set<String> symbols) {
@@ -58,32 +90,34 @@ public class CryptoStatsCSVDao implements CryptoStatsDao {
     }
 
     private Map.Entry<String, List<CryptoStat>> retrieveCryptoStats(String symbol) {
-        var path = config.getDatasourcePath().resolve(getFileName(symbol));
-        return new AbstractMap.SimpleEntry<>(symbol, readCryptoStatsFromFile(path));
+        return new AbstractMap.SimpleEntry<>(symbol, readCryptoStats(symbol, file -> true));
     }
 
-    private List<CryptoStat> readCryptoStatsFromFile(Path pathToFile) {
+    private List<CryptoStat> readCryptoStats(String symbol, Predicate<CSVDatasourceFiles.DatasourceFile> fileFilter) {
+        partitioner.checkLocal(symbol);
         try {
-            return Files.exists(pathToFile)
-                    ? Files.readAllLines(pathToFile).stream()
-                          .skip(1)
-                          .map(this::parseLineToCryptoStat)
-                          .collect(Collectors.toList())
-                    : Collections.emptyList();
+            var files = CSVDatasourceFiles.list(config, symbol).stream()
+                    .filter(fileFilter)
+                    .collect(Collectors.toList());
+            if (files.isEmpty()) {
+                return Collections.emptyList();
+            }
+            var startTime = metrics.startTime();
+            var columns = new PriceColumns();
+            metrics.recordRejected(TickIngestPipeline.of(reader, config).read(files, symbol, columns));
+            var priceScale = config.getPriceScales().get(symbol);
+            if (priceScale != null) {
+                columns.finish().rescaleTo(priceScale);
+            }
+            metrics.recordRead(symbol, "csv", startTime, columns.size());
+            return CryptoPriceSeries.of(symbol, columns).asList();
         } catch (IOException ex) {
-            LOGGER.error("error during reading file: " + pathToFile, ex);
+            LOGGER.error("error during reading files of " + symbol + " in " + config.getDatasourcePath(), ex);
             throw new CSVDaoReadException("Internal Server Error");
         }
     }
 
-    private CryptoStat parseLineToCryptoStat(String line) {
-        var cryptoStatFields = line.strip().split(",");
-        return new CryptoStat(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(cryptoStatFields[0])), ZoneOffset.UTC),
-                                cryptoStatFields[1],
-                                new BigDecimal(cryptoStatFields[2]));
-    }
-
-    private String getFileName(String symbol) {
-        return config.getFilePattern().replace(CSVDaoConfig.CRYPTO_PLACEHOLDER, symbol);
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.crypto.investment.recommendationservice.repository;
 
 import com.crypto.investment.recommendationservice.models.CryptoStat;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Dao interface for fetching crypto statistics
@@ -12,5 +14,17 @@ public interface CryptoStatsDao {
 
     List<CryptoStat> getStatsForCrypto(String symbol);
 
+    /**
+     * @param from - inclusive start of the range in UTC
+     * @param to - exclusive end of the range in UTC
+     * @return statistics of provided crypto within [from, to) in ascending timestamp order
+     */
+    List<CryptoStat> getStatsForCrypto(String symbol, LocalDateTime from, LocalDateTime to);
+
     Map<String, List<CryptoStat>> getAllCryptoStats();
+
+    /**
+     * @return cryptos {@link #getAllCryptoStats()} returns statistics of, without reading any statistics
+     */
+    Set<String> getCryptos();
 }
@@ -0,0 +1,244 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.metrics.CryptoStatsMetrics;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.LivePriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ReadRepository keeping crypto statistics in memory as {@link CryptoPriceSeries}.
+ * CSV files of a crypto with source defined in {@link CSVDaoConfig}, including rotated and compressed ones,
+ * are decoded in parallel only once, later requests are served from the primitive columns without any file I/O.
+ * If {@code snapshotPath} is configured, parsed series are saved as {@link PriceSeriesSnapshotFile}
+ * and loaded from it on the next start while the CSV files are unchanged.
+ * New ticks are added through {@link #appendTicks(String, PriceColumns)}, see {@link CSVDatasourceWatcher},
+ * whole series are reloaded through {@link #reloadSeries(String)}, which reads and rewrites the snapshot as well,
+ * each series is published through {@link LivePriceSeries}, so appends never block queries.
+ * In cluster mode cryptos owned by other nodes are refused and never loaded, see {@link SymbolPartitioner}
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = TickStoreConfig.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
+public class CryptoStatsInMemoryDao implements CryptoStatsDao, TickIngestTarget {
+
+    private static final Logger LOGGER = LogManager.getLogger(CryptoStatsInMemoryDao.class);
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private final Map<String, LivePriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    private final CSVPriceSeriesReader reader = new CSVPriceSeriesReader();
+    private final PriceSeriesSnapshotFile snapshotFile = new PriceSeriesSnapshotFile();
+
+    @Autowired
+    private CSVDaoConfig config;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private CryptoStatsMetrics metrics = CryptoStatsMetrics.DISABLED;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
+
+    /**
+     * Retrieve all crypto statistics for provided crypto symbol
+     * @param symbol - cryptocurrency symbol to read statistics for
+     * @return read-only list view of {@link CryptoStat} or empty list if no data found
+     */
+    @Override
+    public List<CryptoStat> getStatsForCrypto(String symbol) {
+        return getSeries(symbol).asList();
+    }
+
+    /**
+     * Retrieve crypto statistics within [from, to) for provided crypto symbol
+     * @return read-only view of the series sliced by binary search, no ticks are copied
+     */
+    @Override
+    public List<CryptoStat> getStatsForCrypto(String symbol, LocalDateTime from, LocalDateTime to) {
+        return getSeries(symbol).asList(toEpochMilli(from), toEpochMilli(to));
+    }
+
+    /**
+     * Retrieve all crypto statistics for all supported cryptos defined in {@link DaoConfig} owned by this node, see {@link SymbolPartitioner}
+     * @return Map of all crypto symbols paired with read-only views of its statistics
+     */
+    @Override
+    public Map<String, List<CryptoStat>> getAllCryptoStats() {
+        return getCryptos().parallelStream()
+                .collect(Collectors.toMap(Function.identity(), this::getStatsForCrypto));
+    }
+
+    /**
+     * @return supported cryptos defined in {@link DaoConfig} owned by this node
+     */
+    @Override
+    public Set<String> getCryptos() {
+        return partitioner.localCryptos(config.getSupportedCryptos());
+    }
+
+    /**
+     * @param symbol - cryptocurrency symbol to get series for
+     * @return columnar series for provided crypto, loaded from CSV file on first access
+     */
+    public CryptoPriceSeries getSeries(String symbol) {
+        partitioner.checkLocal(symbol);
+        return seriesBySymbol.computeIfAbsent(symbol, s -> new LivePriceSeries(loadSeries(s, new HashMap<>()))).snapshot();
+    }
+
+    /**
+     * Reloads the whole series of provided crypto like on first access, from its snapshot while the CSV files are unchanged,
+     * and publishes {@link CryptoStatsUpdatedEvent}
+     * @param symbol - cryptocurrency symbol to reload series for
+     * @return byte offsets of files of the crypto up to which ticks were loaded
+     */
+    @Override
+    public Map<Path, Long> reloadSeries(String symbol) {
+        var offsets = new HashMap<Path, Long>();
+        var series = loadSeries(symbol, offsets);
+        liveSeries(symbol).replace(series);
+        if (series.size() > 0) {
+            publishUpdate(symbol, series.getTimestamp(0), series.getTimestamp(series.size() - 1), true);
+        }
+        return offsets;
+    }
+
+    @Override
+    public long getLastTimestamp(String symbol) {
+        var series = getSeries(symbol);
+        return series.size() == 0 ? Long.MIN_VALUE : series.getTimestamp(series.size() - 1);
+    }
+
+    /**
+     * Appends new ticks to the series of provided crypto and publishes {@link CryptoStatsUpdatedEvent}
+     * @param symbol - cryptocurrency symbol ticks belong to
+     * @param ticks - parsed ticks, must not be modified afterwards
+     */
+    @Override
+    public void appendTicks(String symbol, PriceColumns ticks) {
+        applyPriceScale(symbol, ticks.finish());
+        if (ticks.isEmpty()) {
+            return;
+        }
+        liveSeries(symbol).append(ticks);
+        publishUpdate(symbol, ticks.getTimestamp(0), ticks.getTimestamp(ticks.size() - 1), false);
+    }
+
+    private LivePriceSeries liveSeries(String symbol) {
+        partitioner.checkLocal(symbol);
+        return seriesBySymbol.computeIfAbsent(symbol, s -> new LivePriceSeries(CryptoPriceSeries.empty(s)));
+    }
+
+    private void publishUpdate(String symbol, long fromTimestamp, long toTimestamp, boolean fullReload) {
+        eventPublisher.publishEvent(new CryptoStatsUpdatedEvent(this, symbol, fromTimestamp, toTimestamp, fullReload));
+    }
+
+    /**
+     * @param offsets - filled with byte offsets of the files up to which ticks were loaded
+     */
+    private CryptoPriceSeries loadSeries(String symbol, Map<Path, Long> offsets) {
+        var path = config.getDatasourcePath();
+        try {
+            var files = CSVDatasourceFiles.list(config, symbol);
+            if (files.isEmpty()) {
+                return CryptoPriceSeries.empty(symbol);
+            }
+            var startTime = System.nanoTime();
+            var sourceSize = 0L;
+            var sourceLastModified = 0L;
+            for (var file : files) {
+                offsets.put(file.getPath(), Files.size(file.getPath()));
+                sourceSize += offsets.get(file.getPath());
+                sourceLastModified = Math.max(sourceLastModified, Files.getLastModifiedTime(file.getPath()).toMillis());
+            }
+            var snapshotPath = getSnapshotPath(symbol);
+            var snapshotOffsets = new HashMap<String, Long>();
+            var series = snapshotPath == null ? null : readSnapshot(snapshotPath, symbol, sourceSize, sourceLastModified, snapshotOffsets);
+            var priceScale = config.getPriceScales().get(symbol);
+            if (series != null && priceScale != null && series.getScale() != priceScale) {
+                series = null;
+            }
+            var fromSnapshot = series != null;
+            if (fromSnapshot) {
+                // resume after the last parsed line, a partly written one is completed by a later append
+                for (var file : files) {
+                    offsets.put(file.getPath(), snapshotOffsets.getOrDefault(file.getPath().getFileName().toString(), offsets.get(file.getPath())));
+                }
+            } else {
+                var columns = new PriceColumns();
+                var report = TickIngestPipeline.of(reader, config).read(files, symbol, columns);
+                report.getFileReports().forEach(fileReport -> offsets.put(fileReport.getFile(), fileReport.getEndOffset()));
+                metrics.recordRejected(report);
+                applyPriceScale(symbol, columns);
+                series = CryptoPriceSeries.of(symbol, columns);
+            }
+            metrics.recordRead(symbol, fromSnapshot ? "snapshot" : "csv", startTime, series.size());
+            LOGGER.info("loaded " + series.size() + " ticks for " + symbol + " from " + (fromSnapshot ? snapshotPath : files.size() + " files in " + path)
+                        + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+            if (snapshotPath != null && !fromSnapshot) {
+                writeSnapshot(snapshotPath, series, sourceSize, sourceLastModified, offsets);
+            }
+            return series;
+        } catch (IOException ex) {
+            LOGGER.error("error during reading files of " + symbol + " in " + path, ex);
+            throw new CSVDaoReadException("Internal Server Error");
+        }
+    }
+
+    private void applyPriceScale(String symbol, PriceColumns columns) {
+        var priceScale = config.getPriceScales().get(symbol);
+        if (priceScale == null || priceScale == columns.getScale()) {
+            return;
+        }
+        if (priceScale < columns.getScale()) {
+            LOGGER.warn("rounding " + symbol + " prices with " + columns.getScale() + " fraction digits to configured scale " + priceScale);
+        }
+        columns.rescaleTo(priceScale);
+    }
+
+    private CryptoPriceSeries readSnapshot(Path snapshotPath, String symbol, long sourceSize, long sourceLastModified, Map<String, Long> endOffsets) {
+        try {
+            return snapshotFile.read(snapshotPath, symbol, sourceSize, sourceLastModified, endOffsets);
+        } catch (IOException ex) {
+            LOGGER.warn("ignoring snapshot " + snapshotPath + ", falling back to CSV", ex);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(Path snapshotPath, CryptoPriceSeries series, long sourceSize, long sourceLastModified, Map<Path, Long> endOffsets) {
+        try {
+            snapshotFile.write(snapshotPath, series, sourceSize, sourceLastModified, endOffsets);
+        } catch (IOException ex) {
+            LOGGER.warn("error during writing snapshot: " + snapshotPath, ex);
+        }
+    }
+
+    private Path getSnapshotPath(String symbol) {
+        return config.getSnapshotPath() == null ? null : config.getSnapshotPath().resolve(symbol + SNAPSHOT_EXTENSION);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
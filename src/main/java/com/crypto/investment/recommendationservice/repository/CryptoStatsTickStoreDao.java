@@ -0,0 +1,210 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.metrics.CryptoStatsMetrics;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ReadRepository keeping crypto statistics in the embedded time-partitioned {@link TickPartitionStore}
+ * defined in {@link TickStoreConfig}. Range reads open only the partitions overlapping the range,
+ * so years of history are never read to serve a short window.
+ * Ticks of CSV files defined in {@link CSVDaoConfig} newer than the stored ones are imported on start,
+ * or by {@link CSVDatasourceWatcher} if {@code csv-dao-config.watchForUpdates} is enabled, which also keeps importing appended ticks
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = TickStoreConfig.ENABLED_PROPERTY, havingValue = "true")
+public class CryptoStatsTickStoreDao implements CryptoStatsDao, TickIngestTarget {
+
+    private static final Logger LOGGER = LogManager.getLogger(CryptoStatsTickStoreDao.class);
+
+    private final CSVPriceSeriesReader reader = new CSVPriceSeriesReader();
+    private TickPartitionStore store;
+
+    @Autowired
+    private TickStoreConfig config;
+    @Autowired
+    private CSVDaoConfig csvConfig;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private CryptoStatsMetrics metrics = CryptoStatsMetrics.DISABLED;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
+
+    @PostConstruct
+    public void start() {
+        store = new TickPartitionStore(config.getStorePath(), config.getPartitioning());
+        if (config.isImportCsv() && !csvConfig.isWatchForUpdates()) {
+            for (var symbol : partitioner.localCryptos(csvConfig.getSupportedCryptos())) {
+                try {
+                    reloadSeries(symbol);
+                } catch (CSVDaoReadException ex) {
+                    // logged on import, the crypto is served from the stored ticks
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve all crypto statistics for provided crypto symbol
+     * @param symbol - cryptocurrency symbol to read statistics for
+     * @return read-only list view of {@link CryptoStat} or empty list if no data found
+     */
+    @Override
+    public List<CryptoStat> getStatsForCrypto(String symbol) {
+        return readStats(symbol, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Retrieve crypto statistics within [from, to) for provided crypto symbol, reading only partitions overlapping the range
+     * @param symbol - cryptocurrency symbol to read statistics for
+     * @param from - inclusive start of the range in UTC
+     * @param to - exclusive end of the range in UTC
+     * @return read-only list view of {@link CryptoStat} or empty list if no data found
+     */
+    @Override
+    public List<CryptoStat> getStatsForCrypto(String symbol, LocalDateTime from, LocalDateTime to) {
+        return readStats(symbol, toEpochMilli(from), toEpochMilli(to));
+    }
+
+    /**
+     * Retrieve all crypto statistics for all supported cryptos defined in {@link DaoConfig} owned by this node, see {@link SymbolPartitioner}
+     * @return Map of all crypto symbols paired with read-only views of its statistics
+     */
+    @Override
+    public Map<String, List<CryptoStat>> getAllCryptoStats() {
+        return getCryptos().parallelStream()
+                .collect(Collectors.toMap(Function.identity(), this::getStatsForCrypto));
+    }
+
+    /**
+     * @return supported cryptos defined in {@link DaoConfig} owned by this node
+     */
+    @Override
+    public Set<String> getCryptos() {
+        return partitioner.localCryptos(csvConfig.getSupportedCryptos());
+    }
+
+    @Override
+    public long getLastTimestamp(String symbol) {
+        partitioner.checkLocal(symbol);
+        try {
+            return store.getLastTimestamp(symbol);
+        } catch (IOException ex) {
+            LOGGER.error("error during reading ticks of " + symbol + " from " + config.getStorePath(), ex);
+            throw new CSVDaoReadException("Internal Server Error");
+        }
+    }
+
+    /**
+     * Stores new ticks of provided crypto and publishes {@link CryptoStatsUpdatedEvent}
+     * @param symbol - cryptocurrency symbol ticks belong to
+     * @param ticks - parsed ticks, must not be modified afterwards
+     */
+    @Override
+    public void appendTicks(String symbol, PriceColumns ticks) {
+        partitioner.checkLocal(symbol);
+        if (ticks.finish().isEmpty()) {
+            return;
+        }
+        try {
+            store.write(symbol, ticks);
+        } catch (IOException ex) {
+            LOGGER.error("error during writing ticks of " + symbol + " to " + config.getStorePath(), ex);
+            throw new CSVDaoReadException("Internal Server Error");
+        }
+        eventPublisher.publishEvent(new CryptoStatsUpdatedEvent(this, symbol, ticks.getTimestamp(0), ticks.getTimestamp(ticks.size() - 1), false));
+    }
+
+    private List<CryptoStat> readStats(String symbol, long from, long to) {
+        partitioner.checkLocal(symbol);
+        try {
+            var startTime = metrics.startTime();
+            var columns = new PriceColumns();
+            store.read(symbol, from, to, columns);
+            var priceScale = csvConfig.getPriceScales().get(symbol);
+            if (priceScale != null) {
+                columns.finish().rescaleTo(priceScale);
+            }
+            metrics.recordRead(symbol, "tick-store", startTime, columns.size());
+            return CryptoPriceSeries.of(symbol, columns).asList();
+        } catch (IOException ex) {
+            LOGGER.error("error during reading ticks of " + symbol + " from " + config.getStorePath(), ex);
+            throw new CSVDaoReadException("Internal Server Error");
+        }
+    }
+
+    /**
+     * Imports ticks of all CSV files of provided crypto newer than the newest stored tick,
+     * stored ticks are never replaced, so rewritten history of the files is not imported.
+     * Rotated files of days before the newest stored tick are skipped without being decoded
+     * @return byte offsets of files of the crypto up to which ticks were read
+     */
+    @Override
+    public Map<Path, Long> reloadSeries(String symbol) {
+        partitioner.checkLocal(symbol);
+        var path = csvConfig.getDatasourcePath();
+        var offsets = new HashMap<Path, Long>();
+        try {
+            var lastStoredTimestamp = store.getLastTimestamp(symbol);
+            var files = new ArrayList<CSVDatasourceFiles.DatasourceFile>();
+            for (var file : CSVDatasourceFiles.list(csvConfig, symbol)) {
+                if (file.overlaps(lastStoredTimestamp + 1, Long.MAX_VALUE)) {
+                    files.add(file);
+                } else {
+                    // rotated file of a day already stored, it is never appended to
+                    offsets.put(file.getPath(), Files.size(file.getPath()));
+                }
+            }
+            if (files.isEmpty()) {
+                return offsets;
+            }
+            var columns = new PriceColumns();
+            var report = TickIngestPipeline.of(reader, csvConfig).read(files, symbol, columns);
+            report.getFileReports().forEach(fileReport -> offsets.put(fileReport.getFile(), fileReport.getEndOffset()));
+            metrics.recordRejected(report);
+            var newTicks = new PriceColumns();
+            for (var i = 0; i < columns.size(); i++) {
+                if (columns.getTimestamp(i) > lastStoredTimestamp) {
+                    newTicks.add(columns.getTimestamp(i), columns.getUnscaledPrice(i), columns.getScale());
+                }
+            }
+            if (!newTicks.isEmpty()) {
+                appendTicks(symbol, newTicks);
+                LOGGER.info("imported " + newTicks.size() + " ticks for " + symbol + " from " + files.size() + " files in " + path + " into " + config.getStorePath());
+            }
+            return offsets;
+        } catch (IOException ex) {
+            LOGGER.error("error during importing files of " + symbol + " in " + path, ex);
+            throw new CSVDaoReadException("Internal Server Error");
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
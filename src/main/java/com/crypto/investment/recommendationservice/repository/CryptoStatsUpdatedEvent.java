@@ -0,0 +1,49 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published by {@link CryptoStatsDao} implementations when new statistics arrive for a crypto
+ */
+public class CryptoStatsUpdatedEvent extends ApplicationEvent {
+
+    private final String symbol;
+    private final long fromTimestamp;
+    private final long toTimestamp;
+    private final boolean fullReload;
+
+    public CryptoStatsUpdatedEvent(Object source, String symbol, long fromTimestamp, long toTimestamp) {
+        this(source, symbol, fromTimestamp, toTimestamp, false);
+    }
+
+    /**
+     * @param source - dao that received new statistics
+     * @param symbol - crypto symbol the statistics belong to
+     * @param fromTimestamp - epoch-millis of the oldest new tick
+     * @param toTimestamp - epoch-millis of the newest new tick
+     * @param fullReload - whether all statistics of the crypto were replaced, not only appended
+     */
+    public CryptoStatsUpdatedEvent(Object source, String symbol, long fromTimestamp, long toTimestamp, boolean fullReload) {
+        super(source);
+        this.symbol = symbol;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.fullReload = fullReload;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getFromTimestamp() {
+        return fromTimestamp;
+    }
+
+    public long getToTimestamp() {
+        return toTimestamp;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+}
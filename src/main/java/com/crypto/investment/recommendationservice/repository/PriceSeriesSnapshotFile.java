@@ -0,0 +1,172 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a single crypto {@link CryptoPriceSeries}, written after a CSV file was parsed
+ * and memory-mapped on the next start instead of parsing the CSV again.
+ * <p>
+ * Layout (big-endian): magic, format version, size and last modified time of the source CSV, per source file
+ * its name and the byte offset up to which ticks were parsed, scale, tick count, symbol, then per tick zigzag varint deltas of timestamp and unscaled price to the previous tick,
+ * and a CRC32 of everything before it.
+ */
+class PriceSeriesSnapshotFile {
+
+    static final int MAGIC = 0x43505353;
+    static final byte VERSION = 2;
+
+    /**
+     * Writes the snapshot to a temporary file first and moves it in place, so readers never see a partial snapshot
+     * @param sourceSize - size of the CSV file the series was parsed from
+     * @param sourceLastModified - last modified time of the CSV file in millis
+     * @param endOffsets - byte offsets of the CSV files up to which ticks were parsed, short of a partly written last line
+     */
+    void write(Path snapshotFile, CryptoPriceSeries series, long sourceSize, long sourceLastModified, Map<Path, Long> endOffsets) throws IOException {
+        Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+        var tempFile = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), snapshotFile.getFileName().toString(), ".tmp");
+        try {
+            var checksum = new CRC32();
+            try (var out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), checksum))) {
+                var symbol = series.getSymbol().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(sourceSize);
+                out.writeLong(sourceLastModified);
+                out.writeShort(endOffsets.size());
+                for (var entry : endOffsets.entrySet()) {
+                    var fileName = entry.getKey().getFileName().toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(fileName.length);
+                    out.write(fileName);
+                    out.writeLong(entry.getValue());
+                }
+                out.writeByte(series.getScale());
+                out.writeInt(series.size());
+                out.writeShort(symbol.length);
+                out.write(symbol);
+                var previousTimestamp = 0L;
+                var previousPrice = 0L;
+                for (var i = 0; i < series.size(); i++) {
+                    writeVarLong(out, zigzag(series.getTimestamp(i) - previousTimestamp));
+                    writeVarLong(out, zigzag(series.getUnscaledPrice(i) - previousPrice));
+                    previousTimestamp = series.getTimestamp(i);
+                    previousPrice = series.getUnscaledPrice(i);
+                }
+                out.flush();
+                out.writeInt((int) checksum.getValue());
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Reads the snapshot if it was written for the current state of the source CSV
+     * @param sourceSize - current size of the CSV file
+     * @param sourceLastModified - current last modified time of the CSV file in millis
+     * @param endOffsets - filled with the parsed byte offsets of the CSV files by file name
+     * @return series or {@code null} if there is no snapshot or it is older than the CSV file
+     * @throws IOException if the snapshot can't be read, is corrupted or has unsupported format version
+     */
+    CryptoPriceSeries read(Path snapshotFile, String symbol, long sourceSize, long sourceLastModified, Map<String, Long> endOffsets) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a price series snapshot: " + snapshotFile);
+            }
+            var version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + snapshotFile);
+            }
+            if (buffer.getLong() != sourceSize || buffer.getLong() < sourceLastModified) {
+                return null;
+            }
+            verifyChecksum(buffer, snapshotFile);
+            var fileCount = buffer.getShort();
+            for (var i = 0; i < fileCount; i++) {
+                var nameBytes = new byte[buffer.getShort()];
+                buffer.get(nameBytes);
+                endOffsets.put(new String(nameBytes, StandardCharsets.UTF_8), buffer.getLong());
+            }
+            var scale = buffer.get();
+            var size = buffer.getInt();
+            var symbolBytes = new byte[buffer.getShort()];
+            buffer.get(symbolBytes);
+            if (!symbol.equals(new String(symbolBytes, StandardCharsets.UTF_8))) {
+                throw new IOException("Snapshot of another crypto: " + snapshotFile);
+            }
+            var timestamps = new long[size];
+            var prices = new long[size];
+            var timestamp = 0L;
+            var price = 0L;
+            for (var i = 0; i < size; i++) {
+                timestamp += unzigzag(readVarLong(buffer));
+                price += unzigzag(readVarLong(buffer));
+                timestamps[i] = timestamp;
+                prices[i] = price;
+            }
+            return new CryptoPriceSeries(symbol, timestamps, prices, scale, size);
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupted snapshot: " + snapshotFile, ex);
+        }
+    }
+
+    static void verifyChecksum(ByteBuffer buffer, Path snapshotFile) throws IOException {
+        var checksumOffset = buffer.limit() - Integer.BYTES;
+        if (checksumOffset < buffer.position()) {
+            throw new IOException("Truncated snapshot: " + snapshotFile);
+        }
+        var checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(0).limit(checksumOffset));
+        if ((int) checksum.getValue() != buffer.getInt(checksumOffset)) {
+            throw new IOException("Snapshot checksum mismatch: " + snapshotFile);
+        }
+        buffer.limit(checksumOffset);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        var value = 0L;
+        for (var shift = 0; shift < Long.SIZE; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+}
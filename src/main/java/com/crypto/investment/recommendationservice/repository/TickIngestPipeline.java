@@ -0,0 +1,141 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Ingest stage between a CSV file and a stored series: rows are validated while parsed, ticks older than
+ * a tick before them are sorted or dropped and ticks with the same timestamp are deduplicated,
+ * according to the policies of {@link CSVDaoConfig}. Rejected rows are counted per file in {@link TickIngestReport}.
+ * With the default {@code KEEP_FIRST} policy stored series have distinct timestamps,
+ * so the newest tick of a range is its last one.
+ */
+final class TickIngestPipeline {
+
+    private static final Logger LOGGER = LogManager.getLogger(TickIngestPipeline.class);
+
+    private final CSVPriceSeriesReader reader;
+    private final CSVDaoConfig.OutOfOrderPolicy outOfOrderPolicy;
+    private final CSVDaoConfig.DuplicatePolicy duplicatePolicy;
+    private final boolean readIncompleteLines;
+
+    TickIngestPipeline(CSVPriceSeriesReader reader, CSVDaoConfig.OutOfOrderPolicy outOfOrderPolicy, CSVDaoConfig.DuplicatePolicy duplicatePolicy) {
+        this(reader, outOfOrderPolicy, duplicatePolicy, true);
+    }
+
+    /**
+     * @param readIncompleteLines - whether whole files are parsed including a last line without line separator
+     */
+    TickIngestPipeline(CSVPriceSeriesReader reader, CSVDaoConfig.OutOfOrderPolicy outOfOrderPolicy, CSVDaoConfig.DuplicatePolicy duplicatePolicy,
+                       boolean readIncompleteLines) {
+        this.reader = reader;
+        this.outOfOrderPolicy = outOfOrderPolicy;
+        this.duplicatePolicy = duplicatePolicy;
+        this.readIncompleteLines = readIncompleteLines;
+    }
+
+    /**
+     * @return pipeline with policies of provided config, unset policies default to {@code SORT} and {@code KEEP_FIRST}.
+     *          If files are watched for updates, a last line without line separator of an uncompressed file is left
+     *          to the watcher, as it may be still written
+     */
+    static TickIngestPipeline of(CSVPriceSeriesReader reader, CSVDaoConfig config) {
+        return new TickIngestPipeline(reader,
+                                      Objects.requireNonNullElse(config.getOutOfOrderTicks(), CSVDaoConfig.OutOfOrderPolicy.SORT),
+                                      Objects.requireNonNullElse(config.getDuplicateTicks(), CSVDaoConfig.DuplicatePolicy.KEEP_FIRST),
+                                      !config.isWatchForUpdates());
+    }
+
+    /**
+     * Parses ticks of the file starting from provided byte offset, see {@link CSVPriceSeriesReader#read}
+     * @param symbol - crypto the file belongs to, rows of other cryptos are rejected
+     * @param lastStoredTimestamp - timestamp of the newest stored tick ticks are appended to, {@link Long#MIN_VALUE} if none
+     * @param target - empty columns to add accepted ticks to, sorted by timestamp afterwards
+     */
+    TickIngestReport read(Path file, String symbol, long fromOffset, boolean readIncompleteLine, long lastStoredTimestamp,
+                          PriceColumns target) throws IOException {
+        var report = new TickIngestReport(file, symbol);
+        report.setEndOffset(reader.read(file, fromOffset, readIncompleteLine, target, report));
+        return applyPolicies(report, lastStoredTimestamp, target, file.toString());
+    }
+
+    /**
+     * Parses whole files of a crypto in parallel, one file per task of the common fork-join pool,
+     * and merges their ticks into one series before ticks are ordered and deduplicated
+     * @param files - files of the crypto, see {@link CSVDatasourceFiles#list}
+     * @param target - empty columns to add accepted ticks to, sorted by timestamp afterwards
+     * @return report of all files with a report per file
+     */
+    TickIngestReport read(List<CSVDatasourceFiles.DatasourceFile> files, String symbol, PriceColumns target) throws IOException {
+        List<ParsedFile> parsedFiles;
+        try {
+            parsedFiles = files.parallelStream()
+                    .map(file -> parse(file, symbol))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException ex) {
+            throw new IOException(ex.getMessage(), ex.getCause());
+        }
+        var report = new TickIngestReport(null, symbol);
+        for (var parsedFile : parsedFiles) {
+            report.addFileReport(parsedFile.report);
+            report.setEndOffset(report.getEndOffset() + parsedFile.report.getEndOffset());
+            target.addAll(parsedFile.ticks);
+        }
+        return applyPolicies(report, Long.MIN_VALUE, target, files.size() + " " + symbol + " files");
+    }
+
+    private ParsedFile parse(CSVDatasourceFiles.DatasourceFile file, String symbol) {
+        var report = new TickIngestReport(file.getPath(), symbol);
+        var ticks = new PriceColumns();
+        try {
+            if (file.getCompression() == CSVDatasourceFiles.Compression.NONE) {
+                report.setEndOffset(reader.read(file.getPath(), 0, readIncompleteLines, ticks, report));
+            } else {
+                try (var in = CSVDatasourceFiles.open(file)) {
+                    reader.read(in, ticks, report);
+                }
+                report.setEndOffset(Files.size(file.getPath()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("error during reading file: " + file.getPath(), ex);
+        }
+        report.setAcceptedRows(ticks.size());
+        return new ParsedFile(report, ticks);
+    }
+
+    private TickIngestReport applyPolicies(TickIngestReport report, long lastStoredTimestamp, PriceColumns target, String source) {
+        if (outOfOrderPolicy == CSVDaoConfig.OutOfOrderPolicy.DROP) {
+            report.rejectOutOfOrder(target.removeOutOfOrder(lastStoredTimestamp));
+        }
+        target.finish();
+        if (duplicatePolicy != CSVDaoConfig.DuplicatePolicy.KEEP_ALL) {
+            report.rejectDuplicates(target.removeDuplicates(lastStoredTimestamp, duplicatePolicy == CSVDaoConfig.DuplicatePolicy.KEEP_LAST));
+        }
+        report.setAcceptedRows(target.size());
+        if (report.getRejectedRows() > 0) {
+            LOGGER.warn("rejected " + report.getRejectedRows() + " rows of " + source + ": " + report.getInvalidRows() + " invalid, "
+                        + report.getOutOfOrderRows() + " out of order, " + report.getDuplicateRows() + " duplicate");
+        }
+        return report;
+    }
+
+    private static final class ParsedFile {
+
+        private final TickIngestReport report;
+        private final PriceColumns ticks;
+
+        private ParsedFile(TickIngestReport report, PriceColumns ticks) {
+            this.report = report;
+            this.ticks = ticks;
+        }
+    }
+}
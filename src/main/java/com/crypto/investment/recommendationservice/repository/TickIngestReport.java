@@ -0,0 +1,112 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of ingesting a CSV file by {@link TickIngestPipeline}: accepted ticks and rejected rows per reason.
+ * Files of a crypto ingested together are reported as a whole with a report per file
+ */
+public final class TickIngestReport {
+
+    private final Path file;
+    private final String symbol;
+    private long endOffset;
+    private int acceptedRows;
+    private int invalidRows;
+    private int outOfOrderRows;
+    private int duplicateRows;
+    private final List<TickIngestReport> fileReports = new ArrayList<>();
+
+    TickIngestReport(Path file, String symbol) {
+        this.file = file;
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return ingested file, {@code null} for a report of several files
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return byte offset right after the last parsed line, size of the file for a compressed one
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    void setEndOffset(long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    public int getAcceptedRows() {
+        return acceptedRows;
+    }
+
+    void setAcceptedRows(int acceptedRows) {
+        this.acceptedRows = acceptedRows;
+    }
+
+    /**
+     * @return rows which are not {@code timestamp,symbol,price} of the crypto with a positive price
+     */
+    public int getInvalidRows() {
+        return invalidRows;
+    }
+
+    void rejectInvalid() {
+        invalidRows++;
+    }
+
+    public int getOutOfOrderRows() {
+        return outOfOrderRows;
+    }
+
+    void rejectOutOfOrder(int rows) {
+        outOfOrderRows += rows;
+    }
+
+    public int getDuplicateRows() {
+        return duplicateRows;
+    }
+
+    void rejectDuplicates(int rows) {
+        duplicateRows += rows;
+    }
+
+    /**
+     * @return reports of files ingested together with their invalid rows, ticks are only accepted or deduplicated as a whole
+     */
+    public List<TickIngestReport> getFileReports() {
+        return Collections.unmodifiableList(fileReports);
+    }
+
+    void addFileReport(TickIngestReport fileReport) {
+        fileReports.add(fileReport);
+        invalidRows += fileReport.invalidRows;
+    }
+
+    public int getRejectedRows() {
+        return invalidRows + outOfOrderRows + duplicateRows;
+    }
+
+    @Override
+    public String toString() {
+        return "TickIngestReport{" +
+                "file=" + file +
+                ", symbol='" + symbol + '\'' +
+                ", acceptedRows=" + acceptedRows +
+                ", invalidRows=" + invalidRows +
+                ", outOfOrderRows=" + outOfOrderRows +
+                ", duplicateRows=" + duplicateRows +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Store {@link CSVDatasourceWatcher} writes ingested ticks to, implemented by every {@link CryptoStatsDao} holding its own copy of the CSV data
+ */
+public interface TickIngestTarget {
+
+    /**
+     * @return timestamp of the newest stored tick of provided crypto, {@link Long#MIN_VALUE} if there is none
+     */
+    long getLastTimestamp(String symbol);
+
+    /**
+     * Stores ticks appended to a file of provided crypto and publishes {@link CryptoStatsUpdatedEvent}
+     * @param ticks - parsed ticks, must not be modified afterwards
+     */
+    void appendTicks(String symbol, PriceColumns ticks);
+
+    /**
+     * Brings stored ticks of provided crypto up to date with all its files, e.g. on start or after rotation,
+     * and publishes {@link CryptoStatsUpdatedEvent}
+     * @return byte offsets of files of the crypto up to which ticks were read
+     */
+    Map<Path, Long> reloadSeries(String symbol);
+}
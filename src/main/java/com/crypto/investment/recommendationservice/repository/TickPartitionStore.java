@@ -0,0 +1,338 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static com.crypto.investment.recommendationservice.repository.PriceSeriesSnapshotFile.readVarLong;
+import static com.crypto.investment.recommendationservice.repository.PriceSeriesSnapshotFile.unzigzag;
+import static com.crypto.investment.recommendationservice.repository.PriceSeriesSnapshotFile.writeVarLong;
+import static com.crypto.investment.recommendationservice.repository.PriceSeriesSnapshotFile.zigzag;
+
+/**
+ * Embedded file store of crypto ticks partitioned by time: {@code $storePath/$SYMBOL/yyyy-MM-dd.ticks},
+ * one file per UTC day or month named after its first day. Range reads open only partitions overlapping the range.
+ * <p>
+ * Partition layout (big-endian): magic and format version followed by blocks of ticks. A block holds its payload length,
+ * then scale, tick count, newest timestamp and per tick zigzag varint deltas of timestamp and unscaled price to the previous tick,
+ * and a CRC32 of the payload. Ticks not older than the stored ones are appended to the partition as a new block,
+ * so live ingest writes only new ticks. Older ticks are merged by rewriting the partition as a single block to a temporary file
+ * moved in place, which also compacts partitions of more than {@value #MAX_BLOCKS} blocks.
+ * A block torn by a crash during append is ignored by readers and overwritten by the next append.
+ */
+class TickPartitionStore {
+
+    static final int MAGIC = 0x43545046;
+    static final byte VERSION = 2;
+    static final String EXTENSION = ".ticks";
+    static final int MAX_BLOCKS = 256;
+
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final int BLOCK_HEADER_SIZE = 1 + Integer.BYTES + Long.BYTES;
+
+    /**
+     * End of the last complete block of a partition, its newest timestamp and block count
+     */
+    private static final class PartitionTail {
+        private final long length;
+        private final long lastTimestamp;
+        private final int blocks;
+
+        private PartitionTail(long length, long lastTimestamp, int blocks) {
+            this.length = length;
+            this.lastTimestamp = lastTimestamp;
+            this.blocks = blocks;
+        }
+    }
+
+    private final Path storePath;
+    private final TickStoreConfig.Partitioning partitioning;
+    // accessed while holding the store lock only
+    private final Map<Path, PartitionTail> tails = new HashMap<>();
+
+    TickPartitionStore(Path storePath, TickStoreConfig.Partitioning partitioning) {
+        this.storePath = storePath;
+        this.partitioning = partitioning;
+    }
+
+    /**
+     * @return first days of stored partitions of provided crypto in ascending order
+     */
+    List<LocalDate> getPartitions(String symbol) throws IOException {
+        var directory = storePath.resolve(symbol);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> parsePartition(name.substring(0, name.length() - EXTENSION.length())))
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return timestamp of the newest stored tick of provided crypto, {@link Long#MIN_VALUE} if there is none
+     */
+    synchronized long getLastTimestamp(String symbol) throws IOException {
+        var partitions = getPartitions(symbol);
+        for (var i = partitions.size() - 1; i >= 0; i--) {
+            var tail = tailOf(getPartitionPath(symbol, partitions.get(i)));
+            if (tail.blocks > 0) {
+                return tail.lastTimestamp;
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Reads ticks of provided crypto within [from, to) epoch-millis, skipping partitions outside of the range
+     * @param target - columns to add ticks to, in ascending timestamp order
+     * @return number of partitions read
+     */
+    int read(String symbol, long from, long to, PriceColumns target) throws IOException {
+        var read = 0;
+        for (var partition : getPartitions(symbol)) {
+            if (toEpochMilli(partition) < to && toEpochMilli(partitionEnd(partition)) > from) {
+                readPartition(getPartitionPath(symbol, partition), from, to, target);
+                read++;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Stores provided ticks in the partitions they belong to: appended if not older than the stored ticks of a partition,
+     * merged otherwise. Ticks with equal timestamps are kept after the stored ones
+     * @param ticks - parsed ticks of the crypto
+     */
+    synchronized void write(String symbol, PriceColumns ticks) throws IOException {
+        ticks.finish();
+        var from = 0;
+        while (from < ticks.size()) {
+            var partition = partitionOf(ticks.getTimestamp(from));
+            var end = toEpochMilli(partitionEnd(partition));
+            var to = from;
+            while (to < ticks.size() && ticks.getTimestamp(to) < end) {
+                to++;
+            }
+            var path = getPartitionPath(symbol, partition);
+            var tail = Files.exists(path) ? tailOf(path) : null;
+            if (tail != null && ticks.getTimestamp(from) >= tail.lastTimestamp && tail.blocks < MAX_BLOCKS) {
+                appendBlock(path, tail, ticks, from, to);
+            } else {
+                var merged = new PriceColumns(to - from);
+                if (tail != null) {
+                    readPartition(path, Long.MIN_VALUE, Long.MAX_VALUE, merged);
+                }
+                for (var i = from; i < to; i++) {
+                    merged.add(ticks.getTimestamp(i), ticks.getUnscaledPrice(i), ticks.getScale());
+                }
+                writePartition(path, merged.finish());
+            }
+            from = to;
+        }
+    }
+
+    LocalDate partitionOf(long timestamp) {
+        var date = LocalDate.ofEpochDay(Math.floorDiv(timestamp, 86_400_000L));
+        return partitioning == TickStoreConfig.Partitioning.DAY ? date : date.withDayOfMonth(1);
+    }
+
+    private LocalDate partitionEnd(LocalDate partition) {
+        return partitioning == TickStoreConfig.Partitioning.DAY ? partition.plusDays(1) : partition.plusMonths(1);
+    }
+
+    private Path getPartitionPath(String symbol, LocalDate partition) {
+        return storePath.resolve(symbol).resolve(partition + EXTENSION);
+    }
+
+    private PartitionTail tailOf(Path path) throws IOException {
+        var tail = tails.get(path);
+        if (tail == null) {
+            tail = scanPartition(path);
+            tails.put(path, tail);
+        }
+        return tail;
+    }
+
+    private void writePartition(Path path, PriceColumns ticks) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        var tempFile = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.write(encodeBlock(ticks, 0, ticks.size()));
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tails.put(path, scanPartition(path));
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Writes ticks within [from, to) as a new block right after the last complete block, overwriting a torn one
+     */
+    private void appendBlock(Path path, PartitionTail tail, PriceColumns ticks, int from, int to) throws IOException {
+        var block = encodeBlock(ticks, from, to);
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(tail.length);
+            var buffer = ByteBuffer.wrap(block);
+            var position = tail.length;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException ex) {
+            tails.remove(path);
+            throw ex;
+        }
+        tails.put(path, new PartitionTail(tail.length + block.length, ticks.getTimestamp(to - 1), tail.blocks + 1));
+    }
+
+    private static byte[] encodeBlock(PriceColumns ticks, int from, int to) throws IOException {
+        var payload = new ByteArrayOutputStream(BLOCK_HEADER_SIZE + (to - from) * 6);
+        var out = new DataOutputStream(payload);
+        out.writeByte(ticks.getScale());
+        out.writeInt(to - from);
+        out.writeLong(to > from ? ticks.getTimestamp(to - 1) : Long.MIN_VALUE);
+        var previousTimestamp = 0L;
+        var previousPrice = 0L;
+        for (var i = from; i < to; i++) {
+            writeVarLong(out, zigzag(ticks.getTimestamp(i) - previousTimestamp));
+            writeVarLong(out, zigzag(ticks.getUnscaledPrice(i) - previousPrice));
+            previousTimestamp = ticks.getTimestamp(i);
+            previousPrice = ticks.getUnscaledPrice(i);
+        }
+        var checksum = new CRC32();
+        checksum.update(payload.toByteArray());
+        var block = new ByteArrayOutputStream(Integer.BYTES * 2 + payload.size());
+        var blockOut = new DataOutputStream(block);
+        blockOut.writeInt(payload.size());
+        payload.writeTo(blockOut);
+        blockOut.writeInt((int) checksum.getValue());
+        return block.toByteArray();
+    }
+
+    /**
+     * @return tail of the partition after verifying all complete blocks
+     */
+    private static PartitionTail scanPartition(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = openPartition(channel, path);
+            var lastTimestamp = Long.MIN_VALUE;
+            var blocks = 0;
+            ByteBuffer payload;
+            while ((payload = nextBlock(buffer, path)) != null) {
+                payload.get();
+                if (payload.getInt() > 0) {
+                    lastTimestamp = payload.getLong();
+                }
+                blocks++;
+            }
+            return new PartitionTail(buffer.position(), lastTimestamp, blocks);
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupted partition: " + path, ex);
+        }
+    }
+
+    /**
+     * @throws IOException if the partition can't be read, is corrupted or has unsupported format version
+     */
+    private static void readPartition(Path path, long from, long to, PriceColumns target) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = openPartition(channel, path);
+            ByteBuffer payload;
+            while ((payload = nextBlock(buffer, path)) != null) {
+                var scale = payload.get();
+                var size = payload.getInt();
+                if (payload.getLong() < from) {
+                    continue;
+                }
+                var timestamp = 0L;
+                var price = 0L;
+                for (var i = 0; i < size; i++) {
+                    timestamp += unzigzag(readVarLong(payload));
+                    price += unzigzag(readVarLong(payload));
+                    if (timestamp >= to) {
+                        return;
+                    }
+                    if (timestamp >= from) {
+                        target.add(timestamp, price, scale);
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupted partition: " + path, ex);
+        }
+    }
+
+    private static ByteBuffer openPartition(FileChannel channel, Path path) throws IOException {
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a tick partition: " + path);
+        }
+        var version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported partition version " + version + ": " + path);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return verified payload of the next block, {@code null} at the end of the partition or at a torn block
+     */
+    private static ByteBuffer nextBlock(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        var length = buffer.getInt(buffer.position());
+        if (length < BLOCK_HEADER_SIZE) {
+            throw new IOException("Invalid block length " + length + ": " + path);
+        }
+        if (buffer.remaining() < Integer.BYTES * 2L + length) {
+            return null;
+        }
+        var payload = buffer.duplicate().position(buffer.position() + Integer.BYTES).limit(buffer.position() + Integer.BYTES + length);
+        var checksum = new CRC32();
+        checksum.update(payload.duplicate());
+        if ((int) checksum.getValue() != buffer.getInt(payload.limit())) {
+            throw new IOException("Partition checksum mismatch: " + path);
+        }
+        buffer.position(payload.limit() + Integer.BYTES);
+        return payload.slice();
+    }
+
+    private static LocalDate parsePartition(String name) {
+        try {
+            return LocalDate.parse(name);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static long toEpochMilli(LocalDate date) {
+        return date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,64 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the embedded {@link TickPartitionStore}, when enabled {@link CryptoStatsTickStoreDao}
+ * replaces {@link CryptoStatsInMemoryDao}. Supported cryptos and CSV files to import are still defined in {@link CSVDaoConfig}
+ */
+@Component
+@ConfigurationProperties("tick-store-config")
+public class TickStoreConfig {
+    public static final String ENABLED_PROPERTY = "tick-store-config.enabled";
+
+    /**
+     * Time span of ticks kept in one partition file, must not be changed for an existing store
+     */
+    public enum Partitioning {
+        DAY, MONTH
+    }
+
+    private boolean enabled;
+    private Path storePath;
+    private Partitioning partitioning = Partitioning.MONTH;
+    private boolean importCsv = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getStorePath() {
+        return storePath;
+    }
+
+    public void setStorePath(Path storePath) {
+        this.storePath = storePath;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    /**
+     * @return whether ticks of CSV files newer than the stored ones are imported on start,
+     *          with {@code csv-dao-config.watchForUpdates} enabled {@link CSVDatasourceWatcher} imports them instead
+     */
+    public boolean isImportCsv() {
+        return importCsv;
+    }
+
+    public void setImportCsv(boolean importCsv) {
+        this.importCsv = importCsv;
+    }
+}
@@ -0,0 +1,248 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Hierarchical hour/day/month (UTC) rollups of a {@link CryptoPriceSeries}.
+ * Every bucket holds its tick range and min and max price,
+ * so a tick range is aggregated from a few precomputed buckets plus raw ticks at the edges.
+ * Instances are immutable snapshots; only the last (open) bucket of a level changes on extension
+ * and it is kept outside the shared arrays.
+ */
+final class CryptoPriceRollups {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int HOUR = 0;
+    private static final int DAY = 1;
+    private static final int MONTH = 2;
+
+    private static final CryptoPriceRollups EMPTY = new CryptoPriceRollups(new Level[] {Level.EMPTY, Level.EMPTY, Level.EMPTY}, 0);
+
+    private final Level[] levels;
+    private final int size;
+
+    private CryptoPriceRollups(Level[] levels, int size) {
+        this.levels = levels;
+        this.size = size;
+    }
+
+    static CryptoPriceRollups build(TickChunks ticks, int size) {
+        return EMPTY.extend(ticks, size);
+    }
+
+    /**
+     * @param ticks - ticks of the series, first {@link #size} ticks must be the ones this rollups were built from
+     *                 and have the same scale
+     * @param newSize - number of ticks of the extended series, appended ticks must not be older than the previous ones
+     * @return rollups covering ticks [0, newSize)
+     */
+    CryptoPriceRollups extend(TickChunks ticks, int newSize) {
+        if (newSize == size) {
+            return this;
+        }
+        var builders = new LevelBuilder[levels.length];
+        for (var level = 0; level < levels.length; level++) {
+            builders[level] = new LevelBuilder(levels[level]);
+        }
+        var lastDay = Long.MIN_VALUE;
+        var monthKey = 0L;
+        for (var i = size; i < newSize; i++) {
+            var timestamp = ticks.timestamp(i);
+            var price = ticks.price(i);
+            var day = Math.floorDiv(timestamp, DAY_MILLIS);
+            if (day != lastDay) {
+                var date = LocalDate.ofEpochDay(day);
+                monthKey = date.getYear() * 12L + date.getMonthValue() - 1;
+                lastDay = day;
+            }
+            builders[HOUR].add(Math.floorDiv(timestamp, HOUR_MILLIS), i, price);
+            builders[DAY].add(day, i, price);
+            builders[MONTH].add(monthKey, i, price);
+        }
+        var extended = new Level[levels.length];
+        for (var level = 0; level < levels.length; level++) {
+            extended[level] = builders[level].build();
+        }
+        return new CryptoPriceRollups(extended, newSize);
+    }
+
+    /**
+     * Aggregates ticks [from, to) combining the coarsest buckets fully inside the range
+     * and descending to finer levels and raw ticks only for the partial edges
+     */
+    SeriesAggregate aggregate(TickChunks ticks, int from, int to) {
+        var aggregate = new SeriesAggregate();
+        aggregate(MONTH, ticks, from, to, aggregate);
+        return aggregate;
+    }
+
+    private void aggregate(int level, TickChunks ticks, int from, int to, SeriesAggregate aggregate) {
+        if (from >= to) {
+            return;
+        }
+        if (level < 0) {
+            scan(ticks, from, to, aggregate);
+            return;
+        }
+        var buckets = levels[level];
+        var first = buckets.firstBucketStartingAtOrAfter(from);
+        if (first == buckets.count() || end(buckets, first) > to) {
+            aggregate(level - 1, ticks, from, to, aggregate);
+            return;
+        }
+        aggregate(level - 1, ticks, from, buckets.start(first), aggregate);
+        var bucket = first;
+        for (; bucket < buckets.count() && end(buckets, bucket) <= to; bucket++) {
+            aggregate.add(buckets.min(bucket), buckets.max(bucket), buckets.start(bucket));
+        }
+        aggregate(level - 1, ticks, end(buckets, bucket - 1), to, aggregate);
+    }
+
+    private int end(Level buckets, int bucket) {
+        return bucket + 1 < buckets.count() ? buckets.start(bucket + 1) : size;
+    }
+
+    private static void scan(TickChunks ticks, int from, int to, SeriesAggregate aggregate) {
+        var min = ticks.price(from);
+        var max = min;
+        for (var i = from + 1; i < to; i++) {
+            var price = ticks.price(i);
+            if (price > max) {
+                max = price;
+            }
+            if (price < min) {
+                min = price;
+            }
+        }
+        aggregate.add(min, max, from);
+    }
+
+    /**
+     * Buckets of one level: closed buckets live in arrays, the last bucket is kept in fields
+     */
+    private static final class Level {
+        private static final Level EMPTY = new Level(new long[0], new int[0], new long[0], new long[0], 0,
+                                                     0, 0, 0, 0, false);
+
+        private final long[] keys;
+        private final int[] starts;
+        private final long[] mins;
+        private final long[] maxs;
+        private final int closed;
+        private final long openKey;
+        private final int openStart;
+        private final long openMin;
+        private final long openMax;
+        private final boolean hasOpen;
+
+        private Level(long[] keys, int[] starts, long[] mins, long[] maxs, int closed,
+                      long openKey, int openStart, long openMin, long openMax, boolean hasOpen) {
+            this.keys = keys;
+            this.starts = starts;
+            this.mins = mins;
+            this.maxs = maxs;
+            this.closed = closed;
+            this.openKey = openKey;
+            this.openStart = openStart;
+            this.openMin = openMin;
+            this.openMax = openMax;
+            this.hasOpen = hasOpen;
+        }
+
+        int count() {
+            return hasOpen ? closed + 1 : closed;
+        }
+
+        int start(int bucket) {
+            return bucket < closed ? starts[bucket] : openStart;
+        }
+
+        long min(int bucket) {
+            return bucket < closed ? mins[bucket] : openMin;
+        }
+
+        long max(int bucket) {
+            return bucket < closed ? maxs[bucket] : openMax;
+        }
+
+        int firstBucketStartingAtOrAfter(int index) {
+            var low = 0;
+            var high = count();
+            while (low < high) {
+                var mid = (low + high) >>> 1;
+                if (start(mid) < index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Extends a {@link Level} writing closed buckets only past the closed buckets of the source level
+     */
+    private static final class LevelBuilder {
+        private long[] keys;
+        private int[] starts;
+        private long[] mins;
+        private long[] maxs;
+        private int closed;
+        private long openKey;
+        private int openStart;
+        private long openMin;
+        private long openMax;
+        private boolean hasOpen;
+
+        private LevelBuilder(Level level) {
+            keys = level.keys;
+            starts = level.starts;
+            mins = level.mins;
+            maxs = level.maxs;
+            closed = level.closed;
+            openKey = level.openKey;
+            openStart = level.openStart;
+            openMin = level.openMin;
+            openMax = level.openMax;
+            hasOpen = level.hasOpen;
+        }
+
+        private void add(long key, int index, long price) {
+            if (hasOpen && key == openKey) {
+                openMin = Math.min(openMin, price);
+                openMax = Math.max(openMax, price);
+                return;
+            }
+            if (hasOpen) {
+                close();
+            }
+            hasOpen = true;
+            openKey = key;
+            openStart = index;
+            openMin = price;
+            openMax = price;
+        }
+
+        private void close() {
+            if (closed == keys.length) {
+                var capacity = Math.max(16, closed + (closed >> 1));
+                keys = Arrays.copyOf(keys, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                mins = Arrays.copyOf(mins, capacity);
+                maxs = Arrays.copyOf(maxs, capacity);
+            }
+            keys[closed] = openKey;
+            starts[closed] = openStart;
+            mins[closed] = openMin;
+            maxs[closed] = openMax;
+            closed++;
+        }
+
+        private Level build() {
+            return new Level(keys, starts, mins, maxs, closed, openKey, openStart, openMin, openMax, hasOpen);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
+
+import java.util.List;
+
+/**
+ * Columnar in-memory price history of a single crypto.
+ * Ticks are kept sorted by timestamp in two chunked primitive columns ({@link TickChunks}):
+ * epoch-millis timestamps and prices scaled by {@code 10^scale},
+ * accompanied by hour/day/month {@link CryptoPriceRollups} for fast range aggregation.
+ * Instances are immutable snapshots: {@link #append(PriceColumns)} returns a new series
+ * and never changes ticks visible through the current one, see {@link LivePriceSeries} for concurrent use.
+ */
+public final class CryptoPriceSeries {
+
+    private final String symbol;
+    private final TickChunks ticks;
+    private final boolean distinctTimestamps;
+    private final int scale;
+    private final int size;
+    private final CryptoPriceRollups rollups;
+
+    /**
+     * @param symbol - crypto symbol the series belongs to
+     * @param timestamps - epoch-millis timestamps sorted in ascending order
+     * @param prices - unscaled prices, i.e. price * 10^scale
+     * @param scale - number of fraction digits of every price in the series
+     * @param size - number of ticks stored in the columns
+     */
+    public CryptoPriceSeries(String symbol, long[] timestamps, long[] prices, int scale, int size) {
+        this(symbol, TickChunks.of(timestamps, prices, size), scale, size, isStrictlyIncreasing(timestamps, 0, size));
+    }
+
+    private CryptoPriceSeries(String symbol, TickChunks ticks, int scale, int size, boolean distinctTimestamps) {
+        this(symbol, ticks, scale, size, distinctTimestamps, CryptoPriceRollups.build(ticks, size));
+    }
+
+    private CryptoPriceSeries(String symbol, TickChunks ticks, int scale, int size, boolean distinctTimestamps, CryptoPriceRollups rollups) {
+        this.symbol = symbol;
+        this.ticks = ticks;
+        this.distinctTimestamps = distinctTimestamps;
+        this.scale = scale;
+        this.size = size;
+        this.rollups = rollups;
+    }
+
+    public static CryptoPriceSeries empty(String symbol) {
+        return new CryptoPriceSeries(symbol, TickChunks.EMPTY, 0, 0, true);
+    }
+
+    /**
+     * Creates series taking over the arrays of provided columns, so columns must not be modified afterwards
+     */
+    public static CryptoPriceSeries of(String symbol, PriceColumns columns) {
+        columns.finish();
+        return new CryptoPriceSeries(symbol, columns.timestamps(), columns.prices(), columns.getScale(), columns.size());
+    }
+
+    /**
+     * Creates new series containing ticks of this series and provided ticks.
+     * Ticks newer than the last one are written into the spare capacity of the current chunks,
+     * older ones are merged into new chunks. Must be called by a single writer on the latest series.
+     * @param newTicks - parsed ticks to append
+     * @return new series snapshot
+     */
+    public CryptoPriceSeries append(PriceColumns newTicks) {
+        newTicks.finish();
+        if (newTicks.isEmpty()) {
+            return this;
+        }
+        var newScale = Math.max(scale, newTicks.getScale());
+        newTicks.rescaleTo(newScale);
+        var newSize = Math.addExact(size, newTicks.size());
+        if (newScale == scale && (size == 0 || newTicks.getTimestamp(0) >= ticks.timestamp(size - 1))) {
+            var target = ticks.withCapacity(newSize);
+            target.copyFrom(newTicks.timestamps(), newTicks.prices(), 0, size, newTicks.size());
+            var distinct = distinctTimestamps
+                    && (size == 0 || newTicks.getTimestamp(0) > ticks.timestamp(size - 1))
+                    && isStrictlyIncreasing(newTicks.timestamps(), 0, newTicks.size());
+            return new CryptoPriceSeries(symbol, target, newScale, newSize, distinct, rollups.extend(target, newSize));
+        }
+        var currentTimestamps = new long[size];
+        var currentPrices = new long[size];
+        ticks.copyTo(currentTimestamps, currentPrices, size);
+        if (newScale != scale) {
+            rescale(currentPrices, newScale - scale);
+        }
+        var targetTimestamps = new long[newSize];
+        var targetPrices = new long[newSize];
+        PriceColumns.merge(currentTimestamps, currentPrices, 0, size,
+                           newTicks.timestamps(), newTicks.prices(), 0, newTicks.size(),
+                           targetTimestamps, targetPrices, 0);
+        return new CryptoPriceSeries(symbol, targetTimestamps, targetPrices, newScale, newSize);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return ticks.timestamp(index);
+    }
+
+    public long getUnscaledPrice(int index) {
+        return ticks.price(index);
+    }
+
+    /**
+     * @param timestamp - epoch-millis to search for
+     * @return index of the first tick not older than provided timestamp, or {@link #size()} if there is no such tick
+     */
+    public int indexOf(long timestamp) {
+        var low = 0;
+        var high = size;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (ticks.timestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return whether no two ticks share a timestamp, i.e. ticks were deduplicated on ingest
+     */
+    public boolean hasDistinctTimestamps() {
+        return distinctTimestamps;
+    }
+
+    /**
+     * Aggregates ticks [fromIndex, toIndex) using precomputed rollups.
+     * Ticks are sorted, so the oldest one is the first of the range and the newest one is the last of the range,
+     * or the first one sharing its timestamp if timestamps are not distinct
+     * @return aggregate of the range, empty if the range is empty
+     */
+    public SeriesAggregate aggregate(int fromIndex, int toIndex) {
+        var aggregate = rollups.aggregate(ticks, fromIndex, toIndex);
+        if (!aggregate.isEmpty()) {
+            aggregate.setNewestIndex(distinctTimestamps ? toIndex - 1 : Math.max(fromIndex, indexOf(ticks.timestamp(toIndex - 1))));
+        }
+        return aggregate;
+    }
+
+    /**
+     * @return read-only list view of the whole series, {@link CryptoStat} instances are created on access
+     */
+    public List<CryptoStat> asList() {
+        return new CryptoStatSeriesView(this, 0, size);
+    }
+
+    /**
+     * @return read-only list view of ticks within [fromTimestamp, toTimestamp) epoch-millis, found by binary search
+     */
+    public List<CryptoStat> asList(long fromTimestamp, long toTimestamp) {
+        var from = indexOf(fromTimestamp);
+        return new CryptoStatSeriesView(this, from, Math.max(from, indexOf(toTimestamp)));
+    }
+
+    private static boolean isStrictlyIncreasing(long[] timestamps, int from, int to) {
+        for (var i = from + 1; i < to; i++) {
+            if (timestamps[i - 1] >= timestamps[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void rescale(long[] prices, int scaleIncrease) {
+        var factor = FixedPointPrice.pow10(scaleIncrease);
+        for (var i = 0; i < prices.length; i++) {
+            prices[i] = Math.multiplyExact(prices[i], factor);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link java.util.List} of {@link CryptoStat} backed by the columns of {@link CryptoPriceSeries}.
+ * Elements are materialized lazily on {@link #get(int)}, so holding the view costs no per-row memory.
+ */
+public class CryptoStatSeriesView extends AbstractList<CryptoStat> implements RandomAccess {
+
+    private final CryptoPriceSeries series;
+    private final int fromIndex;
+    private final int toIndex;
+
+    CryptoStatSeriesView(CryptoPriceSeries series, int fromIndex, int toIndex) {
+        this.series = series;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    @Override
+    public CryptoStat get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        var seriesIndex = fromIndex + index;
+        return new CryptoStat(toLocalDateTime(series.getTimestamp(seriesIndex)),
+                                series.getSymbol(),
+                                series.getUnscaledPrice(seriesIndex),
+                                series.getScale());
+    }
+
+    @Override
+    public int size() {
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * @param fromTimestamp - epoch-millis, inclusive
+     * @param toTimestamp - epoch-millis, exclusive
+     * @return view of ticks within [fromTimestamp, toTimestamp), found by binary search
+     */
+    public CryptoStatSeriesView subView(long fromTimestamp, long toTimestamp) {
+        var from = Math.max(fromIndex, series.indexOf(fromTimestamp));
+        var to = Math.min(toIndex, series.indexOf(toTimestamp));
+        return from < to ? new CryptoStatSeriesView(series, from, to) : new CryptoStatSeriesView(series, fromIndex, fromIndex);
+    }
+
+    /**
+     * @return series backing this view, elements of the view are series ticks in range [fromIndex, toIndex)
+     */
+    public CryptoPriceSeries getSeries() {
+        return series;
+    }
+
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    @Override
+    public CryptoStatSeriesView subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size());
+        }
+        return new CryptoStatSeriesView(series, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                                            (int) Math.floorMod(epochMillis, 1000L) * 1_000_000,
+                                            ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,41 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+/**
+ * Holder of the latest {@link CryptoPriceSeries} of a crypto shared by a single writer and many readers.
+ * Readers take a consistent snapshot with one volatile read and never block;
+ * in-order appends write ticks past the size of the published snapshot into shared chunks
+ * and then publish the new snapshot, so queries running on older snapshots are never affected.
+ * Writers are serialized on this holder only, appends to different cryptos do not contend.
+ */
+public final class LivePriceSeries {
+
+    private volatile CryptoPriceSeries snapshot;
+
+    public LivePriceSeries(CryptoPriceSeries snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return latest published series, safe to query while new ticks are appended
+     */
+    public CryptoPriceSeries snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Appends provided ticks and publishes the resulting series
+     * @return published series
+     */
+    public synchronized CryptoPriceSeries append(PriceColumns ticks) {
+        var appended = snapshot.append(ticks);
+        snapshot = appended;
+        return appended;
+    }
+
+    /**
+     * Publishes provided series in place of the current one
+     */
+    public synchronized void replace(CryptoPriceSeries series) {
+        snapshot = series;
+    }
+}
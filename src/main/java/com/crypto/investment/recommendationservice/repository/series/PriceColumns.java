@@ -0,0 +1,229 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
+
+import java.util.Arrays;
+
+/**
+ * Growable pair of primitive columns (timestamp, unscaled price) used to collect parsed ticks
+ * before they are turned into or appended to a {@link CryptoPriceSeries}
+ */
+public final class PriceColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] timestamps;
+    private long[] prices;
+    private byte[] scales;
+    private int size;
+    private int scale;
+    private boolean sorted = true;
+    private boolean finished;
+
+    public PriceColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public PriceColumns(int capacity) {
+        timestamps = new long[Math.max(capacity, 1)];
+        prices = new long[Math.max(capacity, 1)];
+        scales = new byte[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @param timestamp - epoch-millis of the tick
+     * @param unscaledPrice - price without decimal point, i.e. price * 10^fractionDigits
+     * @param fractionDigits - number of fraction digits of the parsed price
+     */
+    public void add(long timestamp, long unscaledPrice, int fractionDigits) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size << 1);
+            prices = Arrays.copyOf(prices, size << 1);
+            scales = Arrays.copyOf(scales, size << 1);
+        }
+        sorted &= size == 0 || timestamps[size - 1] <= timestamp;
+        timestamps[size] = timestamp;
+        prices[size] = unscaledPrice;
+        scales[size] = (byte) fractionDigits;
+        scale = Math.max(scale, fractionDigits);
+        size++;
+        finished = false;
+    }
+
+    /**
+     * Appends all ticks of provided columns after the ticks of this columns
+     */
+    public void addAll(PriceColumns other) {
+        if (other.size == 0) {
+            return;
+        }
+        var newSize = size + other.size;
+        if (newSize > timestamps.length) {
+            var capacity = Math.max(newSize, size << 1);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+        }
+        sorted &= other.sorted && (size == 0 || timestamps[size - 1] <= other.timestamps[0]);
+        System.arraycopy(other.timestamps, 0, timestamps, size, other.size);
+        System.arraycopy(other.prices, 0, prices, size, other.size);
+        System.arraycopy(other.scales, 0, scales, size, other.size);
+        scale = Math.max(scale, other.scale);
+        size = newSize;
+        finished = false;
+    }
+
+    /**
+     * Brings all prices to the common scale and sorts ticks by timestamp keeping the insertion order of equal timestamps
+     * @return this columns
+     */
+    public PriceColumns finish() {
+        if (finished) {
+            return this;
+        }
+        rescaleTo(scale);
+        if (!sorted) {
+            sortByTimestamp(timestamps, prices, size);
+            sorted = true;
+        }
+        finished = true;
+        return this;
+    }
+
+    /**
+     * Brings all prices to provided scale, prices with more fraction digits are rounded half-even
+     */
+    public void rescaleTo(int newScale) {
+        for (var i = 0; i < size; i++) {
+            if (scales[i] != newScale) {
+                prices[i] = FixedPointPrice.rescale(prices[i], scales[i], newScale);
+                scales[i] = (byte) newScale;
+            }
+        }
+        scale = newScale;
+    }
+
+    /**
+     * Removes ticks older than the newest tick before them in insertion order, must be called before {@link #finish()} sorts them
+     * @param lastStoredTimestamp - timestamp of the newest tick already stored, older ticks are removed as well
+     * @return number of removed ticks
+     */
+    public int removeOutOfOrder(long lastStoredTimestamp) {
+        var newest = lastStoredTimestamp;
+        var kept = 0;
+        for (var i = 0; i < size; i++) {
+            if (timestamps[i] >= newest) {
+                newest = timestamps[i];
+                move(i, kept++);
+            }
+        }
+        sorted = true;
+        return truncate(kept);
+    }
+
+    /**
+     * Keeps a single tick per timestamp of sorted columns
+     * @param lastStoredTimestamp - timestamp of the newest tick already stored, ticks with the same timestamp are removed
+     * @param keepLast - whether the last tick in insertion order is kept instead of the first one
+     * @return number of removed ticks
+     */
+    public int removeDuplicates(long lastStoredTimestamp, boolean keepLast) {
+        finish();
+        var kept = 0;
+        for (var i = 0; i < size; i++) {
+            if (timestamps[i] == lastStoredTimestamp) {
+                continue;
+            }
+            if (kept > 0 && timestamps[kept - 1] == timestamps[i]) {
+                if (keepLast) {
+                    move(i, kept - 1);
+                }
+            } else {
+                move(i, kept++);
+            }
+        }
+        return truncate(kept);
+    }
+
+    private void move(int from, int to) {
+        timestamps[to] = timestamps[from];
+        prices[to] = prices[from];
+        scales[to] = scales[from];
+    }
+
+    private int truncate(int newSize) {
+        var removed = size - newSize;
+        size = newSize;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public long getUnscaledPrice(int index) {
+        return prices[index];
+    }
+
+    long[] timestamps() {
+        return timestamps;
+    }
+
+    long[] prices() {
+        return prices;
+    }
+
+    /**
+     * Stable bottom-up merge sort of both columns by timestamp
+     */
+    static void sortByTimestamp(long[] timestamps, long[] prices, int size) {
+        var tmpTimestamps = new long[size];
+        var tmpPrices = new long[size];
+        for (var width = 1; width < size; width <<= 1) {
+            for (var left = 0; left < size - width; left += width << 1) {
+                var mid = left + width;
+                var right = Math.min(left + (width << 1), size);
+                merge(timestamps, prices, left, mid, timestamps, prices, mid, right, tmpTimestamps, tmpPrices, left);
+                System.arraycopy(tmpTimestamps, left, timestamps, left, right - left);
+                System.arraycopy(tmpPrices, left, prices, left, right - left);
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted column ranges into target columns, taking left element first on equal timestamps
+     */
+    static void merge(long[] leftTimestamps, long[] leftPrices, int leftFrom, int leftTo,
+                      long[] rightTimestamps, long[] rightPrices, int rightFrom, int rightTo,
+                      long[] targetTimestamps, long[] targetPrices, int targetFrom) {
+        var i = leftFrom;
+        var j = rightFrom;
+        var k = targetFrom;
+        while (i < leftTo && j < rightTo) {
+            if (rightTimestamps[j] < leftTimestamps[i]) {
+                targetTimestamps[k] = rightTimestamps[j];
+                targetPrices[k++] = rightPrices[j++];
+            } else {
+                targetTimestamps[k] = leftTimestamps[i];
+                targetPrices[k++] = leftPrices[i++];
+            }
+        }
+        System.arraycopy(leftTimestamps, i, targetTimestamps, k, leftTo - i);
+        System.arraycopy(leftPrices, i, targetPrices, k, leftTo - i);
+        k += leftTo - i;
+        System.arraycopy(rightTimestamps, j, targetTimestamps, k, rightTo - j);
+        System.arraycopy(rightPrices, j, targetPrices, k, rightTo - j);
+    }
+}
@@ -0,0 +1,51 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+/**
+ * Aggregate of a tick range of {@link CryptoPriceSeries}: min and max unscaled prices,
+ * index of the oldest tick and index of the first tick with the newest timestamp
+ */
+public final class SeriesAggregate {
+
+    private long minPrice = Long.MAX_VALUE;
+    private long maxPrice = Long.MIN_VALUE;
+    private int oldestIndex = -1;
+    private int newestIndex = -1;
+
+    SeriesAggregate() {
+    }
+
+    /**
+     * Adds aggregate of ticks newer than all ticks added before
+     */
+    void add(long min, long max, int oldest) {
+        minPrice = Math.min(minPrice, min);
+        maxPrice = Math.max(maxPrice, max);
+        if (oldestIndex < 0) {
+            oldestIndex = oldest;
+        }
+    }
+
+    void setNewestIndex(int newestIndex) {
+        this.newestIndex = newestIndex;
+    }
+
+    public boolean isEmpty() {
+        return oldestIndex < 0;
+    }
+
+    public long getMinPrice() {
+        return minPrice;
+    }
+
+    public long getMaxPrice() {
+        return maxPrice;
+    }
+
+    public int getOldestIndex() {
+        return oldestIndex;
+    }
+
+    public int getNewestIndex() {
+        return newestIndex;
+    }
+}
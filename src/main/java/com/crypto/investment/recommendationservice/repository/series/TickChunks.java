@@ -0,0 +1,104 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import java.util.Arrays;
+
+/**
+ * Timestamp and unscaled price columns split into chunks of {@value #CHUNK_SIZE} ticks.
+ * Only the first chunk is shorter while the series is small and grows by copying;
+ * further chunks are allocated full-size, so growing a long series never copies ticks, only the chunk directory.
+ * Instances are directories over chunks that may be shared with newer instances: a writer only ever writes
+ * past the size of published snapshots, so readers of a snapshot never see its ticks change.
+ */
+final class TickChunks {
+
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final TickChunks EMPTY = new TickChunks(new long[][] {new long[0]}, new long[][] {new long[0]});
+
+    private final long[][] timestamps;
+    private final long[][] prices;
+
+    private TickChunks(long[][] timestamps, long[][] prices) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+    }
+
+    /**
+     * Takes over provided columns if they fit into the first chunk, otherwise copies them into chunks
+     */
+    static TickChunks of(long[] timestamps, long[] prices, int size) {
+        if (size <= CHUNK_SIZE) {
+            return new TickChunks(new long[][] {timestamps}, new long[][] {prices});
+        }
+        var chunks = EMPTY.withCapacity(size);
+        chunks.copyFrom(timestamps, prices, 0, 0, size);
+        return chunks;
+    }
+
+    long timestamp(int index) {
+        return timestamps[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    long price(int index) {
+        return prices[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    int capacity() {
+        return timestamps.length == 1 ? Math.min(timestamps[0].length, CHUNK_SIZE) : timestamps.length << CHUNK_SHIFT;
+    }
+
+    /**
+     * @return this directory if it can hold {@code capacity} ticks, otherwise a new one sharing all full chunks of this one
+     */
+    TickChunks withCapacity(int capacity) {
+        if (capacity <= capacity()) {
+            return this;
+        }
+        var chunkCount = (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        var newTimestamps = Arrays.copyOf(timestamps, chunkCount);
+        var newPrices = Arrays.copyOf(prices, chunkCount);
+        var firstLength = chunkCount == 1
+                ? (int) Math.min(CHUNK_SIZE, Math.max(capacity, timestamps[0].length + ((long) timestamps[0].length >> 1)))
+                : CHUNK_SIZE;
+        if (timestamps[0].length < firstLength) {
+            newTimestamps[0] = Arrays.copyOf(timestamps[0], firstLength);
+            newPrices[0] = Arrays.copyOf(prices[0], firstLength);
+        }
+        for (var chunk = timestamps.length; chunk < chunkCount; chunk++) {
+            newTimestamps[chunk] = new long[CHUNK_SIZE];
+            newPrices[chunk] = new long[CHUNK_SIZE];
+        }
+        return new TickChunks(newTimestamps, newPrices);
+    }
+
+    /**
+     * Copies ticks [from, from + length) of provided columns to this chunks starting at {@code index}.
+     * Must only be called by the writer for indexes past the size of every published snapshot
+     */
+    void copyFrom(long[] sourceTimestamps, long[] sourcePrices, int from, int index, int length) {
+        while (length > 0) {
+            var chunk = index >>> CHUNK_SHIFT;
+            var offset = index & CHUNK_MASK;
+            var count = Math.min(length, CHUNK_SIZE - offset);
+            System.arraycopy(sourceTimestamps, from, timestamps[chunk], offset, count);
+            System.arraycopy(sourcePrices, from, prices[chunk], offset, count);
+            from += count;
+            index += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Copies ticks [0, size) into provided columns
+     */
+    void copyTo(long[] targetTimestamps, long[] targetPrices, int size) {
+        for (var index = 0; index < size; index += CHUNK_SIZE) {
+            var chunk = index >>> CHUNK_SHIFT;
+            var count = Math.min(CHUNK_SIZE, size - index);
+            System.arraycopy(timestamps[chunk], 0, targetTimestamps, index, count);
+            System.arraycopy(prices[chunk], 0, targetPrices, index, count);
+        }
+    }
+}
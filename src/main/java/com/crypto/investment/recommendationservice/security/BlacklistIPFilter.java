@@ -7,6 +7,8 @@ import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -14,24 +16,134 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Rejects requests from blacklisted addresses and CIDR ranges of {@code blacklist.ips} and the optional {@code blacklist.file}
+ * (one entry per line, {@code #} starts a comment). The file is reloaded on change without a restart,
+ * an invalid file keeps the previous blacklist. Blocked requests are logged at most once per {@code blacklist.log-interval-ms}
+ * together with the number of requests blocked since the previous warning
+ */
 @Component
 @Order(1)
 public class BlacklistIPFilter implements Filter {
     private static Logger LOGGER = LogManager.getLogger(BlacklistIPFilter.class);
 
-    @Value("${blacklist.ips}")
-    private Set<String> ips;
+    private final AtomicLong nextWarningTime = new AtomicLong();
+    private final LongAdder suppressedWarnings = new LongAdder();
+    private volatile IpPrefixTrie blacklist = IpPrefixTrie.EMPTY;
+    private WatchService watchService;
+
+    @Value("${blacklist.ips:}")
+    private Set<String> ips = Set.of();
+    @Value("${blacklist.file:#{null}}")
+    private Path file;
+    @Value("${blacklist.log-interval-ms:10000}")
+    private long logIntervalMillis = 10000;
+
+    @PostConstruct
+    public void start() throws IOException {
+        blacklist = load();
+        LOGGER.info("blacklisted " + blacklist.size() + " addresses and ranges");
+        if (file == null) {
+            return;
+        }
+        var directory = file.toAbsolutePath().getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        var watcherThread = new Thread(() -> watch(directory), "blacklist-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         var httpServletResponse = (HttpServletResponse) response;
-        if (ips.contains(request.getRemoteAddr())) {
-            LOGGER.warn("Unauthorized access by ip from blacklist(" + request.getRemoteAddr() + ")");
+        var remoteAddr = request.getRemoteAddr();
+        if (blacklist.contains(remoteAddr)) {
+            warnBlocked(remoteAddr);
             httpServletResponse.setStatus(HttpStatus.UNAUTHORIZED.value());
         } else {
             chain.doFilter(request, response);
         }
     }
+
+    /**
+     * Replaces the blacklist with the current entries of {@code blacklist.ips} and {@code blacklist.file},
+     * keeps the previous one if the file cannot be read or has invalid entries
+     */
+    void reload() {
+        try {
+            var reloaded = load();
+            blacklist = reloaded;
+            LOGGER.info("reloaded blacklist with " + reloaded.size() + " addresses and ranges from " + file);
+        } catch (IOException | IllegalArgumentException ex) {
+            LOGGER.error("error during reloading blacklist from " + file + ", keeping the previous one", ex);
+        }
+    }
+
+    private IpPrefixTrie load() throws IOException {
+        var entries = new ArrayList<>(ips);
+        if (file != null && Files.exists(file)) {
+            for (var line : Files.readAllLines(file)) {
+                var comment = line.indexOf('#');
+                entries.add(comment < 0 ? line : line.substring(0, comment));
+            }
+        }
+        return IpPrefixTrie.of(entries);
+    }
+
+    private void warnBlocked(String remoteAddr) {
+        var now = System.currentTimeMillis();
+        var next = nextWarningTime.get();
+        if (now < next || !nextWarningTime.compareAndSet(next, now + logIntervalMillis)) {
+            suppressedWarnings.increment();
+            return;
+        }
+        var suppressed = suppressedWarnings.sumThenReset();
+        LOGGER.warn("Unauthorized access by ip from blacklist(" + remoteAddr + ")"
+                    + (suppressed > 0 ? ", " + suppressed + " more blocked since the previous warning" : ""));
+    }
+
+    private void watch(Path directory) {
+        var fileName = file.getFileName();
+        try {
+            while (true) {
+                var key = watchService.take();
+                var changed = false;
+                for (var event : key.pollEvents()) {
+                    changed |= event.kind() == OVERFLOW || fileName.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    LOGGER.warn("blacklist directory is no longer accessible: " + directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            LOGGER.info("stopped watching " + file);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.crypto.investment.recommendationservice.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of a {@link RateLimitConfig.Limit} per client. A bucket is a single {@link AtomicLong} holding
+ * the theoretical arrival time of the next request (GCRA), i.e. the time the bucket is full again plus one refill interval,
+ * so taking a token is one compare-and-set and a full bucket needs no state at all.
+ * Buckets are kept in striped maps bounded per stripe; when a stripe is full its full buckets are evicted,
+ * and if every client of the stripe is being limited new clients of the stripe are denied until a bucket is full again,
+ * dropping a limited bucket instead would hand its client a fresh burst
+ */
+final class ClientRateLimiter {
+
+    private final String path;
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final Map<String, AtomicLong>[] stripes;
+    private final int stripeCapacity;
+
+    @SuppressWarnings("unchecked")
+    ClientRateLimiter(RateLimitConfig.Limit limit, int maxClients, int stripeCount) {
+        if (limit.getCapacity() < 1 || limit.getRefillPerSecond() <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit of " + limit.getPath() + ": capacity and refillPerSecond must be positive");
+        }
+        path = limit.getPath();
+        refillIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond()));
+        burstNanos = refillIntervalNanos * limit.getCapacity();
+        stripes = new Map[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (var i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        stripeCapacity = Math.max(1, maxClients / stripes.length);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Takes a token from the bucket of provided client
+     * @param now - {@link System#nanoTime()}
+     * @return {@code 0} if the request is allowed, otherwise nanoseconds until a token is available
+     */
+    long tryAcquire(String client, long now) {
+        var hash = client.hashCode();
+        var stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        var bucket = stripe.get(client);
+        if (bucket == null) {
+            if (stripe.size() >= stripeCapacity) {
+                var wait = evict(stripe, now);
+                if (wait > 0) {
+                    return wait;
+                }
+            }
+            bucket = stripe.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            var arrivalTime = bucket.get();
+            var next = (arrivalTime - now > 0 ? arrivalTime : now) + refillIntervalNanos;
+            var wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrivalTime, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return number of kept client buckets
+     */
+    int size() {
+        var size = 0;
+        for (var stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Evicts full buckets of the stripe, i.e. buckets with theoretical arrival time not after {@code now}
+     * @return {@code 0} if the stripe has room for a new bucket, otherwise nanoseconds until a bucket of the stripe is full
+     */
+    private long evict(Map<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (stripe.size() < stripeCapacity) {
+            return 0;
+        }
+        var wait = Long.MAX_VALUE;
+        for (var bucket : stripe.values()) {
+            wait = Math.min(wait, bucket.get() - now);
+        }
+        return wait == Long.MAX_VALUE ? 0 : Math.max(1, wait);
+    }
+}
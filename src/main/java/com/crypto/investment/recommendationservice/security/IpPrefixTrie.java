@@ -0,0 +1,374 @@
+package com.crypto.investment.recommendationservice.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of IPv4 and IPv6 addresses and CIDR ranges, e.g. {@code 10.0.0.0/8} or {@code 2001:db8::/32}.
+ * Addresses are packed into 128 bits, IPv4 ones as IPv4-mapped IPv6 addresses ({@code ::ffff:0:0/96}),
+ * and kept in a binary radix trie with path compression held in parallel primitive arrays,
+ * so a lookup visits at most one node per distinct stored prefix length on its path.
+ * {@link #contains(CharSequence)} parses the address in place and allocates nothing,
+ * entries are parsed by the same parser, so only address literals are accepted and nothing is resolved.
+ */
+final class IpPrefixTrie {
+
+    static final IpPrefixTrie EMPTY = new Builder().build();
+
+    private static final int ADDRESS_BITS = 128;
+    private static final int IPV4_BITS = 32;
+    private static final long IPV4_MAPPED_LOW = 0xffffL << 32;
+    private static final int NONE = -1;
+
+    private final long[] highs;
+    private final long[] lows;
+    private final int[] lengths;
+    private final int[] zeroChildren;
+    private final int[] oneChildren;
+    private final boolean[] terminals;
+    private final int root;
+    private final int size;
+    private final AddressConsumer lookup = this::contains;
+
+    private IpPrefixTrie(Builder builder) {
+        highs = Arrays.copyOf(builder.highs, builder.nodeCount);
+        lows = Arrays.copyOf(builder.lows, builder.nodeCount);
+        lengths = Arrays.copyOf(builder.lengths, builder.nodeCount);
+        zeroChildren = Arrays.copyOf(builder.zeroChildren, builder.nodeCount);
+        oneChildren = Arrays.copyOf(builder.oneChildren, builder.nodeCount);
+        terminals = Arrays.copyOf(builder.terminals, builder.nodeCount);
+        root = builder.root;
+        size = builder.size;
+    }
+
+    /**
+     * @param entries - addresses and CIDR ranges, blank entries are ignored
+     * @throws IllegalArgumentException if an entry is not an IPv4 or IPv6 address or range
+     */
+    static IpPrefixTrie of(Collection<String> entries) {
+        var builder = new Builder();
+        entries.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return number of distinct stored prefixes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param address - textual IPv4 or IPv6 address, as returned by {@code ServletRequest.getRemoteAddr()}
+     * @return whether the address is within any stored prefix, {@code false} for an unparsable address
+     */
+    boolean contains(CharSequence address) {
+        if (root == NONE) {
+            return false;
+        }
+        var end = indexOf(address, '%', 0, address.length());
+        return parse(address, end < 0 ? address.length() : end, lookup);
+    }
+
+    /**
+     * @return whether the 128-bit address is within any stored prefix
+     */
+    boolean contains(long high, long low) {
+        var node = root;
+        while (node != NONE) {
+            var length = lengths[node];
+            if (commonPrefixLength(high, low, highs[node], lows[node], length) < length) {
+                return false;
+            }
+            if (terminals[node]) {
+                return true;
+            }
+            node = length == ADDRESS_BITS ? NONE : bit(high, low, length) == 0 ? zeroChildren[node] : oneChildren[node];
+        }
+        return false;
+    }
+
+    /**
+     * Parses a textual IPv4 or IPv6 address of chars [0, end) without allocating
+     * @param consumer - gets the 128-bit address, IPv4 ones mapped to IPv6
+     * @return result of the consumer, {@code false} for an unparsable address
+     */
+    private static boolean parse(CharSequence address, int end, AddressConsumer consumer) {
+        if (indexOf(address, ':', 0, end) < 0) {
+            var ipv4 = parseIpv4(address, 0, end);
+            return ipv4 >= 0 && consumer.accept(0, IPV4_MAPPED_LOW | ipv4);
+        }
+        // 16-bit groups before "::" are shifted into head, groups after it into tail
+        long headHigh = 0, headLow = 0, tailHigh = 0, tailLow = 0;
+        var headGroups = 0;
+        var tailGroups = 0;
+        var compressed = end >= 2 && address.charAt(0) == ':' && address.charAt(1) == ':';
+        var i = compressed ? 2 : 0;
+        while (i < end) {
+            var groupEnd = indexOf(address, ':', i, end);
+            groupEnd = groupEnd < 0 ? end : groupEnd;
+            var embeddedIpv4 = groupEnd == end && indexOf(address, '.', i, end) >= 0;
+            var value = embeddedIpv4 ? parseIpv4(address, i, end) : parseHexGroup(address, i, groupEnd);
+            var groups = embeddedIpv4 ? 2 : 1;
+            if (value < 0 || headGroups + tailGroups + groups > 8) {
+                return false;
+            }
+            var shift = groups << 4;
+            if (compressed) {
+                tailHigh = (tailHigh << shift) | (tailLow >>> (64 - shift));
+                tailLow = (tailLow << shift) | value;
+                tailGroups += groups;
+            } else {
+                headHigh = (headHigh << shift) | (headLow >>> (64 - shift));
+                headLow = (headLow << shift) | value;
+                headGroups += groups;
+            }
+            if (groupEnd == end) {
+                break;
+            }
+            i = groupEnd + 1;
+            if (i == end) {
+                return false;
+            }
+            if (address.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            }
+        }
+        if (compressed ? headGroups + tailGroups > 7 : headGroups != 8) {
+            return false;
+        }
+        var shift = (8 - headGroups) << 4;
+        if (shift == ADDRESS_BITS) {
+            return consumer.accept(tailHigh, tailLow);
+        }
+        if (shift >= 64) {
+            return consumer.accept((headLow << (shift - 64)) | tailHigh, tailLow);
+        }
+        if (shift > 0) {
+            return consumer.accept((headHigh << shift) | (headLow >>> (64 - shift)) | tailHigh, (headLow << shift) | tailLow);
+        }
+        return consumer.accept(headHigh, headLow);
+    }
+
+    private static int indexOf(CharSequence s, char c, int from, int to) {
+        for (var i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return unsigned IPv4 address of dotted-decimal chars [from, to), {@code -1} if invalid
+     */
+    private static long parseIpv4(CharSequence s, int from, int to) {
+        long address = 0;
+        var octets = 0;
+        var octet = -1;
+        for (var i = from; i <= to; i++) {
+            var c = i == to ? '.' : s.charAt(i);
+            if (c == '.') {
+                if (octet < 0 || ++octets > 4) {
+                    return -1;
+                }
+                address = (address << 8) | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9' && octet != 0) {
+                octet = octet < 0 ? c - '0' : octet * 10 + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    /**
+     * @return value of 1-4 hex digits [from, to), {@code -1} if invalid
+     */
+    private static long parseHexGroup(CharSequence s, int from, int to) {
+        if (to <= from || to - from > 4) {
+            return -1;
+        }
+        long value = 0;
+        for (var i = from; i < to; i++) {
+            var digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int bit(long high, long low, int index) {
+        return (int) (index < 64 ? (high >>> (63 - index)) & 1 : (low >>> (127 - index)) & 1);
+    }
+
+    /**
+     * @return number of equal leading bits of two addresses, at most {@code maxLength}
+     */
+    private static int commonPrefixLength(long high1, long low1, long high2, long low2, int maxLength) {
+        var highDiff = high1 ^ high2;
+        var common = highDiff != 0 ? Long.numberOfLeadingZeros(highDiff) : 64 + Long.numberOfLeadingZeros(low1 ^ low2);
+        return Math.min(common, maxLength);
+    }
+
+    private static long maskHigh(long high, int length) {
+        return length >= 64 ? high : length == 0 ? 0 : high & (-1L << (64 - length));
+    }
+
+    private static long maskLow(long low, int length) {
+        return length <= 64 ? 0 : length == ADDRESS_BITS ? low : low & (-1L << (ADDRESS_BITS - length));
+    }
+
+    @FunctionalInterface
+    private interface AddressConsumer {
+        boolean accept(long high, long low);
+    }
+
+    /**
+     * Growable trie nodes entries are inserted into, copied into a trimmed {@link IpPrefixTrie} on {@link #build()}
+     */
+    static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] highs = new long[INITIAL_CAPACITY];
+        private long[] lows = new long[INITIAL_CAPACITY];
+        private int[] lengths = new int[INITIAL_CAPACITY];
+        private int[] zeroChildren = new int[INITIAL_CAPACITY];
+        private int[] oneChildren = new int[INITIAL_CAPACITY];
+        private boolean[] terminals = new boolean[INITIAL_CAPACITY];
+        private int nodeCount;
+        private int root = NONE;
+        private int size;
+
+        /**
+         * @param entry - IPv4 or IPv6 address, optionally followed by {@code /prefixLength}
+         * @throws IllegalArgumentException if the entry is not an IPv4 or IPv6 address or range
+         */
+        Builder add(String entry) {
+            var trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                return this;
+            }
+            var slash = trimmed.indexOf('/');
+            var address = slash < 0 ? trimmed : trimmed.substring(0, slash);
+            var parsed = new long[2];
+            if (!parse(address, address.length(), (high, low) -> {
+                parsed[0] = high;
+                parsed[1] = low;
+                return true;
+            })) {
+                throw new IllegalArgumentException("Invalid IP address: " + entry);
+            }
+            var high = parsed[0];
+            var low = parsed[1];
+            // prefix lengths of IPv4 literals are relative to the mapped address
+            var ipv4 = address.indexOf(':') < 0;
+            var maxPrefixLength = ipv4 ? IPV4_BITS : ADDRESS_BITS;
+            var prefixLength = maxPrefixLength;
+            if (slash >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(trimmed.substring(slash + 1));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid prefix length: " + entry, ex);
+                }
+                if (prefixLength < 0 || prefixLength > maxPrefixLength) {
+                    throw new IllegalArgumentException("Invalid prefix length: " + entry);
+                }
+            }
+            if (ipv4) {
+                prefixLength += ADDRESS_BITS - IPV4_BITS;
+            }
+            insert(maskHigh(high, prefixLength), maskLow(low, prefixLength), prefixLength);
+            return this;
+        }
+
+        IpPrefixTrie build() {
+            return new IpPrefixTrie(this);
+        }
+
+        private void insert(long high, long low, int length) {
+            if (root == NONE) {
+                root = newNode(high, low, length, true);
+                size++;
+                return;
+            }
+            var parent = NONE;
+            var parentBit = 0;
+            var node = root;
+            while (true) {
+                var nodeLength = lengths[node];
+                var common = commonPrefixLength(high, low, highs[node], lows[node], Math.min(nodeLength, length));
+                if (common < nodeLength) {
+                    // split the node at the first differing bit or at the end of the inserted prefix
+                    var split = newNode(maskHigh(high, common), maskLow(low, common), common, common == length);
+                    setChild(split, bit(highs[node], lows[node], common), node);
+                    if (common < length) {
+                        setChild(split, bit(high, low, common), newNode(high, low, length, true));
+                    }
+                    if (parent == NONE) {
+                        root = split;
+                    } else {
+                        setChild(parent, parentBit, split);
+                    }
+                    size++;
+                    return;
+                }
+                if (nodeLength == length) {
+                    if (!terminals[node]) {
+                        terminals[node] = true;
+                        size++;
+                    }
+                    return;
+                }
+                var childBit = bit(high, low, nodeLength);
+                var child = childBit == 0 ? zeroChildren[node] : oneChildren[node];
+                if (child == NONE) {
+                    setChild(node, childBit, newNode(high, low, length, true));
+                    size++;
+                    return;
+                }
+                parent = node;
+                parentBit = childBit;
+                node = child;
+            }
+        }
+
+        private void setChild(int node, int childBit, int child) {
+            if (childBit == 0) {
+                zeroChildren[node] = child;
+            } else {
+                oneChildren[node] = child;
+            }
+        }
+
+        private int newNode(long high, long low, int length, boolean terminal) {
+            if (nodeCount == lengths.length) {
+                var capacity = nodeCount << 1;
+                highs = Arrays.copyOf(highs, capacity);
+                lows = Arrays.copyOf(lows, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                zeroChildren = Arrays.copyOf(zeroChildren, capacity);
+                oneChildren = Arrays.copyOf(oneChildren, capacity);
+                terminals = Arrays.copyOf(terminals, capacity);
+            }
+            highs[nodeCount] = high;
+            lows[nodeCount] = low;
+            lengths[nodeCount] = length;
+            zeroChildren[nodeCount] = NONE;
+            oneChildren[nodeCount] = NONE;
+            terminals[nodeCount] = terminal;
+            return nodeCount++;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.crypto.investment.recommendationservice.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of {@link RateLimitFilter}: request limits per client address and path prefix
+ */
+@Component
+@ConfigurationProperties("rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * Token bucket of a client for requests with a path starting with {@code path}, the longest matching prefix applies
+     */
+    public static class Limit {
+        private String path;
+        private int capacity;
+        private double refillPerSecond;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        /**
+         * @return number of requests a client may burst with
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return sustained number of requests per second of a client
+         */
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    private boolean enabled;
+    private List<Limit> limits = new ArrayList<>();
+    private int maxClients = 100_000;
+    private int stripes = 16;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Limit> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(List<Limit> limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @return number of client buckets kept per limit, idle buckets are evicted when it is reached and new clients are denied while none is idle
+     */
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * @return number of independently bounded and evicted parts client buckets are split into, rounded down to a power of two
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+}
@@ -0,0 +1,91 @@
+package com.crypto.investment.recommendationservice.security;
+
+import com.crypto.investment.recommendationservice.cluster.ClusterClient;
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits requests per client address with token buckets of {@link RateLimitConfig}, checked after {@link BlacklistIPFilter}.
+ * Limits are matched against the decoded {@link RequestPaths#lookupPath lookup path} and apply to their path
+ * and the paths below it.
+ * Requests over the limit get {@code 429} with {@code Retry-After} seconds, requests of paths without a limit
+ * and requests forwarded by other nodes of the cluster pass unchecked
+ */
+@Component
+@Order(2)
+public class RateLimitFilter implements Filter {
+    private static final Logger LOGGER = LogManager.getLogger(RateLimitFilter.class);
+
+    private ClientRateLimiter[] limiters = new ClientRateLimiter[0];
+
+    @Autowired
+    private RateLimitConfig config;
+    @Autowired(required = false)
+    private SymbolPartitioner partitioner = SymbolPartitioner.SINGLE_NODE;
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        // longest path prefix first, so the most specific limit applies
+        limiters = config.getLimits().stream()
+                .sorted(Comparator.comparingInt((RateLimitConfig.Limit limit) -> limit.getPath().length()).reversed())
+                .map(limit -> new ClientRateLimiter(limit, config.getMaxClients(), config.getStripes()))
+                .toArray(ClientRateLimiter[]::new);
+        LOGGER.info("rate limiting " + limiters.length + " paths");
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        var httpServletRequest = (HttpServletRequest) request;
+        var limiter = limiterOf(RequestPaths.lookupPath(httpServletRequest));
+        if (limiter == null || isForwardedByNode(httpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var wait = limiter.tryAcquire(request.getRemoteAddr(), System.nanoTime());
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var httpServletResponse = (HttpServletResponse) response;
+        httpServletResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        httpServletResponse.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    /**
+     * Requests routed by another node of the cluster were already limited there
+     */
+    private boolean isForwardedByNode(HttpServletRequest request) {
+        return partitioner.isForwardedByNode(request.getRemoteAddr(), request.getHeader(ClusterClient.FORWARDED_HEADER),
+                                             request.getHeader(ClusterClient.TOKEN_HEADER));
+    }
+
+    private ClientRateLimiter limiterOf(String path) {
+        for (var limiter : limiters) {
+            if (RequestPaths.isWithin(path, limiter.getPath())) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+}
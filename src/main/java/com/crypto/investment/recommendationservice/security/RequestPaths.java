@@ -0,0 +1,47 @@
+package com.crypto.investment.recommendationservice.security;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Path of a request to match filters against. Unlike {@link HttpServletRequest#getRequestURI()} the servlet and
+ * extra path are decoded and stripped of path parameters by the container, repeated slashes are collapsed here,
+ * so that encoded or padded variants of a path are matched as the path the request is dispatched to
+ */
+public final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    /**
+     * @return decoded path of the request within the application
+     */
+    public static String lookupPath(HttpServletRequest request) {
+        var servletPath = request.getServletPath();
+        var pathInfo = request.getPathInfo();
+        var path = servletPath == null ? "" : servletPath;
+        if (pathInfo != null) {
+            path += pathInfo;
+        }
+        return path.indexOf("//") < 0 ? path : collapseSlashes(path);
+    }
+
+    /**
+     * @return whether the path is the prefix itself or lies below it, {@code /cryptos} matches {@code /cryptos/BTC}
+     *          but not {@code /cryptosX}
+     */
+    public static boolean isWithin(String path, String prefix) {
+        return path.startsWith(prefix)
+               && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/');
+    }
+
+    private static String collapseSlashes(String path) {
+        var collapsed = new StringBuilder(path.length());
+        for (var i = 0; i < path.length(); i++) {
+            var c = path.charAt(i);
+            if (c != '/' || collapsed.length() == 0 || collapsed.charAt(collapsed.length() - 1) != '/') {
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of aggregated crypto statistics keyed by crypto symbol and months window.
+ * Entries of a crypto are invalidated on {@link CryptoStatsUpdatedEvent},
+ * all entries are invalidated when the UTC day rolls over since month windows are relative to the current day
+ */
+@Component
+@ManagedResource(objectName = "com.crypto.investment:type=AggregatedStatsCache")
+public class AggregatedStatsCache {
+
+    private final Map<Key, Optional<CryptoStatAggregated>> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Optional<CryptoStatAggregated>> eldest) {
+            var evict = size() > maxSize;
+            if (evict) {
+                evictions.incrementAndGet();
+            }
+            return evict;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long generation;
+    private LocalDate day;
+
+    @Value("${aggregated-stats-cache.max-size:1000}")
+    private int maxSize = 1000;
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Returns cached aggregated statistic or computes and caches it
+     * @param symbol - crypto symbol in upper case
+     * @param months - number of last months or {@code null} for the whole period
+     * @param loader - computes aggregated statistic on cache miss
+     * @return cached or computed aggregated statistic
+     */
+    public Optional<CryptoStatAggregated> get(String symbol, Integer months, Supplier<Optional<CryptoStatAggregated>> loader) {
+        var key = new Key(symbol, months);
+        long loadGeneration;
+        synchronized (this) {
+            rollOverDay();
+            var cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        var value = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCryptoStatsUpdated(CryptoStatsUpdatedEvent event) {
+        invalidate(event.getSymbol());
+    }
+
+    /**
+     * Removes all cached entries of provided crypto
+     */
+    public synchronized void invalidate(String symbol) {
+        generation++;
+        entries.keySet().removeIf(key -> key.symbol.equals(symbol));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @ManagedAttribute
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @ManagedAttribute
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @ManagedAttribute
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @ManagedAttribute
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @ManagedAttribute
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private void rollOverDay() {
+        var today = LocalDate.now(clock);
+        if (!today.equals(day)) {
+            day = today;
+            invalidateAll();
+        }
+    }
+
+    private static final class Key {
+        private final String symbol;
+        private final Integer months;
+
+        private Key(String symbol, Integer months) {
+            this.symbol = symbol;
+            this.months = months;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(symbol, key.symbol) && Objects.equals(months, key.months);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(symbol, months);
+        }
+    }
+}
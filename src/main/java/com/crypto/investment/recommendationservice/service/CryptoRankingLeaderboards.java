@@ -0,0 +1,169 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.service.comparators.CryptoStatNormalizedRangeComparator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Live normalized range rankings, one per supported months window (all time and {@code ranking.leaderboard-months}).
+ * Each leaderboard keeps per crypto aggregated statistic with its normalized range cached as primitive
+ * and serves a precomputed ranking snapshot. On {@link CryptoStatsUpdatedEvent} only the updated crypto is read and recomputed,
+ * month windows are fully recomputed when the UTC day rolls over.
+ */
+@Component
+public class CryptoRankingLeaderboards {
+
+    /**
+     * Normalized range order with crypto symbol as tie-breaker, so cryptos with equal ranges are all kept
+     */
+    public static final Comparator<CryptoStatAggregated> RANKING_ORDER =
+            new CryptoStatNormalizedRangeComparator().thenComparing(CryptoStatAggregated::getSymbol);
+
+    private static final int ALL_TIME = -1;
+
+    private final Map<Integer, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    @Value("${ranking.leaderboard-months:1,3,6,12}")
+    private Set<Integer> leaderboardMonths = Set.of(1, 3, 6, 12);
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * @param months - number of last months or {@code null} for the whole period
+     * @param symbolsSupplier - provides all cryptos, called only when the ranking has to be refreshed
+     * @param aggregator - reads and aggregates statistics of a crypto for the window, returns {@code null} if there is no data.
+     *                     Called only for cryptos whose statistics changed since the last refresh
+     * @return ranking snapshot or empty if there is no leaderboard for the window
+     */
+    public Optional<SortedSet<CryptoStatAggregated>> getRanking(Integer months,
+                                                                Supplier<Set<String>> symbolsSupplier,
+                                                                Function<String, CryptoStatAggregated> aggregator) {
+        if (months != null && !leaderboardMonths.contains(months)) {
+            return Optional.empty();
+        }
+        var leaderboard = leaderboards.computeIfAbsent(months == null ? ALL_TIME : months, key -> new Leaderboard(months));
+        return Optional.of(leaderboard.getRanking(LocalDate.now(clock), symbolsSupplier, aggregator));
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCryptoStatsUpdated(CryptoStatsUpdatedEvent event) {
+        leaderboards.values().forEach(leaderboard -> leaderboard.markDirty(event.getSymbol()));
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private static final class Leaderboard {
+        private final Integer months;
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Set<String> dirtySymbols = ConcurrentHashMap.newKeySet();
+        private volatile boolean stale = true;
+        private volatile Snapshot snapshot;
+
+        private Leaderboard(Integer months) {
+            this.months = months;
+        }
+
+        private void markDirty(String symbol) {
+            dirtySymbols.add(symbol);
+            stale = true;
+        }
+
+        private SortedSet<CryptoStatAggregated> getRanking(LocalDate today,
+                                                          Supplier<Set<String>> symbolsSupplier,
+                                                          Function<String, CryptoStatAggregated> aggregator) {
+            var current = snapshot;
+            if (isUpToDate(current, today)) {
+                return current.ranking;
+            }
+            synchronized (this) {
+                current = snapshot;
+                if (isUpToDate(current, today)) {
+                    return current.ranking;
+                }
+                var recomputeAll = current == null || months != null && !current.day.equals(today);
+                stale = false;
+                var dirty = new HashSet<String>();
+                for (var iterator = dirtySymbols.iterator(); iterator.hasNext(); ) {
+                    dirty.add(iterator.next());
+                    iterator.remove();
+                }
+                var symbols = symbolsSupplier.get();
+                entries.keySet().retainAll(symbols);
+                symbols.forEach(symbol -> {
+                    if (recomputeAll || dirty.contains(symbol) || !entries.containsKey(symbol)) {
+                        var cryptoStatAggregated = aggregator.apply(symbol);
+                        if (cryptoStatAggregated == null) {
+                            entries.remove(symbol);
+                        } else {
+                            entries.put(symbol, new Entry(cryptoStatAggregated));
+                        }
+                    }
+                });
+                snapshot = new Snapshot(today, rank(entries));
+                return snapshot.ranking;
+            }
+        }
+
+        private boolean isUpToDate(Snapshot current, LocalDate today) {
+            return !stale && current != null && (months == null || current.day.equals(today));
+        }
+
+        private static SortedSet<CryptoStatAggregated> rank(Map<String, Entry> entries) {
+            var sorted = entries.values().toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparingDouble((Entry entry) -> entry.normalizedRange)
+                                                    .thenComparing(entry -> entry.cryptoStatAggregated.getSymbol()));
+            var ranked = new CryptoStatAggregated[sorted.length];
+            for (var i = 0; i < sorted.length; i++) {
+                ranked[i] = sorted[i].cryptoStatAggregated;
+            }
+            return new RankedCryptoStats(ranked, RANKING_ORDER);
+        }
+    }
+
+    private static final class Entry {
+        private final CryptoStatAggregated cryptoStatAggregated;
+        private final double normalizedRange;
+
+        /**
+         * Normalized range is calculated the same way {@link CryptoStatNormalizedRangeComparator} does,
+         * so the cached primitive orders cryptos exactly like the comparator
+         */
+        private Entry(CryptoStatAggregated cryptoStatAggregated) {
+            this.cryptoStatAggregated = cryptoStatAggregated;
+            this.normalizedRange = !CryptoStatNormalizedRangeComparator.hasRange(cryptoStatAggregated)
+                    ? Double.NEGATIVE_INFINITY
+                    : CryptoStatNormalizedRangeComparator.calculateNormalization(cryptoStatAggregated).doubleValue();
+        }
+    }
+
+    private static final class Snapshot {
+        private final LocalDate day;
+        private final SortedSet<CryptoStatAggregated> ranking;
+
+        private Snapshot(LocalDate day, SortedSet<CryptoStatAggregated> ranking) {
+            this.day = day;
+            this.ranking = ranking;
+        }
+    }
+}
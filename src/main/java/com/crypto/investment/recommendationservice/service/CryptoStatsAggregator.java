@@ -0,0 +1,104 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
+import com.crypto.investment.recommendationservice.repository.series.CryptoStatSeriesView;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Single-pass aggregation of crypto statistics computing all {@link CryptoStatAggregatedFields} at once.
+ * Results are identical to picking max element by every field comparator:
+ * on equal prices or timestamps the first element wins.
+ * {@link CryptoStatSeriesView} lists are aggregated from precomputed series rollups and primitive columns
+ * without creating {@link CryptoStat} instances, other lists compare fixed-point prices without {@code BigDecimal}.
+ */
+public final class CryptoStatsAggregator {
+
+    private CryptoStatsAggregator() {
+    }
+
+    /**
+     * @param symbol - crypto symbol of the statistics
+     * @param cryptoStats - statistics to aggregate
+     * @return aggregated statistic (MAX/MIN/NEWEST/OLDEST) or {@code null} if no statistics provided
+     */
+    public static CryptoStatAggregated aggregate(String symbol, List<CryptoStat> cryptoStats) {
+        if (cryptoStats == null || cryptoStats.isEmpty()) {
+            return null;
+        }
+        return cryptoStats instanceof CryptoStatSeriesView
+                ? aggregate(symbol, (CryptoStatSeriesView) cryptoStats)
+                : aggregateObjects(symbol, cryptoStats);
+    }
+
+    private static CryptoStatAggregated aggregate(String symbol, CryptoStatSeriesView view) {
+        var series = view.getSeries();
+        var aggregate = series.aggregate(view.getFromIndex(), view.getToIndex());
+        return new CryptoStatAggregated(symbol,
+                                        series.getScale(),
+                                        series.getUnscaledPrice(aggregate.getOldestIndex()),
+                                        series.getUnscaledPrice(aggregate.getNewestIndex()),
+                                        aggregate.getMaxPrice(),
+                                        aggregate.getMinPrice());
+    }
+
+    /**
+     * Null prices and timestamps are treated the same way as {@link CryptoStatAggregatedFields} comparators do:
+     * they never win MAX/NEWEST unless there is nothing else and always win MIN/OLDEST
+     */
+    private static CryptoStatAggregated aggregateObjects(String symbol, List<CryptoStat> cryptoStats) {
+        CryptoStat max = null;
+        CryptoStat min = null;
+        CryptoStat newest = null;
+        CryptoStat oldest = null;
+        CryptoStat last = null;
+        var minIsNull = false;
+        var oldestIsNull = false;
+        var size = cryptoStats.size();
+        var randomAccess = cryptoStats instanceof RandomAccess;
+        var iterator = randomAccess ? null : cryptoStats.iterator();
+        for (var i = 0; i < size; i++) {
+            var cryptoStat = randomAccess ? cryptoStats.get(i) : iterator.next();
+            var timestamp = cryptoStat.getTimestamp();
+            if (!cryptoStat.hasPrice()) {
+                minIsNull = true;
+                min = cryptoStat;
+            } else {
+                if (max == null || comparePrices(cryptoStat, max) > 0) {
+                    max = cryptoStat;
+                }
+                if (!minIsNull && (min == null || comparePrices(cryptoStat, min) < 0)) {
+                    min = cryptoStat;
+                }
+            }
+            if (timestamp == null) {
+                oldestIsNull = true;
+                oldest = cryptoStat;
+            } else {
+                if (newest == null || timestamp.isAfter(newest.getTimestamp())) {
+                    newest = cryptoStat;
+                }
+                if (!oldestIsNull && (oldest == null || timestamp.isBefore(oldest.getTimestamp()))) {
+                    oldest = cryptoStat;
+                }
+            }
+            last = cryptoStat;
+        }
+        var cryptoStatAggregated = new CryptoStatAggregated(symbol);
+        cryptoStatAggregated.setOldestPrice(oldest.getUnscaledPrice(), oldest.getScale());
+        newest = newest == null ? last : newest;
+        cryptoStatAggregated.setNewestPrice(newest.getUnscaledPrice(), newest.getScale());
+        if (max != null) {
+            cryptoStatAggregated.setMaxPrice(max.getUnscaledPrice(), max.getScale());
+        }
+        cryptoStatAggregated.setMinPrice(min.getUnscaledPrice(), min.getScale());
+        return cryptoStatAggregated;
+    }
+
+    private static int comparePrices(CryptoStat cs1, CryptoStat cs2) {
+        return FixedPointPrice.compare(cs1.getUnscaledPrice(), cs1.getScale(), cs2.getUnscaledPrice(), cs2.getScale());
+    }
+}
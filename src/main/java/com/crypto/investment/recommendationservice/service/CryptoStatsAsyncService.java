@@ -0,0 +1,84 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variant of {@link CryptoStatsService} for {@code request-execution.mode=async}.
+ * Calls, which may block on reading statistics on a cache miss, run on a bounded pool instead of the request thread.
+ * When the pool and its queue are full the returned future fails with {@link RejectedExecutionException}
+ */
+@Service
+@ConditionalOnProperty(name = "request-execution.mode", havingValue = "async")
+public class CryptoStatsAsyncService {
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private ExecutorService executor;
+
+    @Autowired
+    private CryptoStatsService service;
+
+    @Value("${request-execution.async-threads:32}")
+    private int threads = 32;
+    @Value("${request-execution.async-queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                          new LinkedBlockingQueue<>(queueCapacity),
+                                          task -> {
+                                              var thread = new Thread(task, "stats-async-" + threadCount.incrementAndGet());
+                                              thread.setDaemon(true);
+                                              return thread;
+                                          });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<Optional<CryptoStatAggregated>> getAggregatedStatsForCrypto(String symbol, Integer months) {
+        return supplyAsync(() -> service.getAggregatedStatsForCrypto(symbol, months));
+    }
+
+    public CompletableFuture<List<CryptoStatsBatchEntry>> getAggregatedStatsForCryptos(List<String> symbols, List<Integer> months) {
+        return supplyAsync(() -> service.getAggregatedStatsForCryptos(symbols, months));
+    }
+
+    public CompletableFuture<SortedSet<CryptoStatAggregated>> getAggregatedStatsPerCryptoInDescendingOrder(Integer months) {
+        return supplyAsync(() -> service.getAggregatedStatsPerCryptoInDescendingOrder(months));
+    }
+
+    public CompletableFuture<Optional<CryptoStatAggregated>> getCryptoWithHighestNormalizedRangeForDay(LocalDate date) {
+        return supplyAsync(() -> service.getCryptoWithHighestNormalizedRangeForDay(date));
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
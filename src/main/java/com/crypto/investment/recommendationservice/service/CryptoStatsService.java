@@ -1,14 +1,17 @@
 package com.crypto.investment.recommendationservice.service;
 
 import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
 
 public interface CryptoStatsService {
 
     Optional<CryptoStatAggregated> getAggregatedStatsForCrypto(String symbol, Integer months);
+    List<CryptoStatsBatchEntry> getAggregatedStatsForCryptos(List<String> symbols, List<Integer> months);
     SortedSet<CryptoStatAggregated> getAggregatedStatsPerCryptoInDescendingOrder(Integer months);
     Optional<CryptoStatAggregated> getCryptoWithHighestNormalizedRangeForDay(LocalDate date);
 }
@@ -1,20 +1,26 @@
 package com.crypto.investment.recommendationservice.service;
 
+import com.crypto.investment.recommendationservice.cluster.CryptoNotLocalException;
+import com.crypto.investment.recommendationservice.metrics.CryptoStatsMetrics;
 import com.crypto.investment.recommendationservice.models.CryptoStat;
 import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.repository.CSVDaoReadException;
 import com.crypto.investment.recommendationservice.repository.CryptoStatsDao;
-import com.crypto.investment.recommendationservice.service.comparators.CryptoStatNormalizedRangeComparator;
-import org.apache.commons.collections4.CollectionUtils;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.repository.series.CryptoStatSeriesView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -29,6 +35,16 @@ public class CryptoStatsServiceImpl implements CryptoStatsService {
     private CryptoStatsDao cryptoStatsDao;
     @Autowired
     private CryptoValidator cryptoValidator;
+    @Autowired
+    private AggregatedStatsCache aggregatedStatsCache;
+    @Autowired
+    private CryptoRankingLeaderboards rankingLeaderboards;
+    @Autowired
+    private DailyRangeTable dailyRangeTable;
+    @Autowired
+    private StatsBatchExecutor batchExecutor;
+    @Autowired(required = false)
+    private CryptoStatsMetrics metrics = CryptoStatsMetrics.DISABLED;
 
     /**
      * Calculates aggregated statistic for specified crypto
@@ -37,15 +53,65 @@ public class CryptoStatsServiceImpl implements CryptoStatsService {
      * @param months - Parameter for specifying the number of last months to aggregate statistic for.
      *                  If {@value `null`} - aggregated statistic will be based on the whole period
      * @return specified crypto aggregated statistic (MAX/MIN/NEWEST/OLDEST){@link CryptoStatAggregated}
-     *          for the whole period or for the last number of months
+     *          for the whole period or for the last number of months, served from {@link AggregatedStatsCache} when possible
      * @throws CryptoNotSupportedException
      */
     @Override
     public Optional<CryptoStatAggregated> getAggregatedStatsForCrypto(String symbol, Integer months) {
         cryptoValidator.validateSupportedCrypto(symbol);
         var currencySymbol = symbol.toUpperCase();
-        var cryptoStats = filterWithSpecifiedMonthCount(cryptoStatsDao.getStatsForCrypto(currencySymbol), months);
-        return Optional.ofNullable(aggregateStats(currencySymbol, cryptoStats));
+        metrics.recordServed(currencySymbol);
+        var end = LocalDate.now(ZoneOffset.UTC);
+        return aggregatedStatsCache.get(currencySymbol, months,
+                                        () -> Optional.ofNullable(aggregateStats(currencySymbol, fetchWithSpecifiedMonthCount(currencySymbol, months, end))));
+    }
+
+    /**
+     * Calculates aggregated statistics for every combination of specified cryptos and month windows.
+     * Cryptos are processed in parallel on {@link StatsBatchExecutor}, statistics of the widest window of a crypto are fetched
+     * once by a range query and narrower windows are sliced from them, all windows are relative to the same current day
+     * @param symbols - Cryptocurrency symbols to fetch aggregated statistics for, duplicates are ignored
+     * @param months - Numbers of last months to aggregate statistics for.
+     *                  If {@value `null`} or empty - aggregated statistics will be based on the whole period
+     * @return one {@link CryptoStatsBatchEntry} per crypto and window in the order of request parameters,
+     *          unsupported or unreadable cryptos are reported by the entry error instead of failing the batch
+     */
+    @Override
+    public List<CryptoStatsBatchEntry> getAggregatedStatsForCryptos(List<String> symbols, List<Integer> months) {
+        var windows = months == null || months.isEmpty() ? Collections.<Integer>singletonList(null) : new ArrayList<>(new LinkedHashSet<>(months));
+        var end = LocalDate.now(ZoneOffset.UTC);
+        var results = batchExecutor.map(new ArrayList<>(new LinkedHashSet<>(symbols)), symbol -> aggregateWindows(symbol, windows, end));
+        var entries = new ArrayList<CryptoStatsBatchEntry>(results.size() * windows.size());
+        results.forEach(entries::addAll);
+        return entries;
+    }
+
+    private List<CryptoStatsBatchEntry> aggregateWindows(String symbol, List<Integer> windows, LocalDate end) {
+        var entries = new ArrayList<CryptoStatsBatchEntry>(windows.size());
+        var currencySymbol = symbol.toUpperCase();
+        try {
+            cryptoValidator.validateSupportedCrypto(symbol);
+            var widestWindow = windows.contains(null) ? null : Collections.max(windows);
+            // fetched on the first cache miss only
+            var widestStats = new ArrayList<List<CryptoStat>>(1);
+            for (var window : windows) {
+                var stats = aggregatedStatsCache.get(currencySymbol, window, () -> {
+                    if (widestStats.isEmpty()) {
+                        widestStats.add(fetchWithSpecifiedMonthCount(currencySymbol, widestWindow, end));
+                    }
+                    var windowStats = Objects.equals(window, widestWindow)
+                            ? widestStats.get(0)
+                            : filterByDateSpan(widestStats.get(0), end.minusMonths(window), end.plusDays(1));
+                    return Optional.ofNullable(aggregateStats(currencySymbol, windowStats));
+                });
+                metrics.recordServed(currencySymbol);
+                entries.add(CryptoStatsBatchEntry.ofStats(currencySymbol, window, stats.orElse(null)));
+            }
+        } catch (CryptoNotSupportedException | CryptoNotLocalException | CSVDaoReadException ex) {
+            entries.clear();
+            windows.forEach(window -> entries.add(CryptoStatsBatchEntry.ofError(currencySymbol, window, ex.getMessage())));
+        }
+        return entries;
     }
 
     /**
@@ -53,59 +119,91 @@ public class CryptoStatsServiceImpl implements CryptoStatsService {
      * @param months - Parameter for specifying the number of last months to aggregate statistic for.
      *                  If {@value `null`} - aggregated statistic will be based on the whole period
      * @return descending sorted set of aggregated statistic (MAX/MIN/NEWEST/OLDEST){@link CryptoStatAggregated}
-     *          comparing the normalized range for all cryptos for the whole period or for the last number of months
+     *          comparing the normalized range for all cryptos for the whole period or for the last number of months.
+     *          Rankings of windows with a leaderboard are served from {@link CryptoRankingLeaderboards},
+     *          statistics of each crypto are fetched by a range query of the window
      */
     @Override
     public SortedSet<CryptoStatAggregated> getAggregatedStatsPerCryptoInDescendingOrder(Integer months) {
-        return cryptoStatsDao.getAllCryptoStats().entrySet().stream()
-                .map(entry -> aggregateStats(entry.getKey(), filterWithSpecifiedMonthCount(entry.getValue(), months)))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toCollection(() -> new TreeSet<>(new CryptoStatNormalizedRangeComparator())));
+        return rankingLeaderboards.getRanking(months, cryptoStatsDao::getCryptos,
+                                              symbol -> aggregateStats(symbol, fetchWithSpecifiedMonthCount(symbol, months, LocalDate.now(ZoneOffset.UTC))))
+                .orElseGet(() -> {
+                    var end = LocalDate.now(ZoneOffset.UTC);
+                    return cryptoStatsDao.getCryptos().stream()
+                            .map(symbol -> aggregateStats(symbol, fetchWithSpecifiedMonthCount(symbol, months, end)))
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toCollection(() -> new TreeSet<>(CryptoRankingLeaderboards.RANKING_ORDER)));
+                });
     }
 
     /**
      * Calculates crypto aggregated statistic with the highest normalized range fo specified day
      * @param date - defines specific day to fetch statistic for
      * @return crypto aggregated statistic {@link CryptoStatAggregated} with highest normalized range
-     *          for specified day
+     *          for specified day, looked up in {@link DailyRangeTable}
      */
     @Override
     public Optional<CryptoStatAggregated> getCryptoWithHighestNormalizedRangeForDay(LocalDate date) {
-        return cryptoStatsDao.getAllCryptoStats().entrySet().stream()
-                .map(entry -> aggregateStats(entry.getKey(), filterByDateSpan(entry.getValue(), date, date.plusDays(1))))
-                .filter(Objects::nonNull)
-                .max(new CryptoStatNormalizedRangeComparator());
+        return dailyRangeTable.getHighestNormalizedRange(date, cryptoStatsDao::getCryptos, cryptoStatsDao::getStatsForCrypto);
     }
 
-    private List<CryptoStat> filterWithSpecifiedMonthCount(List<CryptoStat> cryptoStats, Integer months) {
-        var end = LocalDate.now(ZoneOffset.UTC);
-        return months == null
-                ? cryptoStats
-                : filterByDateSpan(cryptoStats, end.minusMonths(months), end.plusDays(1));
+    /**
+     * Keeps {@link DailyRangeTable} up to date with ingested statistics of supported cryptos,
+     * appended ticks are read back by a range query of the days they touched only
+     */
+    @EventListener
+    public void onCryptoStatsUpdated(CryptoStatsUpdatedEvent event) {
+        var symbol = event.getSymbol();
+        if (!cryptoValidator.isSupportedCrypto(symbol)) {
+            return;
+        }
+        if (event.isFullReload() || !dailyRangeTable.isBuilt(symbol)) {
+            dailyRangeTable.rebuild(symbol, cryptoStatsDao.getStatsForCrypto(symbol));
+        } else {
+            var fromDay = LocalDate.ofEpochDay(DailyRangeTable.toEpochDay(event.getFromTimestamp()));
+            var toDay = LocalDate.ofEpochDay(DailyRangeTable.toEpochDay(event.getToTimestamp()));
+            dailyRangeTable.update(symbol, cryptoStatsDao.getStatsForCrypto(symbol, fromDay.atStartOfDay(), toDay.plusDays(1).atStartOfDay()),
+                                   fromDay.toEpochDay(), toDay.toEpochDay());
+        }
     }
 
-    private List<CryptoStat> filterByDateSpan(List<CryptoStat> cryptoStats, LocalDate start, LocalDate end) {
-        return cryptoStats.parallelStream()
-                .filter(cr -> cr.getTimestamp().isAfter(start.atStartOfDay()) && cr.getTimestamp().isBefore(end.atStartOfDay()))
-                .collect(Collectors.toList());
+    /**
+     * @return statistics of the last number of months up to the end day inclusive fetched by a DAO range query,
+     *          or all statistics if months are {@code null}
+     */
+    private List<CryptoStat> fetchWithSpecifiedMonthCount(String symbol, Integer months, LocalDate end) {
+        return months == null
+                ? cryptoStatsDao.getStatsForCrypto(symbol)
+                : cryptoStatsDao.getStatsForCrypto(symbol, end.minusMonths(months).atStartOfDay(), end.plusDays(1).atStartOfDay());
     }
 
-    private CryptoStatAggregated aggregateStats(String symbol, List<CryptoStat> cryptoStats) {
-        if (CollectionUtils.isEmpty(cryptoStats)) {
-            return null;
+    /**
+     * @return statistics within [start, end) days, series views are sliced by binary search instead of filtering
+     */
+    List<CryptoStat> filterByDateSpan(List<CryptoStat> cryptoStats, LocalDate start, LocalDate end) {
+        var metricsStartTime = metrics.startTime();
+        List<CryptoStat> filtered;
+        if (cryptoStats instanceof CryptoStatSeriesView) {
+            filtered = ((CryptoStatSeriesView) cryptoStats).subView(toEpochMilli(start), toEpochMilli(end));
+        } else {
+            var startTime = start.atStartOfDay();
+            var endTime = end.atStartOfDay();
+            filtered = cryptoStats.parallelStream()
+                    .filter(cr -> !cr.getTimestamp().isBefore(startTime) && cr.getTimestamp().isBefore(endTime))
+                    .collect(Collectors.toList());
         }
-        var cryptoStatAggregated = new CryptoStatAggregated(symbol);
-        setAggregatedStats(cryptoStatAggregated, cryptoStats, EnumSet.allOf(CryptoStatAggregatedFields.class));
-        return cryptoStatAggregated;
+        metrics.recordFilter(metricsStartTime);
+        return filtered;
     }
 
-    private void setAggregatedStats(CryptoStatAggregated cryptoStatAggregated, List<CryptoStat> cryptoStats, Set<CryptoStatAggregatedFields> fields) {
-        fields.forEach(field -> setAggregatedStat(cryptoStatAggregated, cryptoStats, field));
+    private static long toEpochMilli(LocalDate date) {
+        return date.toEpochDay() * 86_400_000L;
     }
 
-    private void setAggregatedStat(CryptoStatAggregated cryptoStatAggregated, List<CryptoStat> cryptoStats, CryptoStatAggregatedFields field) {
-        var cryptoStat = cryptoStats.stream().max(field.getComp());
-        cryptoStat.map(CryptoStat::getPrice)
-                  .ifPresent(price -> field.getSetter().accept(cryptoStatAggregated, price));
+    CryptoStatAggregated aggregateStats(String symbol, List<CryptoStat> cryptoStats) {
+        var startTime = metrics.startTime();
+        var aggregated = CryptoStatsAggregator.aggregate(symbol, cryptoStats);
+        metrics.recordAggregate(startTime);
+        return aggregated;
     }
 }
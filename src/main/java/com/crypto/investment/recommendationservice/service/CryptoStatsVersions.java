@@ -0,0 +1,97 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Data versions of crypto statistics to derive HTTP validators from. Every {@link CryptoStatsUpdatedEvent} stamps its crypto
+ * with the next version and the update time. Listeners of the event with higher precedence, i.e. caches of aggregated statistics,
+ * are invalidated before the version advances, so statistics served after reading a version are never older than it.
+ * Versions start over with the application, tags contain the start time to tell instances apart
+ */
+@Component
+public class CryptoStatsVersions {
+
+    /**
+     * Version of the statistics of a crypto or of all cryptos
+     */
+    public static final class DataVersion {
+        private final String tag;
+        private final long lastModified;
+
+        private DataVersion(String tag, long lastModified) {
+            this.tag = tag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return version of statistics combined from several sources, e.g. nodes of a cluster
+         */
+        public static DataVersion of(String tag, long lastModified) {
+            return new DataVersion(tag, lastModified);
+        }
+
+        /**
+         * @return opaque value which changes whenever the statistics change
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @return epoch-millis of the last change, start time of the application if there was none
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final Map<String, DataVersion> versions = new ConcurrentHashMap<>();
+    private final String instanceId;
+    private final DataVersion initialVersion;
+    private final Clock clock;
+    private volatile DataVersion latestVersion;
+    private long version;
+
+    public CryptoStatsVersions() {
+        this(Clock.systemUTC());
+    }
+
+    CryptoStatsVersions(Clock clock) {
+        this.clock = clock;
+        var startTime = clock.millis();
+        instanceId = Long.toHexString(startTime);
+        initialVersion = new DataVersion(instanceId + "-0", startTime);
+        latestVersion = initialVersion;
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onCryptoStatsUpdated(CryptoStatsUpdatedEvent event) {
+        var updated = new DataVersion(instanceId + "-" + ++version, clock.millis());
+        versions.put(event.getSymbol(), updated);
+        latestVersion = updated;
+    }
+
+    /**
+     * @param symbol - crypto symbol in upper case
+     * @return version of the statistics of provided crypto
+     */
+    public DataVersion getVersion(String symbol) {
+        return versions.getOrDefault(symbol, initialVersion);
+    }
+
+    /**
+     * @return version of the statistics of all cryptos, e.g. for rankings
+     */
+    public DataVersion getVersion() {
+        return latestVersion;
+    }
+}
@@ -13,8 +13,12 @@ public class CryptoValidator {
     private DaoConfig daoConfig;
 
     public void validateSupportedCrypto(String symbol) {
-        if (symbol == null || !daoConfig.getSupportedCryptos().contains(symbol.toUpperCase())) {
+        if (!isSupportedCrypto(symbol)) {
             throw new CryptoNotSupportedException("Specified crypto is not supported: " + symbol);
         }
     }
+
+    public boolean isSupportedCrypto(String symbol) {
+        return symbol != null && daoConfig.getSupportedCryptos().contains(symbol.toUpperCase());
+    }
 }
@@ -0,0 +1,163 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.series.CryptoStatSeriesView;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Materialized per UTC day aggregated statistics of every crypto together with the crypto
+ * having the highest normalized range that day, so a day lookup is a single map probe.
+ * The table is filled when statistics are ingested and only days touched by new ticks are recomputed.
+ */
+@Component
+public class DailyRangeTable {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final Map<Long, DayRanking> days = new ConcurrentHashMap<>();
+    private final Set<String> builtSymbols = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialized;
+
+    /**
+     * @param date - day to get the winner for
+     * @param symbolsSupplier - provides all cryptos, called once to build cryptos that were never ingested
+     * @param statsLoader - reads all statistics of a crypto, called once for each crypto that was never ingested
+     * @return aggregated statistic of the crypto with the highest normalized range for the day
+     */
+    public Optional<CryptoStatAggregated> getHighestNormalizedRange(LocalDate date, Supplier<Set<String>> symbolsSupplier,
+                                                                    Function<String, List<CryptoStat>> statsLoader) {
+        if (!initialized) {
+            initialize(symbolsSupplier, statsLoader);
+        }
+        var dayRanking = days.get(date.toEpochDay());
+        return dayRanking == null ? Optional.empty() : Optional.ofNullable(dayRanking.winner);
+    }
+
+    /**
+     * Recomputes all days of provided crypto
+     */
+    public synchronized void rebuild(String symbol, List<CryptoStat> cryptoStats) {
+        days.values().forEach(dayRanking -> dayRanking.remove(symbol));
+        aggregateDays(symbol, cryptoStats, Long.MIN_VALUE, Long.MAX_VALUE)
+                .forEach((day, cryptoStatAggregated) -> days.computeIfAbsent(day, key -> new DayRanking()).put(cryptoStatAggregated));
+        builtSymbols.add(symbol);
+    }
+
+    /**
+     * @return whether all days of provided crypto were computed, i.e. it can be {@link #update updated} by days
+     */
+    public boolean isBuilt(String symbol) {
+        return builtSymbols.contains(symbol);
+    }
+
+    /**
+     * Recomputes days [fromEpochDay, toEpochDay] of provided crypto, which must be {@link #isBuilt built}
+     * @param cryptoStats - statistics of the crypto covering at least the recomputed days, e.g. read by a range query
+     */
+    public synchronized void update(String symbol, List<CryptoStat> cryptoStats, long fromEpochDay, long toEpochDay) {
+        var aggregates = aggregateDays(symbol, cryptoStats, fromEpochDay, toEpochDay);
+        for (var day = fromEpochDay; day <= toEpochDay; day++) {
+            var cryptoStatAggregated = aggregates.get(day);
+            if (cryptoStatAggregated != null) {
+                days.computeIfAbsent(day, key -> new DayRanking()).put(cryptoStatAggregated);
+            } else if (days.containsKey(day)) {
+                days.get(day).remove(symbol);
+            }
+        }
+    }
+
+    public static long toEpochDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, DAY_MILLIS);
+    }
+
+    private synchronized void initialize(Supplier<Set<String>> symbolsSupplier, Function<String, List<CryptoStat>> statsLoader) {
+        if (initialized) {
+            return;
+        }
+        symbolsSupplier.get().forEach(symbol -> {
+            if (!builtSymbols.contains(symbol)) {
+                rebuild(symbol, statsLoader.apply(symbol));
+            }
+        });
+        initialized = true;
+    }
+
+    /**
+     * Series views are sliced per day by binary search and aggregated from rollups,
+     * other lists are grouped by day in a single pass
+     */
+    private static Map<Long, CryptoStatAggregated> aggregateDays(String symbol, List<CryptoStat> cryptoStats, long fromEpochDay, long toEpochDay) {
+        var aggregates = new HashMap<Long, CryptoStatAggregated>();
+        if (cryptoStats.isEmpty()) {
+            return aggregates;
+        }
+        if (cryptoStats instanceof CryptoStatSeriesView) {
+            var view = (CryptoStatSeriesView) cryptoStats;
+            var series = view.getSeries();
+            var firstDay = Math.max(fromEpochDay, toEpochDay(series.getTimestamp(view.getFromIndex())));
+            var lastDay = Math.min(toEpochDay, toEpochDay(series.getTimestamp(view.getToIndex() - 1)));
+            for (var day = firstDay; day <= lastDay; day++) {
+                var cryptoStatAggregated = CryptoStatsAggregator.aggregate(symbol, view.subView(day * DAY_MILLIS, (day + 1) * DAY_MILLIS));
+                if (cryptoStatAggregated != null) {
+                    aggregates.put(day, cryptoStatAggregated);
+                }
+            }
+            return aggregates;
+        }
+        var statsByDay = new HashMap<Long, List<CryptoStat>>();
+        for (var cryptoStat : cryptoStats) {
+            var day = cryptoStat.getTimestamp().toLocalDate().toEpochDay();
+            if (day >= fromEpochDay && day <= toEpochDay) {
+                statsByDay.computeIfAbsent(day, key -> new ArrayList<>()).add(cryptoStat);
+            }
+        }
+        statsByDay.forEach((day, dayStats) -> aggregates.put(day, CryptoStatsAggregator.aggregate(symbol, dayStats)));
+        return aggregates;
+    }
+
+    /**
+     * Aggregated statistics of all cryptos for one day. Modified under the table lock, the winner is read without locking.
+     */
+    private static final class DayRanking {
+        private final Map<String, CryptoStatAggregated> aggregates = new HashMap<>();
+        private volatile CryptoStatAggregated winner;
+
+        private void put(CryptoStatAggregated cryptoStatAggregated) {
+            var previous = aggregates.put(cryptoStatAggregated.getSymbol(), cryptoStatAggregated);
+            if (winner == null || CryptoRankingLeaderboards.RANKING_ORDER.compare(cryptoStatAggregated, winner) > 0) {
+                winner = cryptoStatAggregated;
+            } else if (previous != null && previous == winner) {
+                winner = findWinner();
+            }
+        }
+
+        private void remove(String symbol) {
+            var previous = aggregates.remove(symbol);
+            if (previous != null && previous == winner) {
+                winner = findWinner();
+            }
+        }
+
+        private CryptoStatAggregated findWinner() {
+            CryptoStatAggregated best = null;
+            for (var cryptoStatAggregated : aggregates.values()) {
+                if (best == null || CryptoRankingLeaderboards.RANKING_ORDER.compare(cryptoStatAggregated, best) > 0) {
+                    best = cryptoStatAggregated;
+                }
+            }
+            return best;
+        }
+    }
+}
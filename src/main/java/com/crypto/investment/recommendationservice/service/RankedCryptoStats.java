@@ -0,0 +1,92 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Immutable {@link SortedSet} of aggregated crypto statistics backed by an array already sorted by {@link #comparator()}
+ */
+final class RankedCryptoStats extends AbstractSet<CryptoStatAggregated> implements SortedSet<CryptoStatAggregated> {
+
+    private final CryptoStatAggregated[] ranked;
+    private final Comparator<CryptoStatAggregated> comparator;
+
+    RankedCryptoStats(CryptoStatAggregated[] ranked, Comparator<CryptoStatAggregated> comparator) {
+        this.ranked = ranked;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public Iterator<CryptoStatAggregated> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < ranked.length;
+            }
+
+            @Override
+            public CryptoStatAggregated next() {
+                if (index == ranked.length) {
+                    throw new NoSuchElementException();
+                }
+                return ranked[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return ranked.length;
+    }
+
+    @Override
+    public Comparator<? super CryptoStatAggregated> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public CryptoStatAggregated first() {
+        if (ranked.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return ranked[0];
+    }
+
+    @Override
+    public CryptoStatAggregated last() {
+        if (ranked.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return ranked[ranked.length - 1];
+    }
+
+    @Override
+    public SortedSet<CryptoStatAggregated> subSet(CryptoStatAggregated fromElement, CryptoStatAggregated toElement) {
+        return toSortedSet().subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<CryptoStatAggregated> headSet(CryptoStatAggregated toElement) {
+        return toSortedSet().headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<CryptoStatAggregated> tailSet(CryptoStatAggregated fromElement) {
+        return toSortedSet().tailSet(fromElement);
+    }
+
+    private SortedSet<CryptoStatAggregated> toSortedSet() {
+        var sortedSet = new TreeSet<>(comparator);
+        Collections.addAll(sortedSet, ranked);
+        return Collections.unmodifiableSortedSet(sortedSet);
+    }
+}
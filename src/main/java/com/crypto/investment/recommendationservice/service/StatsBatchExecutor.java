@@ -0,0 +1,105 @@
+package com.crypto.investment.recommendationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool batch statistics requests are fanned out on.
+ * When the queue is full the submitting request thread runs the task itself,
+ * so a burst of large batches slows its callers down instead of piling up unbounded work.
+ * Tasks rejected or dropped on shutdown fail with {@link RejectedExecutionException}, so no caller waits for them
+ */
+@Component
+public class StatsBatchExecutor {
+
+    /**
+     * Task completing its own future, so tasks which never run can be failed
+     */
+    private static final class BatchTask<R> implements Runnable {
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private final Supplier<R> supplier;
+
+        private BatchTask(Supplier<R> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }
+
+        private void reject() {
+            future.completeExceptionally(new RejectedExecutionException("Stats batch executor is shut down"));
+        }
+    }
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Number of worker threads, {@code 0} for the number of available processors
+     */
+    @Value("${stats-batch.parallelism:0}")
+    private int parallelism;
+    @Value("${stats-batch.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @PostConstruct
+    public void start() {
+        var threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                          new LinkedBlockingQueue<>(queueCapacity),
+                                          task -> {
+                                              var thread = new Thread(task, "stats-batch-" + threadCount.incrementAndGet());
+                                              thread.setDaemon(true);
+                                              return thread;
+                                          },
+                                          (task, pool) -> {
+                                              if (pool.isShutdown()) {
+                                                  ((BatchTask<?>) task).reject();
+                                              } else {
+                                                  task.run();
+                                              }
+                                          });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow().forEach(task -> ((BatchTask<?>) task).reject());
+    }
+
+    /**
+     * Applies the task to every item in parallel and waits for all of them
+     * @return task results in the order of items
+     */
+    public <T, R> List<R> map(List<T> items, Function<T, R> task) {
+        var futures = new ArrayList<CompletableFuture<R>>(items.size());
+        for (var item : items) {
+            var batchTask = new BatchTask<>(() -> task.apply(item));
+            executor.execute(batchTask);
+            futures.add(batchTask.future);
+        }
+        var results = new ArrayList<R>(items.size());
+        for (var future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+}
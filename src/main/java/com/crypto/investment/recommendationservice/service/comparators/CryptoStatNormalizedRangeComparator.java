@@ -1,6 +1,7 @@
 package com.crypto.investment.recommendationservice.service.comparators;
 
 import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -9,14 +10,21 @@ import java.util.Comparator;
 public class CryptoStatNormalizedRangeComparator implements Comparator<CryptoStatAggregated> {
     @Override
     public int compare(CryptoStatAggregated cs1, CryptoStatAggregated cs2) {
-        return  cs1.getMaxPrice() == null || cs1.getMinPrice() == null
+        return  !hasRange(cs1)
                     ? -1
-                    : cs2.getMaxPrice() == null || cs2.getMinPrice() == null
+                    : !hasRange(cs2)
                         ? 1
                         : calculateNormalization(cs1).compareTo(calculateNormalization(cs2));
     }
 
-    private BigDecimal calculateNormalization(CryptoStatAggregated cs) {
+    /**
+     * @return whether both max and min prices are present
+     */
+    public static boolean hasRange(CryptoStatAggregated cs) {
+        return cs.getUnscaledMaxPrice() != FixedPointPrice.NO_PRICE && cs.getUnscaledMinPrice() != FixedPointPrice.NO_PRICE;
+    }
+
+    public static BigDecimal calculateNormalization(CryptoStatAggregated cs) {
         return cs.getMaxPrice().subtract(cs.getMinPrice()).divide(cs.getMaxPrice(), MathContext.DECIMAL32);
     }
 }
@@ -1,16 +1,17 @@
 package com.crypto.investment.recommendationservice.service.comparators;
 
 import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.FixedPointPrice;
 
 import java.util.Comparator;
 
 public class CryptoStatPriceComparator implements Comparator<CryptoStat> {
     @Override
     public int compare(CryptoStat cs1, CryptoStat cs2) {
-        return cs1.getPrice() == null
+        return !cs1.hasPrice()
                 ? -1
-                : cs2.getPrice() == null
+                : !cs2.hasPrice()
                     ? 1
-                    : cs1.getPrice().compareTo(cs2.getPrice());
+                    : FixedPointPrice.compare(cs1.getUnscaledPrice(), cs1.getScale(), cs2.getUnscaledPrice(), cs2.getScale());
     }
 }
@@ -0,0 +1,116 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterRoutingFilterTest {
+    private static final List<String> NODES = List.of("http://10.0.0.1:8080", "http://10.0.0.2:8080");
+    private static final String TOKEN = "token";
+
+    @Mock
+    private SymbolPartitioner partitioner;
+    @Mock
+    private ClusterClient client;
+    @Mock
+    private CryptoValidator cryptoValidator;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+    @InjectMocks
+    private ClusterRoutingFilter filter;
+
+    @Before
+    public void setUp() {
+        when(partitioner.isEnabled()).thenReturn(true);
+        when(partitioner.getNodes()).thenReturn(NODES);
+        when(partitioner.isForwardedByNode("10.0.0.2", NODES.get(1), TOKEN)).thenReturn(true);
+        when(request.getMethod()).thenReturn("GET");
+    }
+
+    @Test
+    public void shouldServeShardPathOnlyToNodes() throws IOException, ServletException {
+        when(request.getServletPath()).thenReturn("/cluster/shard/stats");
+        when(request.getRemoteAddr()).thenReturn("1.1.1.1");
+        filter.doFilter(request, response, chain);
+        verify(response).setStatus(403);
+        verify(chain, never()).doFilter(request, response);
+
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(request.getHeader(ClusterClient.FORWARDED_HEADER)).thenReturn(NODES.get(1));
+        when(request.getHeader(ClusterClient.TOKEN_HEADER)).thenReturn(TOKEN);
+        filter.doFilter(request, response, chain);
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    public void shouldIgnoreForwardedHeaderOfClientWithoutValidToken() throws IOException, ServletException {
+        when(request.getHeader(ClusterClient.FORWARDED_HEADER)).thenReturn(NODES.get(1));
+        when(request.getHeader(ClusterClient.TOKEN_HEADER)).thenReturn("forged");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(request.getServletPath()).thenReturn("/cluster/shard/stats");
+        filter.doFilter(request, response, chain);
+        verify(response).setStatus(403);
+
+        when(request.getServletPath()).thenReturn("/cryptos/BTC/stats");
+        when(request.getRequestURI()).thenReturn("/cryptos/BTC/stats");
+        when(cryptoValidator.isSupportedCrypto("BTC")).thenReturn(true);
+        when(partitioner.getOwner("BTC")).thenReturn(0);
+        when(client.get(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("refused")));
+        filter.doFilter(request, response, chain);
+        verify(client).get(eq(NODES.get(0)), anyString(), any());
+        verifyZeroInteractions(chain);
+    }
+
+    @Test
+    public void shouldRejectEncodedOrPaddedShardPath() throws IOException, ServletException {
+        when(request.getRequestURI()).thenReturn("//cluster/%73hard/stats");
+        when(request.getServletPath()).thenReturn("/");
+        when(request.getPathInfo()).thenReturn("/cluster/shard/stats");
+        when(request.getRemoteAddr()).thenReturn("1.1.1.1");
+        filter.doFilter(request, response, chain);
+        verify(response).setStatus(403);
+        verifyZeroInteractions(chain);
+    }
+
+    @Test
+    public void shouldRouteDecodedStatsPathToOwner() throws IOException, ServletException {
+        when(request.getRequestURI()).thenReturn("/cryptos/%42TC/stats");
+        when(request.getServletPath()).thenReturn("/cryptos/BTC/stats");
+        when(request.getRemoteAddr()).thenReturn("1.1.1.1");
+        when(cryptoValidator.isSupportedCrypto("BTC")).thenReturn(true);
+        when(partitioner.getOwner("BTC")).thenReturn(1);
+        when(client.get(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("refused")));
+        filter.doFilter(request, response, chain);
+        verify(client).get(eq(NODES.get(1)), anyString(), any());
+        verify(response).setStatus(503);
+        verifyZeroInteractions(chain);
+    }
+}
@@ -0,0 +1,177 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.crypto.investment.recommendationservice.service.CryptoRankingLeaderboards.RANKING_ORDER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Gathers from a second node served on a loopback port
+ */
+public class ShardedCryptoStatsTest {
+    private static final LocalDate DAY = LocalDate.of(2022, 1, 1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String[]> remoteResponses = new ConcurrentHashMap<>();
+    private final List<CryptoStatAggregated> localRanking = new ArrayList<>();
+    private HttpServer remoteNode;
+    private SymbolPartitioner partitioner;
+    private ShardedCryptoStats shardedStats;
+    private String localSymbol;
+    private String remoteSymbol;
+
+    @Before
+    public void setUp() throws IOException {
+        remoteNode = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        remoteNode.createContext("/", exchange -> {
+            var response = remoteResponses.get(exchange.getRequestURI().toString());
+            var body = response == null ? new byte[0] : response[2].getBytes();
+            if (response != null) {
+                exchange.getResponseHeaders().set("ETag", response[1]);
+            }
+            exchange.sendResponseHeaders(response == null ? 404 : Integer.parseInt(response[0]), body.length == 0 ? -1 : body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        remoteNode.start();
+
+        var config = new ClusterConfig();
+        config.setEnabled(true);
+        config.setNodes(List.of("http://127.0.0.1:1", "http://127.0.0.1:" + remoteNode.getAddress().getPort()));
+        partitioner = new SymbolPartitioner();
+        config.setSecret("secret");
+        partitioner.setNodes(config.getNodes(), 0, config.getSecret());
+        var client = new ClusterClient();
+        ReflectionTestUtils.setField(client, "config", config);
+        client.start();
+
+        shardedStats = new ShardedCryptoStats();
+        ReflectionTestUtils.setField(shardedStats, "partitioner", partitioner);
+        ReflectionTestUtils.setField(shardedStats, "client", client);
+        ReflectionTestUtils.setField(shardedStats, "service", new LocalService());
+        ReflectionTestUtils.setField(shardedStats, "versions", new CryptoStatsVersions());
+        ReflectionTestUtils.setField(shardedStats, "objectMapper", objectMapper);
+
+        for (var i = 0; localSymbol == null || remoteSymbol == null; i++) {
+            if (partitioner.isLocal("SYM" + i)) {
+                localSymbol = "SYM" + i;
+            } else {
+                remoteSymbol = "SYM" + i;
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        remoteNode.stop(0);
+    }
+
+    @Test
+    public void shouldMergePartialRankingsAndChangeVersionWithRemoteOne() throws IOException {
+        localRanking.add(stats(localSymbol, 10));
+        localRanking.add(stats("LOW", 1));
+        remote("/cluster/shard/ranking?m=1", "\"r1\"", objectMapper.writeValueAsString(List.of(stats(remoteSymbol, 5))));
+
+        var gathered = shardedStats.gatherRanking(1).join();
+        assertEquals(List.of("LOW", remoteSymbol, localSymbol), gathered.getBody().stream().map(CryptoStatAggregated::getSymbol).collect(Collectors.toList()));
+        assertEquals(gathered.getVersion().getTag(), shardedStats.gatherRanking(1).join().getVersion().getTag());
+
+        remote("/cluster/shard/ranking?m=1", "\"r2\"", objectMapper.writeValueAsString(List.of(stats(remoteSymbol, 20))));
+        var changed = shardedStats.gatherRanking(1).join();
+        assertNotEquals(gathered.getVersion().getTag(), changed.getVersion().getTag());
+        assertEquals(remoteSymbol, changed.getBody().last().getSymbol());
+    }
+
+    @Test
+    public void shouldPickHighestPartialWinnerOfDay() throws IOException {
+        localRanking.add(stats(localSymbol, 10));
+        remote("/cluster/shard/ranking/" + DAY, "\"d1\"", objectMapper.writeValueAsString(stats(remoteSymbol, 30)));
+        assertEquals(remoteSymbol, shardedStats.gatherHighestNormalizedRange(DAY).join().getBody().getSymbol());
+
+        remoteResponses.clear();
+        assertEquals(localSymbol, shardedStats.gatherHighestNormalizedRange(DAY).join().getBody().getSymbol());
+    }
+
+    @Test
+    public void shouldKeepRequestedOrderOfGatheredStats() throws IOException {
+        remote("/cluster/shard/stats?symbols=" + remoteSymbol + "&m=1,3", "\"s1\"", objectMapper.writeValueAsString(
+                List.of(CryptoStatsBatchEntry.ofStats(remoteSymbol, 1, null), CryptoStatsBatchEntry.ofStats(remoteSymbol, 3, null))));
+
+        var entries = shardedStats.gatherStats(List.of(remoteSymbol, localSymbol, remoteSymbol), List.of(1, 3)).join();
+        assertEquals(List.of(remoteSymbol + 1, remoteSymbol + 3, localSymbol + 1, localSymbol + 3),
+                     entries.stream().map(entry -> entry.getSymbol() + entry.getMonths()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldFailIfNodeIsUnavailable() {
+        remoteResponses.put("/cluster/shard/ranking", new String[]{"503", "\"e\"", "busy"});
+        try {
+            shardedStats.gatherRanking(null).join();
+            fail("expected ClusterUnavailableException");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof ClusterUnavailableException);
+        }
+    }
+
+    private void remote(String pathAndQuery, String etag, String body) {
+        remoteResponses.put(pathAndQuery, new String[]{"200", etag, body});
+    }
+
+    private static CryptoStatAggregated stats(String symbol, int max) {
+        return new CryptoStatAggregated(symbol, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.valueOf(max), BigDecimal.ONE);
+    }
+
+    private class LocalService implements CryptoStatsService {
+
+        @Override
+        public Optional<CryptoStatAggregated> getAggregatedStatsForCrypto(String symbol, Integer months) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<CryptoStatsBatchEntry> getAggregatedStatsForCryptos(List<String> symbols, List<Integer> months) {
+            var entries = new ArrayList<CryptoStatsBatchEntry>();
+            symbols.forEach(symbol -> months.forEach(window -> entries.add(CryptoStatsBatchEntry.ofStats(symbol, window, null))));
+            return entries;
+        }
+
+        @Override
+        public SortedSet<CryptoStatAggregated> getAggregatedStatsPerCryptoInDescendingOrder(Integer months) {
+            var ranking = new TreeSet<>(RANKING_ORDER);
+            ranking.addAll(localRanking);
+            return ranking;
+        }
+
+        @Override
+        public Optional<CryptoStatAggregated> getCryptoWithHighestNormalizedRangeForDay(LocalDate date) {
+            return localRanking.stream().max(RANKING_ORDER);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.crypto.investment.recommendationservice.cluster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SymbolPartitionerTest {
+    private static final List<String> NODES = List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082", "http://127.0.0.1:8083");
+    private static final String SECRET = "secret";
+    private static final List<String> SYMBOLS = IntStream.range(0, 3000).mapToObj(i -> "SYM" + i).collect(Collectors.toList());
+
+    @Test
+    public void shouldAssignEverySymbolToExactlyOneNode() {
+        var partitioners = new ArrayList<SymbolPartitioner>();
+        for (var self = 0; self < NODES.size(); self++) {
+            partitioners.add(partitioner(NODES, self));
+        }
+        for (var symbol : SYMBOLS) {
+            var owner = partitioners.get(0).getOwner(symbol);
+            for (var self = 0; self < NODES.size(); self++) {
+                assertEquals(owner, partitioners.get(self).getOwner(symbol));
+                assertEquals(owner == self, partitioners.get(self).isLocal(symbol));
+            }
+        }
+        var counts = new int[NODES.size()];
+        SYMBOLS.forEach(symbol -> counts[partitioners.get(0).getOwner(symbol)]++);
+        for (var count : counts) {
+            assertTrue(count > SYMBOLS.size() / NODES.size() * 0.9 && count < SYMBOLS.size() / NODES.size() * 1.1);
+        }
+    }
+
+    @Test
+    public void shouldMoveSymbolsOnlyToAddedNode() {
+        var before = partitioner(NODES, 0);
+        var grown = new ArrayList<>(NODES);
+        grown.add("http://127.0.0.1:8084");
+        var after = partitioner(grown, 0);
+        var moved = 0;
+        for (var symbol : SYMBOLS) {
+            if (before.getOwner(symbol) != after.getOwner(symbol)) {
+                assertEquals(3, after.getOwner(symbol));
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < SYMBOLS.size() / 3);
+    }
+
+    @Test
+    public void shouldPartitionIgnoringCaseAndOwnEverythingAlone() {
+        var partitioner = partitioner(NODES, 1);
+        assertEquals(partitioner.getOwner("BTC"), partitioner.getOwner("btc"));
+        assertEquals(partitioner.localCryptos(Set.copyOf(SYMBOLS)),
+                     SYMBOLS.stream().filter(partitioner::isLocal).collect(Collectors.toSet()));
+
+        assertFalse(SymbolPartitioner.SINGLE_NODE.isEnabled());
+        assertTrue(SymbolPartitioner.SINGLE_NODE.isLocal("BTC"));
+        assertEquals(Set.of("BTC"), SymbolPartitioner.SINGLE_NODE.localCryptos(Set.of("BTC")));
+    }
+
+    @Test(expected = CryptoNotLocalException.class)
+    public void shouldRefuseCryptosOfOtherNodes() {
+        var partitioner = partitioner(NODES, 0);
+        var foreign = SYMBOLS.stream().filter(symbol -> !partitioner.isLocal(symbol)).findFirst().orElseThrow();
+        partitioner.checkLocal(SYMBOLS.stream().filter(partitioner::isLocal).findFirst().orElseThrow());
+        SymbolPartitioner.SINGLE_NODE.checkLocal(foreign);
+        partitioner.checkLocal(foreign.toLowerCase());
+    }
+
+    @Test
+    public void shouldAcceptOnlySignedRequestsOfNodeAddresses() {
+        var partitioner = partitioner(NODES, 0);
+        var token = SymbolPartitioner.tokenOf(SECRET, NODES.get(1));
+        assertTrue(partitioner.isForwardedByNode("127.0.0.1", NODES.get(1), token));
+        assertFalse(partitioner.isForwardedByNode("127.0.0.1", NODES.get(1), null));
+        assertFalse(partitioner.isForwardedByNode("127.0.0.1", NODES.get(1), SymbolPartitioner.tokenOf("guessed", NODES.get(1))));
+        assertFalse(partitioner.isForwardedByNode("127.0.0.1", NODES.get(2), token));
+        assertFalse(partitioner.isForwardedByNode("127.0.0.1", "http://127.0.0.1:9999", SymbolPartitioner.tokenOf(SECRET, "http://127.0.0.1:9999")));
+        assertFalse(partitioner.isForwardedByNode("10.1.1.1", NODES.get(1), token));
+        assertFalse(SymbolPartitioner.SINGLE_NODE.isForwardedByNode("127.0.0.1", NODES.get(1), token));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireSecretInClusterMode() {
+        new SymbolPartitioner().setNodes(NODES, 0, " ");
+    }
+
+    private static SymbolPartitioner partitioner(List<String> nodes, int self) {
+        var partitioner = new SymbolPartitioner();
+        partitioner.setNodes(nodes, self, SECRET);
+        return partitioner;
+    }
+}
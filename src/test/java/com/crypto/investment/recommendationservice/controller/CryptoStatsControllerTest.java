@@ -0,0 +1,120 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.cluster.ShardedCryptoStats;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CryptoStatsControllerTest {
+    private static final String BTC = "BTC";
+    private static final CryptoStatsVersions.DataVersion VERSION = CryptoStatsVersions.DataVersion.of("v1", 1_000L);
+
+    @Mock
+    private CryptoStatsService service;
+    @Mock
+    private CryptoStatsVersions versions;
+    @Mock
+    private CryptoValidator cryptoValidator;
+    @Mock
+    private ShardedCryptoStats shardedStats;
+    @Spy
+    private RankingResponseCache responseCache = new RankingResponseCache();
+    @InjectMocks
+    private CryptoStatsController controller;
+
+    private MockHttpServletRequest servletRequest;
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+    @Before
+    public void setUp() {
+        when(cryptoValidator.isSupportedCrypto("btc")).thenReturn(true);
+        when(versions.getVersion(BTC)).thenReturn(VERSION);
+        when(versions.getVersion()).thenReturn(VERSION);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWithoutComputingStats() {
+        servletRequest = new MockHttpServletRequest("GET", "/cryptos/btc/stats");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+
+        assertNull(controller.getCryptoStat("btc", null, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"v1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedForMonthWindowOfCurrentDay() {
+        servletRequest = new MockHttpServletRequest("GET", "/cryptos/btc/stats");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, '"' + ConditionalRequests.tag(VERSION, 3) + '"');
+
+        assertNull(controller.getCryptoStat("btc", 3, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedRankingOfMonthWindowWithoutComputingIt() {
+        servletRequest = new MockHttpServletRequest("GET", "/cryptos/ranking");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, '"' + ConditionalRequests.tag(VERSION, 1) + '"');
+
+        assertNull(controller.getCryptoStatsOrderedByNormalizedRange(1, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void shouldComputeStatsIfMonthWindowETagIsOfWholePeriod() {
+        var stats = new CryptoStatAggregated(BTC, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ONE);
+        when(service.getAggregatedStatsForCrypto("btc", 3)).thenReturn(Optional.of(stats));
+        servletRequest = new MockHttpServletRequest("GET", "/cryptos/btc/stats");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+
+        var response = controller.getCryptoStat("btc", 3, new ServletWebRequest(servletRequest, servletResponse));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+        assertEquals('"' + ConditionalRequests.tag(VERSION, 3) + '"', servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(service).getAggregatedStatsForCrypto("btc", 3);
+    }
+
+    @Test
+    public void shouldNotWaitForOtherNodesOnRequestThread() {
+        var gathered = new CompletableFuture<List<CryptoStatsBatchEntry>>();
+        when(shardedStats.isEnabled()).thenReturn(true);
+        when(shardedStats.gatherStats(List.of(BTC), null)).thenReturn(gathered);
+
+        var response = controller.getCryptoStats(List.of(BTC), null);
+        assertFalse(response.isDone());
+        var entries = List.of(CryptoStatsBatchEntry.ofStats(BTC, null, null));
+        gathered.complete(entries);
+        assertEquals(entries, response.join().getBody());
+        verifyZeroInteractions(service);
+    }
+}
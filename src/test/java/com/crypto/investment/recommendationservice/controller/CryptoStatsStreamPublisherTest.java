@@ -0,0 +1,196 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.repository.DaoConfig;
+import com.crypto.investment.recommendationservice.service.CryptoNotSupportedException;
+import com.crypto.investment.recommendationservice.service.CryptoStatsService;
+import com.crypto.investment.recommendationservice.service.CryptoValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CryptoStatsStreamPublisherTest {
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+
+    @Mock
+    private CryptoStatsService service;
+    @Mock
+    private CryptoValidator validator;
+    @Mock
+    private DaoConfig daoConfig;
+    @InjectMocks
+    private CryptoStatsStreamPublisher publisher;
+
+    @Before
+    public void setUp() {
+        when(validator.isSupportedCrypto(anyString())).thenReturn(true);
+        when(daoConfig.getSupportedCryptos()).thenReturn(Set.of(BTC, ETH));
+        when(service.getAggregatedStatsForCrypto(BTC, 1)).thenReturn(Optional.of(new CryptoStatAggregated(BTC, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ONE)));
+        when(service.getAggregatedStatsPerCryptoInDescendingOrder(1)).thenReturn(new TreeSet<>());
+        publisher.start();
+    }
+
+    @After
+    public void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    public void shouldNotRecomputeStatsWithoutSubscribers() {
+        publisher.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, 0, 1));
+        verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void shouldPublishSnapshotAndRecomputeChangedCrypto() {
+        publisher.subscribe(List.of(BTC), 1);
+        assertEquals(1, publisher.getSubscriberCount());
+        verify(service, timeout(1000)).getAggregatedStatsForCrypto(BTC, 1);
+        verify(service, timeout(1000)).getAggregatedStatsPerCryptoInDescendingOrder(1);
+
+        publisher.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, 0, 1));
+        verify(service, timeout(1000).times(2)).getAggregatedStatsForCrypto(BTC, 1);
+        verify(service, timeout(1000).times(2)).getAggregatedStatsPerCryptoInDescendingOrder(1);
+    }
+
+    @Test(expected = CryptoNotSupportedException.class)
+    public void shouldRejectSubscriptionToNotSupportedCrypto() {
+        doThrow(new CryptoNotSupportedException("Specified crypto is not supported: XYZ")).when(validator).validateSupportedCrypto("XYZ");
+        publisher.subscribe(List.of(BTC, "XYZ"), null);
+    }
+
+    @Test
+    public void shouldConflateEventsOfSlowSubscriberWithoutBlockingOthers() {
+        when(service.getAggregatedStatsForCrypto(BTC, 1)).thenReturn(stats(1), stats(2), stats(3), stats(4));
+        when(service.getAggregatedStatsForCrypto(ETH, 1)).thenReturn(Optional.empty());
+        var release = new CountDownLatch(1);
+        var slow = new RecordingEmitter(release);
+        var fast = new RecordingEmitter(new CountDownLatch(0));
+        var streamPublisher = publisherWith(slow, fast);
+        try {
+            streamPublisher.subscribe(List.of(BTC), 1);
+            streamPublisher.subscribe(List.of(ETH), 1);
+            awaitCondition(() -> fast.received.size() == 2);
+            assertEquals(List.of(CryptoStatsBatchEntry.ofStats(ETH, 1, null), List.of()), fast.received);
+
+            for (var update = 1; update <= 3; update++) {
+                streamPublisher.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, 0, update));
+                verify(service, timeout(1000).times(2 + update)).getAggregatedStatsPerCryptoInDescendingOrder(1);
+            }
+            release.countDown();
+            awaitCondition(() -> slow.received.size() == 3);
+            assertEquals(List.of(CryptoStatsBatchEntry.ofStats(BTC, 1, stats(1).get()), List.of(), CryptoStatsBatchEntry.ofStats(BTC, 1, stats(4).get())),
+                         slow.received);
+            assertEquals(Set.of(3), Set.copyOf(slow.eventSizes));
+            assertEquals(Set.of(3), Set.copyOf(fast.eventSizes));
+        } finally {
+            streamPublisher.stop();
+        }
+    }
+
+    @Test
+    public void shouldDropSubscriberOnAnyFailureOfSend() {
+        var failing = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                throw new ConcurrentModificationException();
+            }
+        };
+        var streamPublisher = publisherWith(failing);
+        try {
+            streamPublisher.subscribe(List.of(BTC), 1);
+            awaitCondition(() -> streamPublisher.getSubscriberCount() == 0);
+        } finally {
+            streamPublisher.stop();
+        }
+    }
+
+    private CryptoStatsStreamPublisher publisherWith(SseEmitter... emitters) {
+        var queue = new ArrayDeque<>(List.of(emitters));
+        var streamPublisher = new CryptoStatsStreamPublisher() {
+            @Override
+            SseEmitter newEmitter() {
+                return queue.poll();
+            }
+        };
+        ReflectionTestUtils.setField(streamPublisher, "service", service);
+        ReflectionTestUtils.setField(streamPublisher, "cryptoValidator", validator);
+        ReflectionTestUtils.setField(streamPublisher, "daoConfig", daoConfig);
+        streamPublisher.start();
+        return streamPublisher;
+    }
+
+    private static Optional<CryptoStatAggregated> stats(int max) {
+        return Optional.of(new CryptoStatAggregated(BTC, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.valueOf(max), BigDecimal.ONE));
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    /**
+     * Emitter recording sent payloads, blocking every send until released
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+        private final List<Integer> eventSizes = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            var event = builder.build();
+            eventSizes.add(event.size());
+            event.stream().map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(data -> !(data instanceof String))
+                    .forEach(received::add);
+        }
+    }
+}
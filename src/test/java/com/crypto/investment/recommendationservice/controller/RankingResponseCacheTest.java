@@ -0,0 +1,106 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.service.CryptoStatsVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RankingResponseCacheTest {
+    private static final String KEY = RankingResponseCache.rankingKey(1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<CryptoStatAggregated> ranking = List.of(new CryptoStatAggregated("BTC", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ONE));
+
+    @Mock
+    private WebRequest request;
+    private RankingResponseCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new RankingResponseCache();
+        cache.setObjectMapper(objectMapper);
+    }
+
+    @Test
+    public void shouldServeSerializedAndGzippedPayloadOfSameVersion() throws IOException {
+        var payload = cache.put(KEY, "v1", ranking);
+
+        assertSame(payload, cache.get(KEY, "v1"));
+        assertArrayEquals(objectMapper.writeValueAsBytes(ranking), payload.getJson());
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(payload.getGzip()))) {
+            assertArrayEquals(payload.getJson(), in.readAllBytes());
+        }
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldRespondAsyncAndServeCachedPayloadWithoutComputingAgain() {
+        var version = CryptoStatsVersions.DataVersion.of("v1", 1_000L);
+        var computed = new CompletableFuture<List<CryptoStatAggregated>>();
+        var response = cache.respondAsync(request, KEY, version, null, () -> computed);
+        assertFalse(response.isDone());
+        computed.complete(ranking);
+        assertEquals(HttpStatus.OK, response.join().getStatusCode());
+
+        var cached = cache.respondAsync(request, KEY, version, null, () -> {
+            throw new AssertionError("computed again");
+        });
+        assertTrue(cached.isDone());
+        assertArrayEquals(response.join().getBody(), cached.join().getBody());
+    }
+
+    @Test
+    public void shouldMissPayloadOfOtherVersion() {
+        cache.put(KEY, "v1", ranking);
+
+        assertNull(cache.get(KEY, "v2"));
+        assertNull(cache.get(RankingResponseCache.rankingKey(3), "v1"));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldRespondNotFoundWithoutBody() {
+        var payload = cache.put(RankingResponseCache.dayKey(LocalDate.EPOCH), "v1", null);
+
+        assertEquals(HttpStatus.NOT_FOUND, cache.toResponse(payload, true).getStatusCode());
+    }
+
+    @Test
+    public void shouldRespondGzipOnlyIfAccepted() {
+        var payload = cache.put(KEY, "v1", ranking);
+        when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("deflate, gzip;q=0.8");
+        assertTrue(cache.acceptsGzip(request));
+
+        var response = cache.toResponse(payload, true);
+        assertArrayEquals(payload.getGzip(), response.getBody());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip;q=0, br");
+        assertFalse(cache.acceptsGzip(request));
+        assertArrayEquals(payload.getJson(), cache.toResponse(payload, false).getBody());
+    }
+}
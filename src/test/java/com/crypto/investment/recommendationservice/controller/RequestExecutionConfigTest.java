@@ -0,0 +1,28 @@
+package com.crypto.investment.recommendationservice.controller;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestExecutionConfigTest {
+
+    @Test
+    public void shouldRunOnVirtualThreadsOnlyWhenJdkHasThem() throws ExecutionException, InterruptedException {
+        if (Runtime.version().feature() >= 21) {
+            var executor = RequestExecutionConfig.newVirtualThreadPerTaskExecutor();
+            assertEquals(Boolean.TRUE, executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get());
+            executor.shutdown();
+        } else {
+            try {
+                RequestExecutionConfig.newVirtualThreadPerTaskExecutor();
+                fail("virtual threads are not available on JDK " + Runtime.version());
+            } catch (IllegalStateException ex) {
+                assertTrue(ex.getMessage().contains("JDK 21"));
+            }
+        }
+    }
+}
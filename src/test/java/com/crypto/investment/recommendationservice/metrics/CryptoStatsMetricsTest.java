@@ -0,0 +1,51 @@
+package com.crypto.investment.recommendationservice.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CryptoStatsMetricsTest {
+    private static final String BTC = "BTC";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CryptoStatsMetrics metrics = new CryptoStatsMetrics();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+        ReflectionTestUtils.setField(metrics, "enabled", true);
+        metrics.start();
+    }
+
+    @Test
+    public void shouldRecordStagesAndCountersPerCrypto() {
+        metrics.recordFilter(metrics.startTime());
+        metrics.recordAggregate(metrics.startTime());
+        metrics.recordRead(BTC, "csv", metrics.startTime(), 100);
+        metrics.recordRead(BTC, "snapshot", metrics.startTime(), 50);
+        metrics.recordServed(BTC);
+        metrics.recordServed(BTC);
+        assertEquals(1, registry.get("crypto.stats.filter").timer().count());
+        assertEquals(1, registry.get("crypto.stats.aggregate").timer().count());
+        assertEquals(1, registry.get("crypto.datasource.read").tag("symbol", BTC).tag("source", "csv").timer().count());
+        assertEquals(150, registry.get("crypto.datasource.rows").tag("symbol", BTC).counter().count(), 0);
+        assertEquals(2, registry.get("crypto.stats.served").tag("symbol", BTC).counter().count(), 0);
+    }
+
+    @Test
+    public void shouldRecordNothingWhenDisabled() {
+        var disabled = new CryptoStatsMetrics();
+        ReflectionTestUtils.setField(disabled, "registry", registry);
+        disabled.start();
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.startTime());
+        disabled.recordServed(BTC);
+        assertTrue(registry.find("crypto.stats.served").meters().isEmpty());
+        assertFalse(CryptoStatsMetrics.DISABLED.isEnabled());
+    }
+}
@@ -0,0 +1,72 @@
+package com.crypto.investment.recommendationservice.models;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class FixedPointPriceTest {
+
+    @Test
+    public void shouldKeepScaleOfFixedPointPrices() {
+        var cryptoStat = new CryptoStat(LocalDateTime.of(2022, 1, 1, 0, 0), "BTC", new BigDecimal("46813.20"));
+        assertEquals(4681320L, cryptoStat.getUnscaledPrice());
+        assertEquals(2, cryptoStat.getScale());
+        assertEquals(new BigDecimal("46813.20"), cryptoStat.getPrice());
+        assertEquals(new CryptoStat(LocalDateTime.of(2022, 1, 1, 0, 0), "BTC", 4681320L, 2), cryptoStat);
+    }
+
+    @Test
+    public void shouldRoundPricesNotFittingLong() {
+        var price = FixedPointPrice.normalize(new BigDecimal(4.23));
+        assertEquals(FixedPointPrice.MAX_SCALE, price.scale());
+        assertEquals(0, new BigDecimal("4.23").compareTo(price.setScale(2, java.math.RoundingMode.HALF_EVEN)));
+        assertEquals(new BigDecimal("123456789012345678.9"), FixedPointPrice.normalize(new BigDecimal("123456789012345678.89")));
+        assertNull(new CryptoStat(null, "BTC", null).getPrice());
+    }
+
+    @Test
+    public void shouldRescaleWithHalfEvenRounding() {
+        assertEquals(1250L, FixedPointPrice.rescale(125L, 1, 2));
+        assertEquals(12L, FixedPointPrice.rescale(125L, 1, 0));
+        assertEquals(14L, FixedPointPrice.rescale(135L, 1, 0));
+        assertEquals(-12L, FixedPointPrice.rescale(-125L, 1, 0));
+        assertEquals(-13L, FixedPointPrice.rescale(-126L, 1, 0));
+    }
+
+    @Test
+    public void shouldFailOnOverflow() {
+        assertEquals(1_000_000_000_000_000_000L, FixedPointPrice.pow10(FixedPointPrice.MAX_SCALE));
+        assertThrows(ArithmeticException.class, () -> FixedPointPrice.pow10(FixedPointPrice.MAX_SCALE + 1));
+        assertThrows(ArithmeticException.class, () -> FixedPointPrice.rescale(Long.MAX_VALUE / 10, 0, 2));
+        assertThrows(ArithmeticException.class, () -> FixedPointPrice.rescale(1L, 0, FixedPointPrice.MAX_SCALE + 1));
+        assertThrows(IllegalArgumentException.class, () -> FixedPointPrice.checkScale(FixedPointPrice.MAX_SCALE + 1));
+
+        var cryptoStatAggregated = new CryptoStatAggregated("BTC", new BigDecimal("9000000000000000000"), null, null, null);
+        assertThrows(ArithmeticException.class, () -> cryptoStatAggregated.setNewestPrice(new BigDecimal("1.5")));
+        assertEquals(0, cryptoStatAggregated.getScale());
+        assertNull(cryptoStatAggregated.getNewestPrice());
+    }
+
+    @Test
+    public void shouldComparePricesOfDifferentScales() {
+        assertEquals(0, FixedPointPrice.compare(150L, 2, 15L, 1));
+        assertTrue(FixedPointPrice.compare(151L, 2, 15L, 1) > 0);
+        assertTrue(FixedPointPrice.compare(Long.MAX_VALUE, 0, 1L, 18) > 0);
+    }
+
+    @Test
+    public void shouldAggregateWithCommonScale() {
+        var cryptoStatAggregated = new CryptoStatAggregated("BTC", new BigDecimal("2"), new BigDecimal("1.5"), new BigDecimal("2.25"), null);
+        assertEquals(2, cryptoStatAggregated.getScale());
+        assertEquals(new BigDecimal("2.00"), cryptoStatAggregated.getOldestPrice());
+        assertEquals(new BigDecimal("1.50"), cryptoStatAggregated.getNewestPrice());
+        assertEquals(new BigDecimal("2.25"), cryptoStatAggregated.getMaxPrice());
+        assertNull(cryptoStatAggregated.getMinPrice());
+    }
+}
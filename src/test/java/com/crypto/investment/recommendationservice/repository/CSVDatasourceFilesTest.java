@@ -0,0 +1,76 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CSVDatasourceFilesTest {
+    private static final String BTC = "BTC";
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long MAY_1 = 1682899200000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CSVDaoConfig config = new CSVDaoConfig();
+
+    @Before
+    public void setUp() {
+        config.setDatasourcePath(folder.getRoot().toPath());
+        config.setFilePattern("$SYMBOL_values.csv");
+        config.setRotatedFilePattern("$SYMBOL_values-$DATE.csv");
+    }
+
+    @Test
+    public void shouldListRotatedAndCompressedFilesOfCrypto() throws IOException {
+        for (var name : new String[] {"BTC_values.csv", "BTC_values-2023-05-02.csv.zst", "BTC_values-2023-05-01.csv.gz",
+                                      "ETH_values-2023-05-01.csv", "BTC_values-2023-13-01.csv", "BTC_values.txt"}) {
+            folder.newFile(name);
+        }
+        var files = CSVDatasourceFiles.list(config, BTC);
+        assertEquals(3, files.size());
+        assertEquals(LocalDate.of(2023, 5, 1), files.get(0).getDate());
+        assertEquals(CSVDatasourceFiles.Compression.GZIP, files.get(0).getCompression());
+        assertEquals(LocalDate.of(2023, 5, 2), files.get(1).getDate());
+        assertEquals(CSVDatasourceFiles.Compression.ZSTD, files.get(1).getCompression());
+        assertNull(files.get(2).getDate());
+        assertEquals(CSVDatasourceFiles.Compression.NONE, files.get(2).getCompression());
+        assertEquals("ETH", CSVDatasourceFiles.match(folder.getRoot().toPath().resolve("ETH_values-2023-05-01.csv"), config).getSymbol());
+    }
+
+    @Test
+    public void shouldSkipRotatedFilesOutsideRange() {
+        var rotated = CSVDatasourceFiles.match(Path.of("BTC_values-2023-05-01.csv.gz"), config);
+        assertTrue(rotated.overlaps(MAY_1, MAY_1 + 1));
+        assertTrue(rotated.overlaps(MAY_1 - DAY, MAY_1 + 1));
+        assertFalse(rotated.overlaps(MAY_1 - DAY, MAY_1));
+        assertFalse(rotated.overlaps(MAY_1 + DAY, MAY_1 + 2 * DAY));
+        assertTrue(CSVDatasourceFiles.match(Path.of("BTC_values.csv"), config).overlaps(0, 1));
+    }
+
+    @Test
+    public void shouldDecompressGzipFile() throws IOException {
+        var content = "timestamp,symbol,price\n1682899200000,BTC,29233.2\n".getBytes(StandardCharsets.UTF_8);
+        var path = folder.getRoot().toPath().resolve("BTC_values-2023-05-01.csv.gz");
+        try (var out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(content);
+        }
+        try (var in = CSVDatasourceFiles.open(CSVDatasourceFiles.match(path, config))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CSVDatasourceWatcherTest {
+
+    private static final String BTC = "BTC";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private final CSVDaoConfig config = new CSVDaoConfig();
+    private final CryptoStatsInMemoryDao dao = new CryptoStatsInMemoryDao();
+    private final CSVDatasourceWatcher watcher = new CSVDatasourceWatcher();
+    private Path csvFile;
+    private Path snapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        config.setDatasourcePath(folder.newFolder("data").toPath());
+        config.setSnapshotPath(folder.newFolder("snapshots").toPath());
+        config.setFilePattern("$SYMBOL_values.csv");
+        config.setSupportedCryptos(Set.of(BTC));
+        config.setWatchForUpdates(true);
+        csvFile = config.getDatasourcePath().resolve("BTC_values.csv");
+        Files.writeString(csvFile, "timestamp,symbol,price\n1641009600000,BTC,46813.21\n1641020400000,BTC,46979.61\n");
+        snapshot = config.getSnapshotPath().resolve(BTC + ".snapshot");
+        ReflectionTestUtils.setField(dao, "config", config);
+        ReflectionTestUtils.setField(dao, "eventPublisher", (ApplicationEventPublisher) event -> {
+        });
+        ReflectionTestUtils.setField(watcher, "config", config);
+        ReflectionTestUtils.setField(watcher, "dao", dao);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        watcher.stop();
+    }
+
+    @Test
+    public void shouldLoadSeriesFromSnapshotOnStart() throws IOException {
+        var snapshotSeries = new CryptoPriceSeries(BTC, new long[]{1641009600000L}, new long[]{4681321}, 2, 1);
+        new PriceSeriesSnapshotFile().write(snapshot, snapshotSeries, Files.size(csvFile), Files.getLastModifiedTime(csvFile).toMillis(),
+                Map.of(csvFile, Files.size(csvFile)));
+
+        watcher.start();
+        assertEquals(1, dao.getSeries(BTC).size());
+    }
+
+    @Test
+    public void shouldWriteSnapshotOnStartAndAppendFromLoadedOffset() throws IOException {
+        watcher.start();
+        assertEquals(2, dao.getSeries(BTC).size());
+        assertTrue(Files.exists(snapshot));
+
+        Files.writeString(csvFile, "1641031200000,BTC,47143.98\n", StandardOpenOption.APPEND);
+        watcher.ingest(csvFile);
+        assertEquals(3, dao.getSeries(BTC).size());
+        assertEquals(1641031200000L, dao.getSeries(BTC).getTimestamp(2));
+    }
+
+    @Test
+    public void shouldResumePartlyWrittenLineAfterRestartFromSnapshot() throws IOException {
+        Files.writeString(csvFile, "1641031200000,BTC,471", StandardOpenOption.APPEND);
+        watcher.start();
+        watcher.stop();
+        assertTrue(Files.exists(snapshot));
+
+        var restartedDao = new CryptoStatsInMemoryDao();
+        ReflectionTestUtils.setField(restartedDao, "config", config);
+        ReflectionTestUtils.setField(restartedDao, "eventPublisher", (ApplicationEventPublisher) event -> {
+        });
+        ReflectionTestUtils.setField(watcher, "dao", restartedDao);
+        watcher.start();
+        assertEquals(2, restartedDao.getSeries(BTC).size());
+
+        Files.writeString(csvFile, "43.98\n", StandardOpenOption.APPEND);
+        watcher.ingest(csvFile);
+        assertEquals(3, restartedDao.getSeries(BTC).size());
+        assertEquals(4714398L, restartedDao.getSeries(BTC).getUnscaledPrice(2));
+    }
+
+    @Test
+    public void shouldKeepIngestingIntoTickStore() throws IOException {
+        var tickStoreDao = startTickStoreDao();
+        ReflectionTestUtils.setField(watcher, "dao", tickStoreDao);
+        assertEquals(0, tickStoreDao.getStatsForCrypto(BTC).size());
+
+        watcher.start();
+        assertEquals(2, tickStoreDao.getStatsForCrypto(BTC).size());
+        Files.writeString(csvFile, "1641031200000,BTC,47143.98\n", StandardOpenOption.APPEND);
+        watcher.ingest(csvFile);
+        assertEquals(3, tickStoreDao.getStatsForCrypto(BTC).size());
+        assertEquals(1641031200000L, tickStoreDao.getLastTimestamp(BTC));
+    }
+
+    @Test
+    public void shouldSkipRotatedFilesOfStoredDaysOnReload() throws IOException {
+        config.setRotatedFilePattern("$SYMBOL_values-$DATE.csv");
+        var tickStoreDao = startTickStoreDao();
+        tickStoreDao.reloadSeries(BTC);
+        // not decodable, so reading it would fail the reload
+        var rotated = config.getDatasourcePath().resolve("BTC_values-2021-12-31.csv.gz");
+        Files.write(rotated, new byte[]{1, 2, 3});
+
+        var offsets = tickStoreDao.reloadSeries(BTC);
+        assertEquals(Long.valueOf(3), offsets.get(rotated));
+        assertEquals(2, tickStoreDao.getStatsForCrypto(BTC).size());
+    }
+
+    private CryptoStatsTickStoreDao startTickStoreDao() throws IOException {
+        var storeConfig = new TickStoreConfig();
+        storeConfig.setStorePath(folder.newFolder("store").toPath());
+        var tickStoreDao = new CryptoStatsTickStoreDao();
+        ReflectionTestUtils.setField(tickStoreDao, "config", storeConfig);
+        ReflectionTestUtils.setField(tickStoreDao, "csvConfig", config);
+        ReflectionTestUtils.setField(tickStoreDao, "eventPublisher", (ApplicationEventPublisher) event -> {
+        });
+        tickStoreDao.start();
+        return tickStoreDao;
+    }
+}
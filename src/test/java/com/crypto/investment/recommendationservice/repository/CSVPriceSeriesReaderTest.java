@@ -0,0 +1,77 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+
+public class CSVPriceSeriesReaderTest {
+
+    private static final String CSV = "timestamp,symbol,price\n"
+            + "1641009600000,BTC,46813.21\n"
+            + "1641020400000,BTC,46979.6\n"
+            + "1641031200000,BTC,47143.98\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldParseFileIntoColumns() throws IOException {
+        var columns = new PriceColumns();
+        var offset = new CSVPriceSeriesReader().read(Paths.get("src", "test", "resources", "BTC_values.csv"), 0, true, columns);
+        columns.finish();
+        assertEquals(3, columns.size());
+        assertEquals(1641009600000L, columns.getTimestamp(0));
+        assertEquals(4681321L, columns.getUnscaledPrice(0));
+        assertEquals(2, columns.getScale());
+        assertEquals(Files.size(Paths.get("src", "test", "resources", "BTC_values.csv")), offset);
+    }
+
+    @Test
+    public void shouldParseLinesCrossingMappedChunks() throws IOException {
+        var file = write(CSV);
+        for (var chunkSize = 1; chunkSize <= CSV.length(); chunkSize++) {
+            var columns = new PriceColumns();
+            var offset = new CSVPriceSeriesReader(chunkSize).read(file, 0, true, columns);
+            columns.finish();
+            assertEquals(3, columns.size());
+            assertEquals(4697960L, columns.getUnscaledPrice(1));
+            assertEquals(4714398L, columns.getUnscaledPrice(2));
+            assertEquals(CSV.length(), offset);
+        }
+    }
+
+    @Test
+    public void shouldStopBeforeIncompleteLine() throws IOException {
+        var file = write(CSV + "1641042000000,BTC,47");
+        var columns = new PriceColumns();
+        var offset = new CSVPriceSeriesReader(16).read(file, 0, false, columns);
+        assertEquals(3, columns.size());
+        assertEquals(CSV.length(), offset);
+
+        var appended = new PriceColumns();
+        assertEquals(CSV.length() + 20, new CSVPriceSeriesReader().read(file, offset, true, appended));
+        assertEquals(1, appended.size());
+        assertEquals(1641042000000L, appended.getTimestamp(0));
+        assertEquals(47L, appended.getUnscaledPrice(0));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void shouldRejectInvalidPrice() throws IOException {
+        new CSVPriceSeriesReader().read(write("timestamp,symbol,price\n1641009600000,BTC,4a.1\n"), 0, true, new PriceColumns());
+    }
+
+    private Path write(String content) throws IOException {
+        var file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,138 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.cluster.ClusterConfig;
+import com.crypto.investment.recommendationservice.cluster.CryptoNotLocalException;
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CryptoStatsInMemoryDaoTest {
+
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Mock
+    private CSVDaoConfig config;
+    @InjectMocks
+    private CryptoStatsInMemoryDao dao;
+
+    @Before
+    public void setUp() {
+        when(config.getDatasourcePath()).thenReturn(Paths.get("src", "test", "resources"));
+        when(config.getFilePattern()).thenReturn("$SYMBOL_values.csv");
+        when(config.getSupportedCryptos()).thenReturn(Set.of(BTC, ETH));
+    }
+
+    @Test
+    public void shouldReturnStatsForSpecifiedCrypto() {
+        var result = dao.getStatsForCrypto(BTC);
+        assertEquals(3, result.size());
+        result.stream().map(CryptoStat::getSymbol).forEach(s -> assertEquals(BTC, s));
+        assertEquals(new CryptoStat(LocalDateTime.of(2022, 1, 1, 4, 0), BTC, new BigDecimal("46813.21")), result.get(0));
+    }
+
+    @Test(expected = CryptoNotLocalException.class)
+    public void shouldRefuseCryptoOwnedByOtherNode() {
+        var clusterConfig = new ClusterConfig();
+        clusterConfig.setEnabled(true);
+        clusterConfig.setNodes(List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082"));
+        clusterConfig.setSecret("secret");
+        var partitioner = new SymbolPartitioner();
+        ReflectionTestUtils.setField(partitioner, "config", clusterConfig);
+        partitioner.start();
+        if (partitioner.isLocal(BTC)) {
+            clusterConfig.setNodeIndex(1);
+            partitioner.start();
+        }
+        ReflectionTestUtils.setField(dao, "partitioner", partitioner);
+
+        assertFalse(dao.getAllCryptoStats().containsKey(BTC));
+        dao.getStatsForCrypto(BTC);
+    }
+
+    @Test
+    public void shouldReturnSameDataAsCSVDao() {
+        var csvDao = new CryptoStatsCSVDao();
+        ReflectionTestUtils.setField(csvDao, "config", config);
+        assertEquals(csvDao.getStatsForCrypto(ETH), dao.getStatsForCrypto(ETH));
+    }
+
+    @Test
+    public void shouldWriteSnapshotAndPreferItOnNextLoad() throws IOException {
+        when(config.getSnapshotPath()).thenReturn(folder.getRoot().toPath());
+        var expected = dao.getStatsForCrypto(BTC);
+        var snapshot = folder.getRoot().toPath().resolve(BTC + ".snapshot");
+        assertTrue(Files.exists(snapshot));
+
+        Files.write(snapshot, new byte[0]);
+        var csvFallback = new CryptoStatsInMemoryDao();
+        ReflectionTestUtils.setField(csvFallback, "config", config);
+        assertEquals(expected, csvFallback.getStatsForCrypto(BTC));
+        assertTrue(Files.size(snapshot) > 0);
+
+        var fromSnapshot = new CryptoStatsInMemoryDao();
+        ReflectionTestUtils.setField(fromSnapshot, "config", config);
+        assertEquals(expected, fromSnapshot.getStatsForCrypto(BTC));
+    }
+
+    @Test
+    public void shouldHoldPricesWithConfiguredScale() {
+        when(config.getPriceScales()).thenReturn(Map.of(BTC, 4, ETH, 1));
+        assertEquals(4, dao.getSeries(BTC).getScale());
+        assertEquals(new BigDecimal("46813.2100"), dao.getStatsForCrypto(BTC).get(0).getPrice());
+        assertEquals(1, dao.getSeries(ETH).getScale());
+    }
+
+    @Test
+    public void shouldLoadSeriesOnlyOnce() {
+        assertSame(dao.getSeries(BTC), dao.getSeries(BTC));
+    }
+
+    @Test
+    public void shouldReturnEmptyForIfNotFound() {
+        assertEquals(0, dao.getStatsForCrypto("RAND").size());
+    }
+
+    @Test
+    public void shouldReturnAllCryptoStats() {
+        var result = dao.getAllCryptoStats();
+        assertTrue(result.containsKey(BTC) && result.containsKey(ETH));
+        assertEquals(3, result.get(BTC).size());
+        assertEquals(3, result.get(ETH).size());
+    }
+
+    @Test
+    public void shouldReturnStatsWithinRangeAsViewOfSeries() {
+        var all = dao.getStatsForCrypto(BTC);
+        assertEquals(all.subList(1, 3), dao.getStatsForCrypto(BTC, LocalDateTime.of(2022, 1, 1, 7, 0), LocalDateTime.of(2022, 1, 2, 0, 0)));
+        assertEquals(all.subList(0, 1), dao.getStatsForCrypto(BTC, LocalDateTime.of(2021, 12, 1, 0, 0), LocalDateTime.of(2022, 1, 1, 7, 0)));
+        assertEquals(0, dao.getStatsForCrypto(BTC, LocalDateTime.of(2022, 1, 2, 0, 0), LocalDateTime.of(2022, 1, 1, 0, 0)).size());
+        assertEquals(0, dao.getStatsForCrypto("RAND", LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2023, 1, 1, 0, 0)).size());
+    }
+}
@@ -0,0 +1,75 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CryptoStatsTickStoreDaoTest {
+
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Mock
+    private CSVDaoConfig csvConfig;
+    @Mock
+    private TickStoreConfig config;
+    @InjectMocks
+    private CryptoStatsTickStoreDao dao;
+
+    private final CryptoStatsCSVDao csvDao = new CryptoStatsCSVDao();
+
+    @Before
+    public void setUp() {
+        when(csvConfig.getDatasourcePath()).thenReturn(Paths.get("src", "test", "resources"));
+        when(csvConfig.getFilePattern()).thenReturn("$SYMBOL_values.csv");
+        when(csvConfig.getSupportedCryptos()).thenReturn(Set.of(BTC, ETH));
+        when(config.getStorePath()).thenReturn(folder.getRoot().toPath());
+        when(config.getPartitioning()).thenReturn(TickStoreConfig.Partitioning.DAY);
+        when(config.isImportCsv()).thenReturn(true);
+        ReflectionTestUtils.setField(csvDao, "config", csvConfig);
+        dao.start();
+    }
+
+    @Test
+    public void shouldImportCsvAndReturnSameDataAsCSVDao() {
+        assertEquals(csvDao.getStatsForCrypto(BTC), dao.getStatsForCrypto(BTC));
+        assertEquals(csvDao.getAllCryptoStats(), dao.getAllCryptoStats());
+    }
+
+    @Test
+    public void shouldNotImportCsvTwice() {
+        var restarted = new CryptoStatsTickStoreDao();
+        ReflectionTestUtils.setField(restarted, "config", config);
+        ReflectionTestUtils.setField(restarted, "csvConfig", csvConfig);
+        restarted.start();
+        assertEquals(csvDao.getStatsForCrypto(ETH), restarted.getStatsForCrypto(ETH));
+    }
+
+    @Test
+    public void shouldReturnStatsWithinRange() {
+        var result = dao.getStatsForCrypto(BTC, LocalDateTime.of(2022, 1, 1, 7, 0), LocalDateTime.of(2022, 1, 1, 10, 0));
+        assertEquals(csvDao.getStatsForCrypto(BTC).subList(1, 2), result);
+        assertEquals(0, dao.getStatsForCrypto(BTC, LocalDateTime.of(2022, 1, 2, 0, 0), LocalDateTime.of(2023, 1, 1, 0, 0)).size());
+    }
+
+    @Test
+    public void shouldReturnEmptyForIfNotFound() {
+        assertEquals(0, dao.getStatsForCrypto("RAND").size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PriceSeriesSnapshotFileTest {
+    private static final String BTC = "BTC";
+    private static final long SOURCE_SIZE = 1024;
+    private static final long SOURCE_LAST_MODIFIED = 1641009600000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PriceSeriesSnapshotFile snapshotFile = new PriceSeriesSnapshotFile();
+    private CryptoPriceSeries series;
+    private Path snapshot;
+
+    @Before
+    public void setUp() {
+        var random = new Random(11);
+        var columns = new PriceColumns();
+        var timestamp = SOURCE_LAST_MODIFIED;
+        for (var i = 0; i < 10_000; i++) {
+            timestamp += random.nextInt(3_600_000);
+            columns.add(timestamp, 1 + random.nextInt(10_000_000), random.nextInt(5));
+        }
+        series = CryptoPriceSeries.of(BTC, columns);
+        snapshot = folder.getRoot().toPath().resolve("snapshots").resolve(BTC + ".snapshot");
+    }
+
+    @Test
+    public void shouldReadWrittenSeries() throws IOException {
+        var endOffsets = new HashMap<String, Long>();
+        snapshotFile.write(snapshot, series, SOURCE_SIZE, SOURCE_LAST_MODIFIED, Map.of(Path.of("data", "BTC_values.csv"), SOURCE_SIZE - 7));
+        var result = snapshotFile.read(snapshot, BTC, SOURCE_SIZE, SOURCE_LAST_MODIFIED, endOffsets);
+        assertEquals(series.size(), result.size());
+        assertEquals(series.getScale(), result.getScale());
+        assertEquals(series.asList(), result.asList());
+        assertEquals(Map.of("BTC_values.csv", SOURCE_SIZE - 7), endOffsets);
+    }
+
+    @Test
+    public void shouldIgnoreMissingOrOutdatedSnapshot() throws IOException {
+        assertNull(snapshotFile.read(snapshot, BTC, SOURCE_SIZE, SOURCE_LAST_MODIFIED, new HashMap<>()));
+        snapshotFile.write(snapshot, series, SOURCE_SIZE, SOURCE_LAST_MODIFIED, Map.of());
+        assertNull(snapshotFile.read(snapshot, BTC, SOURCE_SIZE + 1, SOURCE_LAST_MODIFIED, new HashMap<>()));
+        assertNull(snapshotFile.read(snapshot, BTC, SOURCE_SIZE, SOURCE_LAST_MODIFIED + 1, new HashMap<>()));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectCorruptedSnapshot() throws IOException {
+        snapshotFile.write(snapshot, series, SOURCE_SIZE, SOURCE_LAST_MODIFIED, Map.of());
+        var bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+        snapshotFile.read(snapshot, BTC, SOURCE_SIZE, SOURCE_LAST_MODIFIED, new HashMap<>());
+    }
+}
@@ -0,0 +1,121 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TickIngestPipelineTest {
+    private static final String BTC = "BTC";
+    private static final String CSV = "timestamp,symbol,price\n"
+            + "1641009600000,BTC,46813.21\n"
+            + "1641020400000,BTC,46979.6\n"
+            + "1641020400000,BTC,46980\n"
+            + "1641016800000,BTC,46900.5\n"
+            + "1641031200000,ETH,3700.1\n"
+            + "1641031200000,BTC,-1\n"
+            + "1641031200000,BTC,4a.1\n"
+            + "1641031200000;BTC;47000\n"
+            + "1641042000000,BTC,47143.98\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldRejectInvalidRowsAndKeepFirstDuplicate() throws IOException {
+        var ticks = new PriceColumns();
+        var report = pipeline(CSVDaoConfig.OutOfOrderPolicy.SORT, CSVDaoConfig.DuplicatePolicy.KEEP_FIRST)
+                .read(write(CSV), BTC, 0, true, Long.MIN_VALUE, ticks);
+        assertEquals(4, report.getInvalidRows());
+        assertEquals(0, report.getOutOfOrderRows());
+        assertEquals(1, report.getDuplicateRows());
+        assertEquals(4, report.getAcceptedRows());
+        assertEquals(CSV.length(), report.getEndOffset());
+        assertTicks(ticks, new long[] {1641009600000L, 1641016800000L, 1641020400000L, 1641042000000L}, new long[] {4681321, 4690050, 4697960, 4714398});
+        assertTrue(CryptoPriceSeries.of(BTC, ticks).hasDistinctTimestamps());
+    }
+
+    @Test
+    public void shouldDropOutOfOrderRowsAndKeepLastDuplicate() throws IOException {
+        var ticks = new PriceColumns();
+        var report = pipeline(CSVDaoConfig.OutOfOrderPolicy.DROP, CSVDaoConfig.DuplicatePolicy.KEEP_LAST)
+                .read(write(CSV), BTC, 0, true, Long.MIN_VALUE, ticks);
+        assertEquals(1, report.getOutOfOrderRows());
+        assertEquals(1, report.getDuplicateRows());
+        assertEquals(6, report.getRejectedRows());
+        assertTicks(ticks, new long[] {1641009600000L, 1641020400000L, 1641042000000L}, new long[] {4681321, 4698000, 4714398});
+    }
+
+    @Test
+    public void shouldKeepAllRowsOfValidFile() throws IOException {
+        var ticks = new PriceColumns();
+        var report = pipeline(CSVDaoConfig.OutOfOrderPolicy.SORT, CSVDaoConfig.DuplicatePolicy.KEEP_ALL)
+                .read(write(CSV), BTC, 0, true, Long.MIN_VALUE, ticks);
+        assertEquals(4, report.getRejectedRows());
+        assertEquals(5, ticks.size());
+        assertFalse(CryptoPriceSeries.of(BTC, ticks).hasDistinctTimestamps());
+    }
+
+    @Test
+    public void shouldRejectAppendedTicksNotNewerThanStoredOnes() throws IOException {
+        var ticks = new PriceColumns();
+        var report = pipeline(CSVDaoConfig.OutOfOrderPolicy.DROP, CSVDaoConfig.DuplicatePolicy.KEEP_FIRST)
+                .read(write(CSV), BTC, 0, true, 1641020400000L, ticks);
+        assertEquals(2, report.getOutOfOrderRows());
+        assertEquals(2, report.getDuplicateRows());
+        assertTicks(ticks, new long[] {1641042000000L}, new long[] {4714398});
+    }
+
+    @Test
+    public void shouldMergeRotatedAndCompressedFiles() throws IOException {
+        var config = new CSVDaoConfig();
+        config.setDatasourcePath(folder.getRoot().toPath());
+        config.setFilePattern("$SYMBOL_values.csv");
+        config.setRotatedFilePattern("$SYMBOL_values-$DATE.csv");
+        try (var out = new GZIPOutputStream(Files.newOutputStream(folder.getRoot().toPath().resolve("BTC_values-2022-01-01.csv.gz")))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(folder.getRoot().toPath().resolve("BTC_values.csv"),
+                    ("timestamp,symbol,price\n1641042000000,BTC,1\n1641081600000,BTC,47300.1\nbroken\n").getBytes(StandardCharsets.UTF_8));
+        var ticks = new PriceColumns();
+        var report = pipeline(CSVDaoConfig.OutOfOrderPolicy.SORT, CSVDaoConfig.DuplicatePolicy.KEEP_FIRST)
+                .read(CSVDatasourceFiles.list(config, BTC), BTC, ticks);
+        assertEquals(2, report.getFileReports().size());
+        assertEquals(4, report.getFileReports().get(0).getInvalidRows());
+        assertEquals(1, report.getFileReports().get(1).getInvalidRows());
+        assertEquals(5, report.getInvalidRows());
+        assertEquals(2, report.getDuplicateRows());
+        assertEquals(5, report.getAcceptedRows());
+        assertTicks(ticks, new long[] {1641009600000L, 1641016800000L, 1641020400000L, 1641042000000L, 1641081600000L},
+                    new long[] {4681321, 4690050, 4697960, 4714398, 4730010});
+    }
+
+    private static TickIngestPipeline pipeline(CSVDaoConfig.OutOfOrderPolicy outOfOrderPolicy, CSVDaoConfig.DuplicatePolicy duplicatePolicy) {
+        return new TickIngestPipeline(new CSVPriceSeriesReader(), outOfOrderPolicy, duplicatePolicy);
+    }
+
+    private static void assertTicks(PriceColumns ticks, long[] timestamps, long[] prices) {
+        assertEquals(timestamps.length, ticks.size());
+        for (var i = 0; i < timestamps.length; i++) {
+            assertEquals(timestamps[i], ticks.getTimestamp(i));
+            assertEquals(prices[i], ticks.getUnscaledPrice(i));
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        var file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
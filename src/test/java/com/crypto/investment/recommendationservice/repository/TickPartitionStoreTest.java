@@ -0,0 +1,151 @@
+package com.crypto.investment.recommendationservice.repository;
+
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TickPartitionStoreTest {
+    private static final String BTC = "BTC";
+    private static final long START = LocalDate.of(2021, 11, 20).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long STEP = 3_600_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TickPartitionStore store;
+    private PriceColumns ticks;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new TickPartitionStore(folder.getRoot().toPath(), TickStoreConfig.Partitioning.MONTH);
+        var random = new Random(5);
+        ticks = new PriceColumns();
+        for (var i = 0; i < 24 * 100; i++) {
+            ticks.add(START + i * STEP, 1 + random.nextInt(1_000_000), random.nextInt(3));
+        }
+        store.write(BTC, ticks);
+        ticks.finish();
+    }
+
+    @Test
+    public void shouldWriteOnePartitionPerMonth() throws IOException {
+        assertEquals(List.of(LocalDate.of(2021, 11, 1), LocalDate.of(2021, 12, 1), LocalDate.of(2022, 1, 1),
+                             LocalDate.of(2022, 2, 1)),
+                     store.getPartitions(BTC));
+        assertEquals(List.of(), store.getPartitions("ETH"));
+    }
+
+    @Test
+    public void shouldReadOnlyPartitionsOverlappingRange() throws IOException {
+        var from = toEpochMilli(LocalDate.of(2021, 12, 25));
+        var to = toEpochMilli(LocalDate.of(2022, 1, 10));
+        var result = new PriceColumns();
+        assertEquals(2, store.read(BTC, from, to, result));
+        assertRange(result, from, to);
+
+        result = new PriceColumns();
+        assertEquals(4, store.read(BTC, Long.MIN_VALUE, Long.MAX_VALUE, result));
+        assertRange(result, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(0, store.read(BTC, toEpochMilli(LocalDate.of(2023, 1, 1)), Long.MAX_VALUE, new PriceColumns()));
+    }
+
+    @Test
+    public void shouldMergeOutOfOrderTicksIntoPartition() throws IOException {
+        var late = new PriceColumns();
+        late.add(START + STEP / 2, 123, 0);
+        late.add(START + 30 * 24 * STEP, 7, 0);
+        store.write(BTC, late);
+
+        var result = new PriceColumns();
+        store.read(BTC, START, START + 2 * STEP, result);
+        assertEquals(3, result.finish().size());
+        assertEquals(START + STEP / 2, result.getTimestamp(1));
+        assertEquals(123 * (long) Math.pow(10, result.getScale()), result.getUnscaledPrice(1));
+    }
+
+    @Test
+    public void shouldAppendNewerTicksWithoutRewritingPartition() throws IOException {
+        var partition = folder.getRoot().toPath().resolve(BTC).resolve("2022-02-01" + TickPartitionStore.EXTENSION);
+        var stored = Files.readAllBytes(partition);
+        var last = ticks.getTimestamp(ticks.size() - 1);
+        var newer = new PriceColumns();
+        newer.add(last, 5, 0);
+        newer.add(last + STEP, 6, 0);
+        store.write(BTC, newer);
+
+        var appended = Files.readAllBytes(partition);
+        assertTrue(appended.length > stored.length);
+        assertArrayEquals(stored, Arrays.copyOf(appended, stored.length));
+        assertEquals(last + STEP, store.getLastTimestamp(BTC));
+        var result = new PriceColumns();
+        store.read(BTC, last, Long.MAX_VALUE, result);
+        assertEquals(3, result.finish().size());
+        assertEquals(6 * (long) Math.pow(10, result.getScale()), result.getUnscaledPrice(2));
+    }
+
+    @Test
+    public void shouldIgnoreAndOverwriteTornBlock() throws IOException {
+        var partition = folder.getRoot().toPath().resolve(BTC).resolve("2022-02-01" + TickPartitionStore.EXTENSION);
+        var last = ticks.getTimestamp(ticks.size() - 1);
+        var newer = new PriceColumns();
+        newer.add(last + STEP, 6, 0);
+        store.write(BTC, newer);
+        var bytes = Files.readAllBytes(partition);
+        Files.write(partition, Arrays.copyOf(bytes, bytes.length - 3));
+
+        var restarted = new TickPartitionStore(folder.getRoot().toPath(), TickStoreConfig.Partitioning.MONTH);
+        assertEquals(last, restarted.getLastTimestamp(BTC));
+        var result = new PriceColumns();
+        restarted.read(BTC, Long.MIN_VALUE, Long.MAX_VALUE, result);
+        assertRange(result, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        newer = new PriceColumns();
+        newer.add(last + 2 * STEP, 7, 0);
+        restarted.write(BTC, newer);
+        result = new PriceColumns();
+        restarted.read(BTC, last, Long.MAX_VALUE, result);
+        assertEquals(2, result.finish().size());
+        assertEquals(last + 2 * STEP, result.getTimestamp(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectCorruptedPartition() throws IOException {
+        var partition = folder.getRoot().toPath().resolve(BTC).resolve("2021-12-01" + TickPartitionStore.EXTENSION);
+        var bytes = Files.readAllBytes(partition);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(partition, bytes);
+        store.read(BTC, Long.MIN_VALUE, Long.MAX_VALUE, new PriceColumns());
+    }
+
+    private void assertRange(PriceColumns result, long from, long to) {
+        result.finish();
+        var expected = 0;
+        for (var i = 0; i < ticks.size(); i++) {
+            if (ticks.getTimestamp(i) >= from && ticks.getTimestamp(i) < to) {
+                assertEquals(ticks.getTimestamp(i), result.getTimestamp(expected));
+                assertEquals(ticks.getUnscaledPrice(i), result.getUnscaledPrice(expected));
+                expected++;
+            }
+        }
+        assertEquals(expected, result.size());
+    }
+
+    private static long toEpochMilli(LocalDate date) {
+        return date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,130 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CryptoPriceSeriesTest {
+    private static final String BTC = "BTC";
+    private static final long START = LocalDateTime.of(2021, 11, 20, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+    private static final long MAX_STEP = 3 * 3_600_000L;
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void shouldAggregateRangesLikeFullScan() {
+        var series = CryptoPriceSeries.of(BTC, generateTicks(START, 5000));
+        for (var run = 0; run < 2000; run++) {
+            var from = START + (long) (random.nextDouble() * 5000 * MAX_STEP / 2);
+            var to = from + (long) (random.nextDouble() * 5000 * MAX_STEP / 2);
+            assertAggregate(series, series.indexOf(from), series.indexOf(to));
+        }
+    }
+
+    @Test
+    public void shouldFindFirstTickNotOlderThanTimestamp() {
+        var series = CryptoPriceSeries.of(BTC, generateTicks(START, 100));
+        assertEquals(0, series.indexOf(Long.MIN_VALUE));
+        assertEquals(series.size(), series.indexOf(Long.MAX_VALUE));
+        for (var i = 1; i < series.size(); i++) {
+            var index = series.indexOf(series.getTimestamp(i));
+            assertEquals(series.getTimestamp(i), series.getTimestamp(index));
+            assertTrue(series.getTimestamp(index - 1) < series.getTimestamp(i));
+        }
+    }
+
+    @Test
+    public void shouldKeepRollupsConsistentOnAppend() {
+        var series = CryptoPriceSeries.of(BTC, generateTicks(START, 1000));
+        for (var batch = 0; batch < 20; batch++) {
+            var last = series.getTimestamp(series.size() - 1);
+            var previous = series;
+            series = series.append(generateTicks(last, 1 + random.nextInt(300)));
+            assertEquals(previous.size(), previous.asList().size());
+        }
+        for (var run = 0; run < 1000; run++) {
+            var from = random.nextInt(series.size());
+            assertAggregate(series, from, from + random.nextInt(series.size() - from + 1));
+        }
+    }
+
+    @Test
+    public void shouldMergeOutOfOrderTicksOnAppend() {
+        var initial = new PriceColumns();
+        initial.add(START + 10, 100, 1);
+        initial.add(START + 30, 300, 1);
+        var appended = new PriceColumns();
+        appended.add(START + 20, 2005, 2);
+        appended.add(START + 40, 4, 0);
+        var series = CryptoPriceSeries.of(BTC, initial).append(appended);
+        assertEquals(4, series.size());
+        assertEquals(2, series.getScale());
+        assertEquals(START + 20, series.getTimestamp(1));
+        assertEquals(2005, series.getUnscaledPrice(1));
+        assertEquals(3000, series.getUnscaledPrice(2));
+        assertEquals(400, series.getUnscaledPrice(3));
+        assertAggregate(series, 0, 4);
+    }
+
+    @Test
+    public void shouldAppendAcrossChunksLikeBulkLoad() {
+        var all = new PriceColumns();
+        var series = CryptoPriceSeries.empty(BTC);
+        var last = START;
+        while (series.size() < 3 * TickChunks.CHUNK_SIZE) {
+            var batch = generateTicks(last, 1 + random.nextInt(20_000));
+            for (var i = 0; i < batch.size(); i++) {
+                all.add(batch.getTimestamp(i), batch.getUnscaledPrice(i), 2);
+            }
+            last = batch.getTimestamp(batch.size() - 1);
+            series = series.append(batch);
+        }
+        var bulk = CryptoPriceSeries.of(BTC, all);
+        assertEquals(bulk.size(), series.size());
+        for (var i = 0; i < series.size(); i++) {
+            assertEquals(bulk.getTimestamp(i), series.getTimestamp(i));
+            assertEquals(bulk.getUnscaledPrice(i), series.getUnscaledPrice(i));
+        }
+        for (var run = 0; run < 200; run++) {
+            var from = random.nextInt(series.size());
+            assertAggregate(series, from, from + random.nextInt(series.size() - from + 1));
+        }
+    }
+
+    private PriceColumns generateTicks(long start, int count) {
+        var columns = new PriceColumns();
+        var timestamp = start;
+        for (var i = 0; i < count; i++) {
+            timestamp += random.nextInt(4) == 0 ? 0 : (long) (random.nextDouble() * MAX_STEP);
+            columns.add(timestamp, 1000 + random.nextInt(500), 2);
+        }
+        return columns;
+    }
+
+    private static void assertAggregate(CryptoPriceSeries series, int from, int to) {
+        var aggregate = series.aggregate(from, to);
+        if (from >= to) {
+            assertTrue(aggregate.isEmpty());
+            return;
+        }
+        var min = Long.MAX_VALUE;
+        var max = Long.MIN_VALUE;
+        var newest = from;
+        for (var i = from; i < to; i++) {
+            min = Math.min(min, series.getUnscaledPrice(i));
+            max = Math.max(max, series.getUnscaledPrice(i));
+            if (series.getTimestamp(i) > series.getTimestamp(newest)) {
+                newest = i;
+            }
+        }
+        assertEquals(min, aggregate.getMinPrice());
+        assertEquals(max, aggregate.getMaxPrice());
+        assertEquals(from, aggregate.getOldestIndex());
+        assertEquals(newest, aggregate.getNewestIndex());
+    }
+}
@@ -0,0 +1,79 @@
+package com.crypto.investment.recommendationservice.repository.series;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LivePriceSeriesTest {
+    private static final String BTC = "BTC";
+    private static final long START = 1_637_366_400_000L;
+    private static final long STEP = 60_000L;
+    private static final int TICKS = 3 * TickChunks.CHUNK_SIZE + 1234;
+    private static final int READERS = 4;
+
+    @Test
+    public void shouldServeConsistentSnapshotsWhileAppending() throws Exception {
+        var live = new LivePriceSeries(CryptoPriceSeries.empty(BTC));
+        var writing = new AtomicBoolean(true);
+        var readers = new ArrayList<CompletableFuture<Integer>>();
+        for (var reader = 0; reader < READERS; reader++) {
+            var random = new Random(reader);
+            readers.add(CompletableFuture.supplyAsync(() -> {
+                var snapshots = 0;
+                var lastSize = 0;
+                while (writing.get() || snapshots == 0) {
+                    var series = live.snapshot();
+                    assertTrue(series.size() >= lastSize);
+                    lastSize = series.size();
+                    if (lastSize > 0) {
+                        for (var probe = 0; probe < 100; probe++) {
+                            assertTick(series, random.nextInt(lastSize));
+                        }
+                        assertTick(series, lastSize - 1);
+                        var from = random.nextInt(lastSize);
+                        var aggregate = series.aggregate(from, lastSize);
+                        assertEquals(from, aggregate.getMinPrice());
+                        assertEquals(lastSize - 1, aggregate.getMaxPrice());
+                        assertEquals(lastSize - 1, aggregate.getNewestIndex());
+                    }
+                    snapshots++;
+                }
+                return snapshots;
+            }));
+        }
+
+        var random = new Random(42);
+        var written = 0;
+        while (written < TICKS) {
+            var batch = new PriceColumns();
+            var count = Math.min(TICKS - written, 1 + random.nextInt(5000));
+            for (var i = written; i < written + count; i++) {
+                batch.add(START + i * STEP, i, 0);
+            }
+            assertEquals(written + count, live.append(batch).size());
+            written += count;
+        }
+        writing.set(false);
+
+        for (var reader : readers) {
+            assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        }
+        var series = live.snapshot();
+        assertEquals(TICKS, series.size());
+        for (var i = 0; i < TICKS; i++) {
+            assertTick(series, i);
+        }
+    }
+
+    private static void assertTick(CryptoPriceSeries series, int index) {
+        assertEquals(START + index * STEP, series.getTimestamp(index));
+        assertEquals(index, series.getUnscaledPrice(index));
+    }
+}
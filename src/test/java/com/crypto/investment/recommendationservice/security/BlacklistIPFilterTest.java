@@ -0,0 +1,90 @@
+package com.crypto.investment.recommendationservice.security;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BlacklistIPFilterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private ServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+
+    private final BlacklistIPFilter filter = new BlacklistIPFilter();
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.getRoot().toPath().resolve("blacklist.txt");
+        Files.write(file, List.of("# scanners", "10.0.0.0/8", "2001:db8::/32 # documentation range"));
+        ReflectionTestUtils.setField(filter, "ips", Set.of("123.123.123.123"));
+        ReflectionTestUtils.setField(filter, "file", file);
+        filter.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        filter.stop();
+    }
+
+    @Test
+    public void shouldRejectBlacklistedAddressesAndRanges() throws IOException, ServletException {
+        for (var address : new String[] {"123.123.123.123", "10.1.2.3", "2001:db8::1"}) {
+            reset(response, chain);
+            when(request.getRemoteAddr()).thenReturn(address);
+            filter.doFilter(request, response, chain);
+            verify(response).setStatus(401);
+            verify(chain, never()).doFilter(request, response);
+        }
+    }
+
+    @Test
+    public void shouldPassOtherAddresses() throws IOException, ServletException {
+        when(request.getRemoteAddr()).thenReturn("11.0.0.1");
+        filter.doFilter(request, response, chain);
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    public void shouldReloadFileAndKeepBlacklistIfFileIsInvalid() throws IOException, ServletException {
+        Files.write(file, List.of("11.0.0.0/8"));
+        filter.reload();
+        when(request.getRemoteAddr()).thenReturn("11.0.0.1");
+        filter.doFilter(request, response, chain);
+        verify(response).setStatus(401);
+
+        Files.write(file, List.of("12.0.0.0/8", "not an address"));
+        filter.reload();
+        reset(response);
+        filter.doFilter(request, response, chain);
+        verify(response).setStatus(401);
+    }
+}
@@ -0,0 +1,73 @@
+package com.crypto.investment.recommendationservice.security;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClientRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = -5 * SECOND;
+
+    @Test
+    public void shouldAllowBurstAndRefillAtConfiguredRate() {
+        var limiter = new ClientRateLimiter(limit(3, 2), 100, 4);
+        for (var i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("1.1.1.1", START));
+        }
+        assertEquals(SECOND / 2, limiter.tryAcquire("1.1.1.1", START));
+        assertEquals(SECOND / 4, limiter.tryAcquire("1.1.1.1", START + SECOND / 4));
+        assertEquals(0, limiter.tryAcquire("1.1.1.1", START + SECOND / 2));
+        assertTrue(limiter.tryAcquire("1.1.1.1", START + SECOND / 2) > 0);
+        assertEquals(0, limiter.tryAcquire("2.2.2.2", START));
+    }
+
+    @Test
+    public void shouldEvictFullBucketsFirstWhenStripeIsFull() {
+        var limiter = new ClientRateLimiter(limit(1, 1), 4, 1);
+        limiter.tryAcquire("limited", START);
+        for (var i = 0; i < 3; i++) {
+            limiter.tryAcquire("client" + i, START - 2 * SECOND);
+        }
+        assertEquals(4, limiter.size());
+        assertEquals(0, limiter.tryAcquire("new", START));
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire("limited", START) > 0);
+    }
+
+    @Test
+    public void shouldStayBoundedWhenAllClientsAreLimited() {
+        var limiter = new ClientRateLimiter(limit(1, 1), 8, 2);
+        for (var i = 0; i < 100; i++) {
+            limiter.tryAcquire("client" + i, START);
+        }
+        assertTrue(limiter.size() <= 8);
+    }
+
+    @Test
+    public void shouldDenyNewClientsWhileNoBucketIsFull() {
+        var limiter = new ClientRateLimiter(limit(1, 1), 2, 1);
+        assertEquals(0, limiter.tryAcquire("limited0", START));
+        assertEquals(0, limiter.tryAcquire("limited1", START + SECOND / 2));
+        assertEquals(SECOND / 2, limiter.tryAcquire("new", START + SECOND / 2));
+        assertTrue(limiter.tryAcquire("limited0", START + SECOND / 2) > 0);
+        assertEquals(2, limiter.size());
+        assertEquals(0, limiter.tryAcquire("new", START + SECOND));
+        assertTrue(limiter.tryAcquire("limited1", START + SECOND) > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectLimitWithoutRefill() {
+        new ClientRateLimiter(limit(1, 0), 8, 2);
+    }
+
+    private static RateLimitConfig.Limit limit(int capacity, double refillPerSecond) {
+        var limit = new RateLimitConfig.Limit();
+        limit.setPath("/cryptos/ranking");
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
@@ -0,0 +1,79 @@
+package com.crypto.investment.recommendationservice.security;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IpPrefixTrieTest {
+
+    private final IpPrefixTrie trie = IpPrefixTrie.of(List.of("123.123.123.123", "10.0.0.0/8", "192.168.1.128/25",
+                                                              "2001:db8::/32", "fe80::1", " ", "0.0.0.0/32"));
+
+    @Test
+    public void shouldMatchIpv4AddressesAndRanges() {
+        assertTrue(trie.contains("123.123.123.123"));
+        assertFalse(trie.contains("123.123.123.124"));
+        assertTrue(trie.contains("10.255.0.1"));
+        assertFalse(trie.contains("11.0.0.0"));
+        assertTrue(trie.contains("192.168.1.200"));
+        assertFalse(trie.contains("192.168.1.127"));
+        assertTrue(trie.contains("0.0.0.0"));
+        assertEquals(6, trie.size());
+    }
+
+    @Test
+    public void shouldMatchIpv6AddressesAndRanges() {
+        assertTrue(trie.contains("2001:db8:ffff::1"));
+        assertTrue(trie.contains("2001:0DB8:0:0:0:0:0:0"));
+        assertFalse(trie.contains("2001:db9::"));
+        assertTrue(trie.contains("fe80:0:0:0:0:0:0:1"));
+        assertTrue(trie.contains("fe80::1%eth0"));
+        assertFalse(trie.contains("fe80::2"));
+        assertTrue(trie.contains("::ffff:10.1.2.3"));
+        assertTrue(trie.contains("0:0:0:0:0:ffff:7b7b:7b7b"));
+        assertFalse(trie.contains("::"));
+    }
+
+    @Test
+    public void shouldNotMatchInvalidAddresses() {
+        for (var address : new String[] {"", "10.0.0", "10.0.0.256", "10.0.0.1.1", "010.0.0.1", "10..0.1", "2001:db8:::1",
+                                         "2001:db8::1::", "2001:db8:", ":2001:db8::", "1:2:3:4:5:6:7:8:9", "2001:db8::12345", "localhost"}) {
+            assertFalse(address, trie.contains(address));
+        }
+    }
+
+    @Test
+    public void shouldMatchEverythingWithZeroLengthPrefix() {
+        var all = IpPrefixTrie.of(List.of("::/0"));
+        assertTrue(all.contains("1.2.3.4"));
+        assertTrue(all.contains("::1"));
+        assertFalse(IpPrefixTrie.EMPTY.contains("1.2.3.4"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectHostNames() {
+        IpPrefixTrie.of(List.of("localhost"));
+    }
+
+    @Test
+    public void shouldRejectHexHostNamesAndShorthandIpv4WithoutResolving() {
+        for (var entry : new String[] {"cafe", "bad", "dead.beef", "127.1", "10", "0x7f.0.0.1", "fe80::1%eth0", "10.0.0.0/8/8"}) {
+            try {
+                IpPrefixTrie.of(List.of(entry));
+                fail(entry);
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidPrefixLength() {
+        IpPrefixTrie.of(List.of("10.0.0.0/33"));
+    }
+}
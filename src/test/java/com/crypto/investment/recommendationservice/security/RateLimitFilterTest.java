@@ -0,0 +1,114 @@
+package com.crypto.investment.recommendationservice.security;
+
+import com.crypto.investment.recommendationservice.cluster.ClusterClient;
+import com.crypto.investment.recommendationservice.cluster.SymbolPartitioner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RateLimitFilterTest {
+
+    @Mock
+    private RateLimitConfig config;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+    @Mock
+    private SymbolPartitioner partitioner;
+    @InjectMocks
+    private RateLimitFilter filter;
+
+    @Before
+    public void setUp() {
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getLimits()).thenReturn(List.of(limit("/cryptos", 100), limit("/cryptos/ranking", 2)));
+        when(config.getMaxClients()).thenReturn(100);
+        when(config.getStripes()).thenReturn(4);
+        when(request.getRemoteAddr()).thenReturn("1.1.1.1");
+        filter.start();
+    }
+
+    @Test
+    public void shouldRejectRequestsOverLimitOfLongestMatchingPath() throws IOException, ServletException {
+        when(request.getServletPath()).thenReturn("/cryptos/ranking/2022-01-01");
+        for (var i = 0; i < 3; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        verify(chain, times(2)).doFilter(request, response);
+        verify(response).setStatus(429);
+        verify(response).setHeader("Retry-After", "1");
+    }
+
+    @Test
+    public void shouldPassRequestsWithinLimitOrWithoutLimit() throws IOException, ServletException {
+        when(request.getServletPath()).thenReturn("/cryptos/BTC/stats", "/cryptos/BTC/stats", "/cryptos/BTC/stats", "/actuator/prometheus");
+        for (var i = 0; i < 4; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        verify(chain, times(4)).doFilter(request, response);
+        verify(response, never()).setHeader(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldMatchLimitOnDecodedAndNormalizedPath() throws IOException, ServletException {
+        when(request.getRequestURI()).thenReturn("/cryptos/%72anking", "//cryptos/ranking", "/cryptos/%72anking");
+        when(request.getServletPath()).thenReturn("/cryptos/ranking", "/", "/cryptos/ranking");
+        when(request.getPathInfo()).thenReturn(null, "/cryptos/ranking", null);
+        for (var i = 0; i < 3; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        verify(chain, times(2)).doFilter(request, response);
+        verify(response).setStatus(429);
+    }
+
+    @Test
+    public void shouldLimitClientsSendingForwardedHeaderWithoutValidToken() throws IOException, ServletException {
+        when(request.getServletPath()).thenReturn("/cryptos/ranking");
+        when(request.getHeader(ClusterClient.FORWARDED_HEADER)).thenReturn("http://127.0.0.1:8082");
+        when(request.getHeader(ClusterClient.TOKEN_HEADER)).thenReturn("forged");
+        for (var i = 0; i < 3; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        verify(partitioner, times(3)).isForwardedByNode("1.1.1.1", "http://127.0.0.1:8082", "forged");
+        verify(chain, times(2)).doFilter(request, response);
+        verify(response).setStatus(429);
+    }
+
+    @Test
+    public void shouldApplyLimitOnlyToPathsBelowItsSegment() throws IOException, ServletException {
+        when(request.getServletPath()).thenReturn("/cryptos/rankings");
+        for (var i = 0; i < 3; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        verify(chain, times(3)).doFilter(request, response);
+        verify(response, never()).setStatus(429);
+    }
+
+    private static RateLimitConfig.Limit limit(String path, int capacity) {
+        var limit = new RateLimitConfig.Limit();
+        limit.setPath(path);
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(1);
+        return limit;
+    }
+}
@@ -0,0 +1,37 @@
+package com.crypto.investment.recommendationservice.security;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RequestPathsTest {
+
+    @Test
+    public void shouldJoinServletPathAndPathInfoAndCollapseRepeatedSlashes() {
+        var request = new MockHttpServletRequest("GET", "//cryptos///ranking");
+        request.setServletPath("/");
+        request.setPathInfo("/cryptos///ranking/");
+        assertEquals("/cryptos/ranking/", RequestPaths.lookupPath(request));
+    }
+
+    @Test
+    public void shouldReturnNormalizedPathUnchanged() {
+        var servletPath = "/cryptos/ranking";
+        var request = new MockHttpServletRequest("GET", servletPath);
+        request.setServletPath(servletPath);
+        assertSame(servletPath, RequestPaths.lookupPath(request));
+    }
+
+    @Test
+    public void shouldMatchPrefixOnlyAtSegmentBoundary() {
+        assertTrue(RequestPaths.isWithin("/cryptos", "/cryptos"));
+        assertTrue(RequestPaths.isWithin("/cryptos/BTC/stats", "/cryptos"));
+        assertTrue(RequestPaths.isWithin("/cryptos/BTC/stats", "/cryptos/"));
+        assertFalse(RequestPaths.isWithin("/cryptosX", "/cryptos"));
+        assertFalse(RequestPaths.isWithin("/crypto", "/cryptos"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class AggregatedStatsCacheTest {
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+    private static final Instant NOW = Instant.parse("2022-01-31T23:59:00Z");
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private AggregatedStatsCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new AggregatedStatsCache();
+        cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        get(BTC, null);
+        get(BTC, null);
+        get(BTC, 1);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntry() {
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        get(BTC, null);
+        get(ETH, null);
+        get(BTC, null);
+        get(BTC, 1);
+        get(BTC, null);
+        get(ETH, null);
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    public void shouldInvalidateUpdatedCrypto() {
+        get(BTC, null);
+        get(ETH, null);
+        cache.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, 0, 0));
+        get(BTC, null);
+        get(ETH, null);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void shouldInvalidateOnUtcDayRollover() {
+        get(BTC, 1);
+        cache.setClock(Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        get(BTC, 1);
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<CryptoStatAggregated> get(String symbol, Integer months) {
+        return cache.get(symbol, months, () -> {
+            loads.incrementAndGet();
+            return Optional.of(new CryptoStatAggregated(symbol));
+        });
+    }
+}
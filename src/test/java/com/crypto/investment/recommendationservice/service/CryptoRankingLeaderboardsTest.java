@@ -0,0 +1,100 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class CryptoRankingLeaderboardsTest {
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+    private static final String DOGE = "DOGE";
+    private static final Instant NOW = Instant.parse("2022-01-31T23:59:00Z");
+
+    private final Map<String, List<CryptoStat>> stats = new HashMap<>();
+    private final Map<String, CryptoStatAggregated> aggregates = new HashMap<>();
+    private final List<String> aggregated = new ArrayList<>();
+    private CryptoRankingLeaderboards leaderboards;
+
+    @Before
+    public void setUp() {
+        leaderboards = new CryptoRankingLeaderboards();
+        leaderboards.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        put(BTC, 10, 5);
+        put(ETH, 4, 2);
+        put(DOGE, 3, 2);
+    }
+
+    @Test
+    public void shouldKeepCryptosWithEqualNormalizedRange() {
+        assertEquals(List.of(DOGE, BTC, ETH), symbols(ranking(null)));
+    }
+
+    @Test
+    public void shouldServeSnapshotUntilDataChanges() {
+        var first = ranking(null);
+        assertSame(first, ranking(null));
+        assertEquals(3, aggregated.size());
+    }
+
+    @Test
+    public void shouldRecomputeOnlyUpdatedCrypto() {
+        ranking(null);
+        aggregated.clear();
+        put(DOGE, 10, 1);
+        leaderboards.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, DOGE, 0, 0));
+        assertEquals(List.of(BTC, ETH, DOGE), symbols(ranking(null)));
+        assertEquals(List.of(DOGE), aggregated);
+    }
+
+    @Test
+    public void shouldRecomputeMonthWindowOnUtcDayRollover() {
+        ranking(1);
+        aggregated.clear();
+        ranking(1);
+        assertEquals(0, aggregated.size());
+        leaderboards.setClock(Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        ranking(1);
+        assertEquals(3, aggregated.size());
+    }
+
+    @Test
+    public void shouldHaveNoLeaderboardForUncommonWindow() {
+        assertFalse(leaderboards.getRanking(5, stats::keySet, this::aggregate).isPresent());
+    }
+
+    private SortedSet<CryptoStatAggregated> ranking(Integer months) {
+        return leaderboards.getRanking(months, stats::keySet, this::aggregate).orElseThrow();
+    }
+
+    private CryptoStatAggregated aggregate(String symbol) {
+        aggregated.add(symbol);
+        return aggregates.get(symbol);
+    }
+
+    private void put(String symbol, long max, long min) {
+        stats.put(symbol, List.of());
+        aggregates.put(symbol, new CryptoStatAggregated(symbol, BigDecimal.valueOf(min), BigDecimal.valueOf(max),
+                                                        BigDecimal.valueOf(max), BigDecimal.valueOf(min)));
+    }
+
+    private static List<String> symbols(SortedSet<CryptoStatAggregated> ranking) {
+        return ranking.stream().map(CryptoStatAggregated::getSymbol).collect(Collectors.toList());
+    }
+}
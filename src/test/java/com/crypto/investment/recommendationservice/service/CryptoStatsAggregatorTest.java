@@ -0,0 +1,87 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that {@link CryptoStatsAggregator} gives the same results as the comparator based aggregation
+ * over {@link CryptoStatAggregatedFields}
+ */
+public class CryptoStatsAggregatorTest {
+    private static final String BTC = "BTC";
+    private static final long START = LocalDateTime.of(2022, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void shouldReturnNullForEmptyStats() {
+        assertNull(CryptoStatsAggregator.aggregate(BTC, List.of()));
+        assertNull(CryptoStatsAggregator.aggregate(BTC, CryptoPriceSeries.empty(BTC).asList()));
+    }
+
+    @Test
+    public void shouldMatchComparatorAggregationForRandomStats() {
+        for (var run = 0; run < 500; run++) {
+            var cryptoStats = generateCryptoStats(1 + random.nextInt(200), false);
+            assertEquals(aggregateWithComparators(cryptoStats), CryptoStatsAggregator.aggregate(BTC, cryptoStats));
+            assertEquals(aggregateWithComparators(cryptoStats), CryptoStatsAggregator.aggregate(BTC, new LinkedList<>(cryptoStats)));
+        }
+    }
+
+    @Test
+    public void shouldMatchComparatorAggregationForStatsWithNulls() {
+        for (var run = 0; run < 500; run++) {
+            var cryptoStats = generateCryptoStats(1 + random.nextInt(20), true);
+            assertEquals(aggregateWithComparators(cryptoStats), CryptoStatsAggregator.aggregate(BTC, cryptoStats));
+        }
+    }
+
+    @Test
+    public void shouldMatchComparatorAggregationForSeriesView() {
+        for (var run = 0; run < 500; run++) {
+            var size = 1 + random.nextInt(200);
+            var columns = new PriceColumns();
+            for (var i = 0; i < size; i++) {
+                columns.add(START + random.nextInt(size) * 60_000L, random.nextInt(1000), 2);
+            }
+            var view = CryptoPriceSeries.of(BTC, columns).asList();
+            var from = random.nextInt(size);
+            var subView = view.subList(from, from + 1 + random.nextInt(size - from));
+            assertEquals(aggregateWithComparators(new ArrayList<>(subView)), CryptoStatsAggregator.aggregate(BTC, subView));
+        }
+    }
+
+    private List<CryptoStat> generateCryptoStats(int size, boolean withNulls) {
+        var cryptoStats = new ArrayList<CryptoStat>(size);
+        for (var i = 0; i < size; i++) {
+            var timestamp = withNulls && random.nextInt(5) == 0 ? null : LocalDateTime.of(2022, 1, 1 + random.nextInt(10), 0, 0);
+            var price = withNulls && random.nextInt(5) == 0 ? null : BigDecimal.valueOf(random.nextInt(100), random.nextInt(3));
+            cryptoStats.add(new CryptoStat(timestamp, BTC, price));
+        }
+        return cryptoStats;
+    }
+
+    private static CryptoStatAggregated aggregateWithComparators(List<CryptoStat> cryptoStats) {
+        var cryptoStatAggregated = new CryptoStatAggregated(BTC);
+        for (var field : CryptoStatAggregatedFields.values()) {
+            cryptoStats.stream().max(field.getComp())
+                    .map(CryptoStat::getPrice)
+                    .ifPresent(price -> field.getSetter().accept(cryptoStatAggregated, price));
+        }
+        return cryptoStatAggregated;
+    }
+}
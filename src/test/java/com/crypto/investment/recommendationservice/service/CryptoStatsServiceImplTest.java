@@ -2,13 +2,18 @@ package com.crypto.investment.recommendationservice.service;
 
 import com.crypto.investment.recommendationservice.models.CryptoStat;
 import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.models.CryptoStatsBatchEntry;
 import com.crypto.investment.recommendationservice.repository.CryptoStatsCSVDao;
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.math.BigDecimal;
@@ -16,16 +21,22 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.SortedSet;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -37,6 +48,7 @@ public class CryptoStatsServiceImplTest {
     private static final String BTC = "BTC";
     private static final String ETH = "ETH";
     private static final String DOGE = "DOGE";
+    private static final String XYZ = "XYZ";
     private static final Map<String, List<CryptoStat>> resource = Map.of(
             BTC, generateCryptoStats(BTC, 4.23, 1.3, 3.26, 3.11),
             ETH, generateCryptoStats(ETH, 2.87, 0.95, 1.32, 1.56),
@@ -47,20 +59,37 @@ public class CryptoStatsServiceImplTest {
     private CryptoStatsCSVDao dao;
     @Mock
     private CryptoValidator validator;
+    @Spy
+    private AggregatedStatsCache cache = new AggregatedStatsCache();
+    @Spy
+    private CryptoRankingLeaderboards leaderboards = new CryptoRankingLeaderboards();
+    @Spy
+    private DailyRangeTable dailyRangeTable = new DailyRangeTable();
+    @Spy
+    private StatsBatchExecutor batchExecutor = new StatsBatchExecutor();
     @InjectMocks
     private CryptoStatsServiceImpl service;
 
     @Before
     public void setUp() {
-        when(dao.getAllCryptoStats()).thenReturn(resource);
+        when(dao.getCryptos()).thenReturn(resource.keySet());
         when(dao.getStatsForCrypto(anyString())).thenAnswer(s ->{
             var param = s.getArgumentAt(0 ,String.class);
             return resource.getOrDefault(param, Collections.emptyList());
         });
+        when(dao.getStatsForCrypto(anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenAnswer(s -> {
+            var from = s.getArgumentAt(1, LocalDateTime.class);
+            var to = s.getArgumentAt(2, LocalDateTime.class);
+            return resource.getOrDefault(s.getArgumentAt(0, String.class), Collections.emptyList()).stream()
+                    .filter(stat -> !stat.getTimestamp().isBefore(from) && stat.getTimestamp().isBefore(to))
+                    .collect(Collectors.toList());
+        });
+        batchExecutor.start();
     }
 
     @After
     public void tearDown() {
+        batchExecutor.stop();
         verifyNoMoreInteractions(validator);
     }
 
@@ -79,9 +108,88 @@ public class CryptoStatsServiceImplTest {
     public void testReturnByCryptoWithSpecifiedMonths() {
         assertFalse(service.getAggregatedStatsForCrypto(ETH, 1).isPresent());
         assertTrue(service.getAggregatedStatsForCrypto(ETH, 2).isPresent());
+        var today = LocalDate.now(ZoneOffset.UTC);
+        verify(dao, times(1)).getStatsForCrypto(ETH, today.minusMonths(2).atStartOfDay(), today.plusDays(1).atStartOfDay());
         verify(validator, times(2)).validateSupportedCrypto(ETH);
     }
 
+    @Test
+    public void shouldServeRepeatedRequestFromCache() {
+        var first = service.getAggregatedStatsForCrypto(BTC, null);
+        var second = service.getAggregatedStatsForCrypto(BTC, null);
+        assertEquals(first, second);
+        verify(dao, times(1)).getStatsForCrypto(BTC);
+        verify(validator, times(2)).validateSupportedCrypto(BTC);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldReturnBatchOfStatsWithInlineErrors() {
+        doThrow(new CryptoNotSupportedException("Specified crypto is not supported: XYZ")).when(validator).validateSupportedCrypto(XYZ);
+        var result = service.getAggregatedStatsForCryptos(List.of(BTC, XYZ, ETH, BTC), Arrays.asList(null, 1));
+        assertEquals(6, result.size());
+        assertEquals(CryptoStatsBatchEntry.ofStats(BTC, null, service.getAggregatedStatsForCrypto(BTC, null).get()), result.get(0));
+        assertEquals(CryptoStatsBatchEntry.ofStats(BTC, 1, null), result.get(1));
+        assertEquals(CryptoStatsBatchEntry.ofError(XYZ, null, "Specified crypto is not supported: XYZ"), result.get(2));
+        assertEquals(CryptoStatsBatchEntry.ofError(XYZ, 1, "Specified crypto is not supported: XYZ"), result.get(3));
+        assertEquals(ETH, result.get(4).getStats().getSymbol());
+        assertNull(result.get(5).getStats());
+        verify(dao, times(1)).getStatsForCrypto(BTC);
+        verify(dao, times(1)).getStatsForCrypto(ETH);
+        verify(validator, times(2)).validateSupportedCrypto(BTC);
+        verify(validator, times(1)).validateSupportedCrypto(ETH);
+        verify(validator, times(1)).validateSupportedCrypto(XYZ);
+    }
+
+    @Test
+    public void shouldReadWidestWindowOnceAndSliceNarrowerOnes() {
+        var result = service.getAggregatedStatsForCryptos(List.of(DOGE), List.of(1, 3));
+        assertNull(result.get(0).getStats());
+        assertEquals(service.getAggregatedStatsForCrypto(DOGE, null).get(), result.get(1).getStats());
+        var today = LocalDate.now(ZoneOffset.UTC);
+        verify(dao, times(1)).getStatsForCrypto(DOGE, today.minusMonths(3).atStartOfDay(), today.plusDays(1).atStartOfDay());
+        verify(dao, never()).getStatsForCrypto(DOGE, today.minusMonths(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+        verify(validator, times(2)).validateSupportedCrypto(DOGE);
+    }
+
+    @Test
+    public void shouldReadOnlyAppendedDaysOnIngest() {
+        var day = DATE.toLocalDate();
+        service.getCryptoWithHighestNormalizedRangeForDay(day);
+        when(validator.isSupportedCrypto(BTC)).thenReturn(true);
+        var timestamp = DATE.toInstant(ZoneOffset.UTC).toEpochMilli();
+        service.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, timestamp, timestamp + 3_600_000L));
+        verify(dao, times(1)).getStatsForCrypto(BTC);
+        verify(dao, times(1)).getStatsForCrypto(BTC, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        verify(validator, times(1)).isSupportedCrypto(BTC);
+    }
+
+    @Test
+    public void shouldCountMidnightTickToTheDayItStarts() {
+        var day = DATE.toLocalDate();
+        var midnight = new CryptoStat(DATE, BTC, BigDecimal.ONE);
+        var nextMidnight = new CryptoStat(DATE.plusDays(1), BTC, BigDecimal.TEN);
+        assertEquals(List.of(midnight), service.filterByDateSpan(List.of(midnight, nextMidnight), day, day.plusDays(1)));
+
+        var columns = new PriceColumns();
+        columns.add(DATE.toInstant(ZoneOffset.UTC).toEpochMilli(), 1, 0);
+        columns.add(DATE.plusDays(1).toInstant(ZoneOffset.UTC).toEpochMilli(), 10, 0);
+        var sliced = service.filterByDateSpan(CryptoPriceSeries.of(BTC, columns).asList(), day, day.plusDays(1));
+        assertEquals(1, sliced.size());
+        assertEquals(DATE, sliced.get(0).getTimestamp());
+    }
+
+    @Test
+    public void shouldReportErrorsWithUpperCasedSymbol() {
+        doThrow(new CryptoNotSupportedException("Specified crypto is not supported: xyz")).when(validator).validateSupportedCrypto("xyz");
+        var result = service.getAggregatedStatsForCryptos(List.of("xyz", "btc"), List.of(1));
+        assertEquals(CryptoStatsBatchEntry.ofError(XYZ, 1, "Specified crypto is not supported: xyz"), result.get(0));
+        assertEquals(BTC, result.get(1).getSymbol());
+        verify(validator, times(1)).validateSupportedCrypto("xyz");
+        verify(validator, times(1)).validateSupportedCrypto("btc");
+    }
+
     @Test
     public void shouldReturnResultInDescendingOrderByNormalizedRange() {
         SortedSet<CryptoStatAggregated> result = service.getAggregatedStatsPerCryptoInDescendingOrder(null);
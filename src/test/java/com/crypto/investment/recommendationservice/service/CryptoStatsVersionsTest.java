@@ -0,0 +1,43 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.repository.CryptoStatsUpdatedEvent;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class CryptoStatsVersionsTest {
+    private static final String BTC = "BTC";
+    private static final String ETH = "ETH";
+    private static final Instant START = Instant.parse("2022-01-01T10:00:00Z");
+
+    @Test
+    public void shouldAdvanceVersionOfUpdatedCryptoOnly() {
+        var versions = new CryptoStatsVersions(Clock.fixed(START, ZoneOffset.UTC));
+        var initial = versions.getVersion(BTC);
+        assertSame(initial, versions.getVersion(ETH));
+        assertSame(initial, versions.getVersion());
+        assertEquals(START.toEpochMilli(), initial.getLastModified());
+
+        versions.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, BTC, 0, 0));
+        assertNotEquals(initial.getTag(), versions.getVersion(BTC).getTag());
+        assertSame(initial, versions.getVersion(ETH));
+        assertSame(versions.getVersion(BTC), versions.getVersion());
+
+        versions.onCryptoStatsUpdated(new CryptoStatsUpdatedEvent(this, ETH, 0, 0));
+        assertNotEquals(versions.getVersion(BTC).getTag(), versions.getVersion(ETH).getTag());
+        assertSame(versions.getVersion(ETH), versions.getVersion());
+    }
+
+    @Test
+    public void shouldTellInstancesApart() {
+        var first = new CryptoStatsVersions(Clock.fixed(START, ZoneOffset.UTC));
+        var restarted = new CryptoStatsVersions(Clock.fixed(START.plusSeconds(1), ZoneOffset.UTC));
+        assertNotEquals(first.getVersion(BTC).getTag(), restarted.getVersion(BTC).getTag());
+    }
+}
@@ -0,0 +1,117 @@
+package com.crypto.investment.recommendationservice.service;
+
+import com.crypto.investment.recommendationservice.models.CryptoStat;
+import com.crypto.investment.recommendationservice.models.CryptoStatAggregated;
+import com.crypto.investment.recommendationservice.repository.series.CryptoPriceSeries;
+import com.crypto.investment.recommendationservice.repository.series.PriceColumns;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DailyRangeTableTest {
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final long START_MILLIS = START.atStartOfDay().toEpochSecond(ZoneOffset.UTC) * 1000;
+    private static final int DAYS = 40;
+    private static final List<String> SYMBOLS = List.of("BTC", "DOGE", "ETH", "LTC", "XRP");
+
+    private final Random random = new Random(3);
+    private final DailyRangeTable table = new DailyRangeTable();
+
+    @Test
+    public void shouldMatchPerDayScanForSeriesViews() {
+        var stats = generateStats(true);
+        assertMatchesScan(stats);
+    }
+
+    @Test
+    public void shouldMatchPerDayScanForPlainLists() {
+        var stats = generateStats(false);
+        assertMatchesScan(stats);
+    }
+
+    @Test
+    public void shouldUpdateOnlyIngestedDays() {
+        var series = new HashMap<String, CryptoPriceSeries>();
+        var stats = new HashMap<String, List<CryptoStat>>();
+        SYMBOLS.forEach(symbol -> {
+            series.put(symbol, CryptoPriceSeries.of(symbol, generateTicks(0, DAYS / 2)));
+            stats.put(symbol, series.get(symbol).asList());
+        });
+        table.getHighestNormalizedRange(START, stats::keySet, stats::get);
+        for (var symbol : SYMBOLS) {
+            var appended = series.get(symbol).append(generateTicks(DAYS / 2, DAYS));
+            stats.put(symbol, appended.asList());
+            table.update(symbol, appended.asList(START_MILLIS + DAYS / 2 * 86_400_000L, Long.MAX_VALUE),
+                         START.toEpochDay() + DAYS / 2, START.toEpochDay() + DAYS);
+        }
+        assertMatchesScan(stats);
+    }
+
+    @Test
+    public void shouldReturnEmptyForDayWithoutData() {
+        var stats = generateStats(true);
+        assertFalse(table.getHighestNormalizedRange(START.minusDays(1), stats::keySet, stats::get).isPresent());
+    }
+
+    @Test
+    public void shouldCountMidnightTickToTheDayItStarts() {
+        var columns = new PriceColumns();
+        columns.add(START_MILLIS, 100, 1);
+        var view = CryptoPriceSeries.of("BTC", columns).asList();
+        for (var stats : List.of(Map.of("BTC", view), Map.<String, List<CryptoStat>>of("BTC", new ArrayList<>(view)))) {
+            var dayTable = new DailyRangeTable();
+            assertTrue(dayTable.getHighestNormalizedRange(START, stats::keySet, stats::get).isPresent());
+            assertFalse(dayTable.getHighestNormalizedRange(START.minusDays(1), stats::keySet, stats::get).isPresent());
+        }
+    }
+
+    private void assertMatchesScan(Map<String, List<CryptoStat>> stats) {
+        for (var date = START.minusDays(1); date.isBefore(START.plusDays(DAYS + 1)); date = date.plusDays(1)) {
+            assertEquals(scan(stats, date), table.getHighestNormalizedRange(date, stats::keySet, stats::get));
+        }
+    }
+
+    private static Optional<CryptoStatAggregated> scan(Map<String, List<CryptoStat>> stats, LocalDate date) {
+        return stats.entrySet().stream()
+                .map(entry -> CryptoStatsAggregator.aggregate(entry.getKey(), entry.getValue().stream()
+                        .filter(cs -> cs.getTimestamp().toLocalDate().equals(date))
+                        .collect(Collectors.toList())))
+                .filter(Objects::nonNull)
+                .max(CryptoRankingLeaderboards.RANKING_ORDER);
+    }
+
+    private Map<String, List<CryptoStat>> generateStats(boolean asSeries) {
+        var stats = new HashMap<String, List<CryptoStat>>();
+        for (var symbol : SYMBOLS) {
+            var view = CryptoPriceSeries.of(symbol, generateTicks(0, DAYS)).asList();
+            stats.put(symbol, asSeries ? view : new ArrayList<>(view));
+        }
+        return stats;
+    }
+
+    private PriceColumns generateTicks(int fromDay, int toDay) {
+        var columns = new PriceColumns();
+        for (var day = fromDay; day < toDay; day++) {
+            if (random.nextInt(4) == 0) {
+                continue;
+            }
+            for (var tick = random.nextInt(6); tick >= 0; tick--) {
+                columns.add(START_MILLIS + day * 86_400_000L + random.nextInt(86_400_000), 100 + random.nextInt(100), 1);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,78 @@
+package com.crypto.investment.recommendationservice.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StatsBatchExecutorTest {
+
+    private final StatsBatchExecutor executor = new StatsBatchExecutor();
+
+    @Before
+    public void setUp() {
+        executor.start();
+    }
+
+    @After
+    public void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    public void shouldReturnResultsInOrderOfItems() {
+        var items = IntStream.range(0, 5_000).boxed().collect(Collectors.toList());
+        List<Integer> result = executor.map(items, item -> item * 2);
+        assertEquals(items.stream().map(item -> item * 2).collect(Collectors.toList()), result);
+    }
+
+    @Test
+    public void shouldFailTasksNotRunBeforeShutdown() {
+        var started = new CountDownLatch(1);
+        var items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        var batch = CompletableFuture.runAsync(() -> executor.map(items, item -> {
+            started.countDown();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            return item;
+        }));
+        awaitUninterruptibly(started);
+        executor.stop();
+        try {
+            batch.get(5, TimeUnit.SECONDS);
+            fail("expected RejectedExecutionException");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        } catch (InterruptedException | TimeoutException ex) {
+            throw new AssertionError("batch did not complete after shutdown", ex);
+        }
+        try {
+            executor.map(items, item -> item);
+            fail("expected RejectedExecutionException");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+}